@@ -0,0 +1,63 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.utils.StrategyBacktester;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The backtest service's hot path for 50 funds with ten years of daily NAVs: each fund run
+ * separately under three strategies in parallel, and all 50 as one equal-weight basket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BacktestBenchmark {
+
+    private static final int FUNDS = 50;
+    private static final int POINTS = 2_610; // ten years of weekdays
+
+    private static final StrategyBacktester.Strategy[] STRATEGIES = {
+            new StrategyBacktester.Strategy(StrategyBacktester.Type.LUMP_SUM, 100_000, 1, 0),
+            new StrategyBacktester.Strategy(StrategyBacktester.Type.SIP, 5_000, 5, 0),
+            new StrategyBacktester.Strategy(StrategyBacktester.Type.STEP_UP_SIP, 5_000, 5, 0.10)
+    };
+
+    private int[][] epochDays;
+    private double[][] navs;
+    private double[] basketWeights;
+
+    @Setup
+    public void setUp() {
+        epochDays = new int[FUNDS][];
+        navs = new double[FUNDS][];
+        for (int f = 0; f < FUNDS; f++) {
+            SyntheticSeries series = new SyntheticSeries(POINTS, 42L + f);
+            epochDays[f] = series.epochDays;
+            navs[f] = series.navs;
+        }
+        basketWeights = new double[FUNDS];
+        Arrays.fill(basketWeights, 1.0 / FUNDS);
+    }
+
+    @Benchmark
+    public double eachFund() {
+        return IntStream.range(0, FUNDS * STRATEGIES.length).parallel().mapToDouble(job -> {
+            int f = job / STRATEGIES.length;
+            StrategyBacktester.Grid grid = StrategyBacktester.Grid.of(
+                    new int[][] { epochDays[f] }, new double[][] { navs[f] }, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return StrategyBacktester.run(grid, new double[] { 1.0 }, STRATEGIES[job % STRATEGIES.length]).xirr();
+        }).sum();
+    }
+
+    @Benchmark
+    public StrategyBacktester.Result basket() {
+        StrategyBacktester.Grid grid = StrategyBacktester.Grid.of(epochDays, navs, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return StrategyBacktester.run(grid, basketWeights, STRATEGIES[1]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.utils.FinancialCalculator;
+import com.fsad.mutualfund.utils.RunningStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FinancialCalculatorBenchmark {
+
+    private static final BigDecimal RISK_FREE_RATE = new BigDecimal("0.06");
+
+    @Param({ "1000", "100000", "1000000" })
+    private int points;
+
+    private List<BigDecimal> returns;
+    private double[] navs;
+    private long[] fixedNavs;
+    private BigDecimal firstNav;
+    private BigDecimal lastNav;
+
+    @Setup
+    public void setUp() {
+        SyntheticSeries series = new SyntheticSeries(points, 42L);
+        navs = series.navs;
+        fixedNavs = new long[points];
+        returns = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            fixedNavs[i] = Math.round(navs[i] * 10_000);
+            if (i > 0) {
+                returns.add(BigDecimal.valueOf(navs[i] / navs[i - 1] - 1.0).setScale(6, RoundingMode.HALF_UP));
+            }
+        }
+        firstNav = BigDecimal.valueOf(navs[0]);
+        lastNav = BigDecimal.valueOf(navs[points - 1]);
+    }
+
+    @Benchmark
+    public BigDecimal cagr() {
+        return FinancialCalculator.calculateCAGR(firstNav, lastNav, points / 252.0);
+    }
+
+    @Benchmark
+    public BigDecimal sharpeRatio() {
+        return FinancialCalculator.calculateSharpeRatio(returns, RISK_FREE_RATE);
+    }
+
+    @Benchmark
+    public BigDecimal standardDeviation() {
+        return FinancialCalculator.calculateStandardDeviation(returns);
+    }
+
+    @Benchmark
+    public double returnStatsDouble() {
+        return FinancialCalculator.returnStats(navs, 0, navs.length, 0.0).standardDeviation();
+    }
+
+    @Benchmark
+    public double returnStatsFixedPoint() {
+        return FinancialCalculator.returnStats(fixedNavs, 0, fixedNavs.length, 0.0).standardDeviation();
+    }
+
+    @Benchmark
+    public double runningStats() {
+        return RunningStats.of(navs).variance();
+    }
+}
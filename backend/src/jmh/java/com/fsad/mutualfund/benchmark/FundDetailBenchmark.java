@@ -0,0 +1,131 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.cache.FundCatalogueCache;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.FundDetailResponse;
+import com.fsad.mutualfund.dto.FundResponse;
+import com.fsad.mutualfund.dto.RollingReturnResponse;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.repository.FundAnalyticsRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.repository.NavHistoryRepository;
+import com.fsad.mutualfund.repository.NavPointView;
+import com.fsad.mutualfund.service.impl.FundAnalyticsServiceImpl;
+import com.fsad.mutualfund.service.impl.FundServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fund detail assembly and analytics over a synthetic NAV series, with repositories stubbed in memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FundDetailBenchmark {
+
+    private static final Long FUND_ID = 1L;
+
+    @Param({ "365", "3650", "36500" })
+    private int points;
+
+    private FundServiceImpl fundService;
+    private FundAnalyticsServiceImpl analyticsService;
+    private LocalDate firstDate;
+
+    private record Point(LocalDate getNavDate, BigDecimal getNavValue) implements NavPointView {
+    }
+
+    @Setup
+    public void setUp() {
+        SyntheticSeries series = new SyntheticSeries(points, 7L);
+        List<NavPointView> navPoints = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            navPoints.add(new Point(LocalDate.ofEpochDay(series.epochDays[i]),
+                    BigDecimal.valueOf(series.navs[i]).setScale(4, RoundingMode.HALF_UP)));
+        }
+        firstDate = navPoints.get(0).getNavDate();
+
+        MutualFund fund = MutualFund.builder()
+                .id(FUND_ID)
+                .fundName("Benchmark Equity Fund")
+                .tickerSymbol("BEF")
+                .category(MutualFund.Category.EQUITY)
+                .expenseRatio(new BigDecimal("1.00"))
+                .riskRating(4)
+                .currentNav(navPoints.get(points - 1).getNavValue())
+                .fundManager("Benchmark")
+                .description("Synthetic fund")
+                .minInvestment(new BigDecimal("1000.0000"))
+                .build();
+
+        Map<Long, FundAnalytics> snapshots = new HashMap<>();
+        MutualFundRepository fundRepository = RepositoryStubs.stub(MutualFundRepository.class, Map.of(
+                "findById", args -> Optional.of(fund),
+                "existsById", args -> true,
+                "findAll", args -> List.of(fund)));
+        NavHistoryRepository navHistoryRepository = RepositoryStubs.stub(NavHistoryRepository.class, Map.of(
+                "findPointsByFundId", args -> navPoints));
+        FundAnalyticsRepository analyticsRepository = RepositoryStubs.stub(FundAnalyticsRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(snapshots.get((Long) args[0])),
+                "save", args -> {
+                    FundAnalytics snapshot = (FundAnalytics) args[0];
+                    snapshots.put(snapshot.getFundId(), snapshot);
+                    return snapshot;
+                }));
+
+        NavSeriesStore store = new NavSeriesStore(navHistoryRepository);
+        ApplicationEventPublisher noEvents = event -> { };
+        analyticsService = new FundAnalyticsServiceImpl(analyticsRepository, store, fundRepository, noEvents,
+                null, Runnable::run);
+        fundService = new FundServiceImpl(fundRepository, navHistoryRepository, analyticsService, store, noEvents,
+                new FundCatalogueCache(64));
+
+        // Warm the series store and the snapshot, as on a live server
+        fundService.getFundDetail(FUND_ID, null, null, true);
+    }
+
+    @Benchmark
+    public FundDetailResponse fundDetail() {
+        return fundService.getFundDetail(FUND_ID, null, null, true);
+    }
+
+    @Benchmark
+    public FundDetailResponse fundDetailChartResolution() {
+        return fundService.getFundDetail(FUND_ID, null, 600, true);
+    }
+
+    @Benchmark
+    public FundDetailResponse fundDetailWithoutHistory() {
+        return fundService.getFundDetail(FUND_ID, null, null, false);
+    }
+
+    @Benchmark
+    public FundAnalytics rebuildSnapshot() {
+        return analyticsService.rebuild(FUND_ID);
+    }
+
+    @Benchmark
+    public RollingReturnResponse rollingReturnsOneYear() {
+        // An explicit range bypasses the memoised full-history result
+        return analyticsService.getRollingReturns(FUND_ID, "1Y", firstDate, null);
+    }
+
+    @Benchmark
+    public List<FundResponse> catalogue() {
+        return fundService.getAllFunds(null, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.cache.FundScreenerIndex;
+import com.fsad.mutualfund.dto.FundDetailResponse;
+import com.fsad.mutualfund.dto.FundScreenerRequest;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screener queries over a synthetic fund universe: a broad filter sorted by an analytics column
+ * (dense top-K walk) and a narrow one (sparse rank sort).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FundScreenerBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    private int funds;
+
+    private FundScreenerIndex index;
+    private FundScreenerRequest broad;
+    private FundScreenerRequest narrow;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        MutualFund.Category[] categories = MutualFund.Category.values();
+        List<MutualFund> universe = new ArrayList<>(funds);
+        Map<Long, FundAnalytics> analytics = new HashMap<>();
+        for (int i = 0; i < funds; i++) {
+            long id = i + 1;
+            universe.add(MutualFund.builder()
+                    .id(id)
+                    .fundName("Fund " + i)
+                    .tickerSymbol("F" + i)
+                    .category(categories[i % categories.length])
+                    .riskRating(1 + random.nextInt(5))
+                    .expenseRatio(BigDecimal.valueOf(25 + random.nextInt(200), 2))
+                    .currentNav(BigDecimal.valueOf(1_000 + random.nextInt(500_000), 2))
+                    .fundManager("Manager " + (i % 200))
+                    .minInvestment(BigDecimal.valueOf(500L * (1 + random.nextInt(10))))
+                    .build());
+            analytics.put(id, FundAnalytics.builder()
+                    .fundId(id)
+                    .cagr(BigDecimal.valueOf(random.nextInt(3_000) - 500, 4))
+                    .sharpeRatio(BigDecimal.valueOf(random.nextInt(300) - 50, 2))
+                    .standardDeviation(BigDecimal.valueOf(random.nextInt(800), 4))
+                    .oneYearReturn(BigDecimal.valueOf(random.nextInt(4_000) - 1_000, 4))
+                    .build());
+        }
+        index = FundScreenerIndex.build(universe, analytics);
+
+        broad = new FundScreenerRequest();
+        broad.setMaxRisk(4);
+        broad.setMinCagr(0.05);
+
+        narrow = new FundScreenerRequest();
+        narrow.setCategory(List.of("EQUITY"));
+        narrow.setManager("Manager 12");
+        narrow.setMaxExpenseRatio(1.5);
+    }
+
+    @Benchmark
+    public List<FundDetailResponse> broadFilterTopBySharpe() {
+        return index.top(index.match(broad), FundScreenerIndex.SortField.SHARPE, true, 50);
+    }
+
+    @Benchmark
+    public List<FundDetailResponse> narrowFilterTopByCagr() {
+        return index.top(index.match(narrow), FundScreenerIndex.SortField.CAGR, true, 50);
+    }
+}
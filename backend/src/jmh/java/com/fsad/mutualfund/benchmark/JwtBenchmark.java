@@ -0,0 +1,43 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Same secret length as application.properties so HMAC cost is representative
+    private static final String SECRET =
+            "FSAD-PS06-InvestmentPerceptionPlatform-SuperSecretKeyThatIsAtLeast256BitsLong-2024";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L);
+        token = jwtUtil.generateToken("investor@demo.com", "INVESTOR", 2L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("investor@demo.com", "INVESTOR", 2L);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtUtil.getUserIdFromToken(token);
+    }
+}
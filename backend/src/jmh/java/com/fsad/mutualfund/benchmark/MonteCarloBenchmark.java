@@ -0,0 +1,63 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.utils.AlignedReturns;
+import com.fsad.mutualfund.utils.MonteCarloSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 10-year projection (2,520 daily steps) of a multi-fund portfolio sampled from five years of
+ * synthetic history, including the percentile pass.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloBenchmark {
+
+    private static final double[] PERCENTILES = { 5, 25, 50, 75, 95 };
+
+    @Param({ "10000", "100000" })
+    private int paths;
+
+    @Param({ "1", "5" })
+    private int funds;
+
+    @Param({ "BOOTSTRAP", "PARAMETRIC" })
+    private MonteCarloSimulator.Method method;
+
+    private AlignedReturns history;
+    private double[] initial;
+    private double[] contribution;
+    private int[] observeAt;
+
+    @Setup
+    public void setUp() {
+        int[][] epochDays = new int[funds][];
+        double[][] navs = new double[funds][];
+        for (int f = 0; f < funds; f++) {
+            SyntheticSeries series = new SyntheticSeries(1_260, 42L + f);
+            epochDays[f] = series.epochDays;
+            navs[f] = series.navs;
+        }
+        history = AlignedReturns.of(epochDays, navs, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        initial = new double[funds];
+        contribution = new double[funds];
+        Arrays.fill(initial, 100_000.0 / funds);
+        Arrays.fill(contribution, 5_000.0 / funds);
+        observeAt = new int[40];
+        for (int o = 0; o < observeAt.length; o++) {
+            observeAt[o] = (o + 1) * 3;
+        }
+    }
+
+    @Benchmark
+    public double[][] project() {
+        double[][] observed = MonteCarloSimulator.simulate(history, method, initial, contribution, observeAt, paths, 7L);
+        return MonteCarloSimulator.percentiles(observed, PERCENTILES);
+    }
+}
@@ -0,0 +1,96 @@
+package com.fsad.mutualfund.benchmark;
+
+import com.fsad.mutualfund.cache.IdempotencyCache;
+import com.fsad.mutualfund.cache.InvestorBook;
+import com.fsad.mutualfund.repository.IdempotentRequestRepository;
+import com.fsad.mutualfund.service.OrderExecutor;
+import com.fsad.mutualfund.service.OrderStore;
+import com.fsad.mutualfund.service.impl.StripedOrderExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Order throughput through the striped executor with 1, 100 and 10,000 investors placing
+ * orders at once. The store keeps no data; {@code commitMicros} stands in for the cost of one
+ * grouped database write, paid once per group rather than once per order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderExecutorBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("1000.0000");
+    private static final BigDecimal NAV = new BigDecimal("41.2500");
+    private static final BigDecimal UNITS = new BigDecimal("24.2424");
+
+    @Param({ "1", "100", "10000" })
+    private int investors;
+
+    @Param({ "0", "200" })
+    private int commitMicros;
+
+    private StripedOrderExecutor executor;
+    private OrderExecutor.Order[] orders;
+
+    @Setup
+    public void setUp() {
+        OrderStore store = new OrderStore() {
+            @Override
+            public InvestorBook load(Long userId) {
+                return new InvestorBook(userId, new BigDecimal("1000000000.0000"), List.of());
+            }
+
+            @Override
+            public void persist(List<OrderExecutor.Fill> fills, Collection<InvestorBook> books) {
+                if (commitMicros > 0) {
+                    LockSupport.parkNanos(commitMicros * 1_000L);
+                }
+            }
+
+            @Override
+            public long committedLedgerEntryId() {
+                return 0;
+            }
+        };
+        IdempotencyCache idempotencyCache = new IdempotencyCache(
+                RepositoryStubs.stub(IdempotentRequestRepository.class, Map.of()), 1_000, 72, "Asia/Kolkata");
+        executor = new StripedOrderExecutor(store, idempotencyCache, 0, 256, 20_000, 60_000, "Asia/Kolkata");
+
+        // Buys and sells of a few funds, spread round-robin over the investors
+        orders = new OrderExecutor.Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            long userId = 1 + i % investors;
+            long fundId = 1 + (i / investors) % 5;
+            boolean sell = (i / investors / 5) % 2 == 1;
+            orders[i] = OrderExecutor.Order.fund(userId, sell ? OrderExecutor.Kind.SELL : OrderExecutor.Kind.BUY,
+                    AMOUNT, fundId, NAV, UNITS, "benchmark");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int placeOrders() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            futures[i] = executor.submit(orders[i]);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+}
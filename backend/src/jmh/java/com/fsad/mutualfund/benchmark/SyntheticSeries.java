@@ -0,0 +1,38 @@
+package com.fsad.mutualfund.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic random-walk NAV series on weekdays, mirroring DataSeeder's generator.
+ */
+final class SyntheticSeries {
+
+    static final int START_EPOCH_DAY = 10_957; // 2000-01-01
+
+    final int[] epochDays;
+    final double[] navs;
+
+    SyntheticSeries(int points, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        epochDays = new int[points];
+        navs = new double[points];
+        int day = START_EPOCH_DAY;
+        double nav = 100.0;
+        for (int i = 0; i < points; i++) {
+            // 1970-01-01 was a Thursday: skip Saturdays and Sundays
+            while (Math.floorMod(day + 3, 7) >= 5) {
+                day++;
+            }
+            nav = Math.max(1.0, nav * (1.0 + 0.0004 + 0.012 * gaussian(random)));
+            epochDays[i] = day++;
+            navs[i] = Math.round(nav * 10_000) / 10_000.0;
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
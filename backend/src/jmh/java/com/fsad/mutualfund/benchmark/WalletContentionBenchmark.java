@@ -0,0 +1,150 @@
+package com.fsad.mutualfund.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many threads debiting one wallet in H2: the guarded single-statement update (the shape
+ * JdbcOrderStore still writes wallet changes with) against a read, check in Java, write back
+ * sequence. This measures the SQL alone; WalletConcurrencyTest covers the services and the
+ * order executor end to end.
+ *
+ * Every iteration starts from a balance that runs out part-way, then checks the books: the
+ * guarded update must end at exactly opening balance minus accepted debits and never below
+ * zero, and fails the run otherwise. The read-modify-write variant only reports its drift.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class WalletContentionBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:wallet_contention;DB_CLOSE_DELAY=-1";
+    private static final long USER_ID = 1L;
+    private static final BigDecimal DEBIT = new BigDecimal("10.0000");
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("500000.0000");
+
+    private static final String GUARDED_DEBIT = "UPDATE investor_profiles SET wallet_balance = wallet_balance - ? "
+            + "WHERE user_id = ? AND wallet_balance >= ?";
+    private static final String READ_BALANCE = "SELECT wallet_balance FROM investor_profiles WHERE user_id = ?";
+    private static final String WRITE_BALANCE = "UPDATE investor_profiles SET wallet_balance = ? WHERE user_id = ?";
+
+    private final AtomicLong accepted = new AtomicLong();
+    private Connection admin;
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement guardedDebit;
+        PreparedStatement readBalance;
+        PreparedStatement writeBalance;
+
+        @Setup
+        public void open() throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "");
+            guardedDebit = connection.prepareStatement(GUARDED_DEBIT);
+            readBalance = connection.prepareStatement(READ_BALANCE);
+            writeBalance = connection.prepareStatement(WRITE_BALANCE);
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Setup
+    public void createSchema() throws SQLException {
+        admin = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = admin.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS investor_profiles ("
+                    + "id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL UNIQUE, wallet_balance DECIMAL(19, 4))");
+            statement.execute("MERGE INTO investor_profiles KEY (id) VALUES (1, " + USER_ID + ", 0)");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetWallet() throws SQLException {
+        accepted.set(0);
+        try (PreparedStatement statement = admin.prepareStatement(WRITE_BALANCE)) {
+            statement.setBigDecimal(1, OPENING_BALANCE);
+            statement.setLong(2, USER_ID);
+            statement.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkBooks(BenchmarkParams params) throws SQLException {
+        BigDecimal expected = OPENING_BALANCE.subtract(DEBIT.multiply(BigDecimal.valueOf(accepted.get())));
+        BigDecimal actual = balance();
+        boolean guarded = params.getBenchmark().endsWith("guardedUpdate");
+        if (guarded && (actual.compareTo(expected) != 0 || actual.signum() < 0)) {
+            throw new IllegalStateException("Wallet out of balance: expected " + expected + ", found " + actual);
+        }
+        if (!guarded) {
+            System.out.println("  read-modify-write: " + accepted.get() + " debits accepted, balance " + actual
+                    + ", drift " + actual.subtract(expected));
+        }
+    }
+
+    @TearDown
+    public void dropSchema() throws SQLException {
+        try (Statement statement = admin.createStatement()) {
+            statement.execute("DROP TABLE investor_profiles");
+        }
+        admin.close();
+    }
+
+    @Benchmark
+    public boolean guardedUpdate(Session session) throws SQLException {
+        session.guardedDebit.setBigDecimal(1, DEBIT);
+        session.guardedDebit.setLong(2, USER_ID);
+        session.guardedDebit.setBigDecimal(3, DEBIT);
+        boolean ok = session.guardedDebit.executeUpdate() == 1;
+        if (ok) {
+            accepted.incrementAndGet();
+        }
+        return ok;
+    }
+
+    @Benchmark
+    public boolean readModifyWrite(Session session) throws SQLException {
+        session.readBalance.setLong(1, USER_ID);
+        BigDecimal balance;
+        try (ResultSet rs = session.readBalance.executeQuery()) {
+            rs.next();
+            balance = rs.getBigDecimal(1);
+        }
+        if (balance.compareTo(DEBIT) < 0) {
+            return false;
+        }
+        session.writeBalance.setBigDecimal(1, balance.subtract(DEBIT));
+        session.writeBalance.setLong(2, USER_ID);
+        session.writeBalance.executeUpdate();
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    private BigDecimal balance() throws SQLException {
+        try (PreparedStatement statement = admin.prepareStatement(READ_BALANCE)) {
+            statement.setLong(1, USER_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBigDecimal(1);
+            }
+        }
+    }
+}
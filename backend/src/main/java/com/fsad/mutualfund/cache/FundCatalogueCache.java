@@ -0,0 +1,121 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.dto.FundResponse;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU of fund catalogue listings keyed by filter. Cached lists are unmodifiable
+ * and shared between callers, who must not mutate the FundResponse elements either.
+ *
+ * A change evicts only the listings whose filter matched the fund before or after it; a
+ * generation counter stops a load that raced with an invalidation from caching stale data.
+ */
+@Component
+public class FundCatalogueCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, List<FundResponse>> entries;
+
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public FundCatalogueCache(@Value("${app.cache.catalogue.max-entries:64}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<FundResponse>> eldest) {
+                if (size() > FundCatalogueCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public List<FundResponse> get(MutualFund.Category category, Integer maxRisk,
+                                  Supplier<List<FundResponse>> loader) {
+        Key key = new Key(category, maxRisk);
+        long loadGeneration;
+        synchronized (this) {
+            List<FundResponse> cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so a slow query does not block hits on other filters
+        List<FundResponse> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onFundChanged(FundChangedEvent event) {
+        if (!event.type().affectsCatalogue()) {
+            return;
+        }
+        generation++;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            if (!event.hasFacets()
+                    || key.matches(event.previousCategory(), event.previousRiskRating())
+                    || key.matches(event.category(), event.riskRating())) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long lookups = hits + misses;
+        return Map.of(
+                "entries", entries.size(),
+                "maxEntries", maxEntries,
+                "hits", hits,
+                "misses", misses,
+                "hitRate", lookups == 0 ? 0.0 : (double) hits / lookups,
+                "evictions", evictions,
+                "invalidations", invalidations
+        );
+    }
+
+    private record Key(MutualFund.Category category, Integer maxRisk) {
+
+        boolean matches(MutualFund.Category fundCategory, Integer fundRisk) {
+            if (fundCategory == null || fundRisk == null) {
+                return false;
+            }
+            return (category == null || category == fundCategory)
+                    && (maxRisk == null || fundRisk <= maxRisk);
+        }
+    }
+}
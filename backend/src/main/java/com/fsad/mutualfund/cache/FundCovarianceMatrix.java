@@ -0,0 +1,106 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.utils.AlignedReturns;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Annualised expected returns and covariance of daily log returns for an optimisation
+ * universe, computed once from aligned NAV history and then shared read-only.
+ */
+public final class FundCovarianceMatrix {
+
+    private static final int TRADING_DAYS_PER_YEAR = 252;
+
+    private final List<MutualFund> funds;
+    private final double[] expectedReturns;
+    private final double[] covariance;
+    private final LocalDate historyFrom;
+    private final LocalDate historyTo;
+    private final int historyDays;
+
+    private FundCovarianceMatrix(List<MutualFund> funds, double[] expectedReturns, double[] covariance,
+                                 LocalDate historyFrom, LocalDate historyTo, int historyDays) {
+        this.funds = funds;
+        this.expectedReturns = expectedReturns;
+        this.covariance = covariance;
+        this.historyFrom = historyFrom;
+        this.historyTo = historyTo;
+        this.historyDays = historyDays;
+    }
+
+    /**
+     * @param funds   the universe, in the same order as the history's columns
+     * @param history aligned daily returns of those funds
+     */
+    public static FundCovarianceMatrix build(List<MutualFund> funds, AlignedReturns history) {
+        int n = history.funds();
+        int days = history.days();
+        double[] mean = history.meanLogReturns();
+
+        // Fund-major centred log returns so each covariance entry is one contiguous dot product
+        double[][] centred = new double[n][days];
+        double[] returns = history.returns();
+        for (int d = 0; d < days; d++) {
+            for (int f = 0; f < n; f++) {
+                centred[f][d] = Math.log1p(returns[d * n + f]) - mean[f];
+            }
+        }
+
+        double[] covariance = new double[n * n];
+        double scale = days > 1 ? (double) TRADING_DAYS_PER_YEAR / (days - 1) : 0.0;
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double[] a = centred[i];
+            for (int j = 0; j <= i; j++) {
+                double[] b = centred[j];
+                double sum = 0.0;
+                for (int d = 0; d < days; d++) {
+                    sum += a[d] * b[d];
+                }
+                // Each task writes its own row and the matching column cells; no cell is shared
+                covariance[i * n + j] = sum * scale;
+                covariance[j * n + i] = sum * scale;
+            }
+        });
+
+        double[] expectedReturns = new double[n];
+        for (int f = 0; f < n; f++) {
+            expectedReturns[f] = mean[f] * TRADING_DAYS_PER_YEAR;
+        }
+        return new FundCovarianceMatrix(List.copyOf(funds), expectedReturns, covariance,
+                LocalDate.ofEpochDay(history.firstEpochDay()), LocalDate.ofEpochDay(history.lastEpochDay()), days);
+    }
+
+    public int size() {
+        return funds.size();
+    }
+
+    public List<MutualFund> funds() {
+        return funds;
+    }
+
+    /** Annualised mean log return per fund; shared, do not modify. */
+    public double[] expectedReturns() {
+        return expectedReturns;
+    }
+
+    /** Annualised row-major covariance; shared, do not modify. */
+    public double[] covariance() {
+        return covariance;
+    }
+
+    public LocalDate historyFrom() {
+        return historyFrom;
+    }
+
+    public LocalDate historyTo() {
+        return historyTo;
+    }
+
+    public int historyDays() {
+        return historyDays;
+    }
+}
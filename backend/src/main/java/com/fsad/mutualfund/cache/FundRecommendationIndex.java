@@ -0,0 +1,162 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.dto.RecommendedFund;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Funds ranked once per risk bucket, so a recommendation is a walk down one ranked array that
+ * skips the investor's holdings. Buckets split the 0-100 risk tolerance score into five bands,
+ * each targeting the matching fund risk rating (1-5).
+ *
+ * A fund's score blends how well its risk rating and category fit the bucket with its Sharpe
+ * ratio, CAGR and expense ratio, each taken as a percentile rank across the universe.
+ */
+public final class FundRecommendationIndex {
+
+    public static final int BUCKETS = 5;
+
+    private static final double RISK_FIT_WEIGHT = 0.35;
+    private static final double CATEGORY_FIT_WEIGHT = 0.20;
+    private static final double SHARPE_WEIGHT = 0.25;
+    private static final double CAGR_WEIGHT = 0.10;
+    private static final double COST_WEIGHT = 0.10;
+
+    // Funds more than this many rating steps above the bucket's target are never recommended
+    private static final int MAX_RISK_STRETCH = 1;
+
+    private final int size;
+    private final RecommendedFund[][] ranked = new RecommendedFund[BUCKETS][];
+
+    private FundRecommendationIndex(List<MutualFund> funds, Map<Long, FundAnalytics> analytics) {
+        size = funds.size();
+        double[] sharpe = new double[size];
+        double[] cagr = new double[size];
+        double[] cost = new double[size];
+        for (int i = 0; i < size; i++) {
+            MutualFund fund = funds.get(i);
+            FundAnalytics snapshot = analytics.get(fund.getId());
+            sharpe[i] = snapshot == null ? Double.NaN : toDouble(snapshot.getSharpeRatio());
+            cagr[i] = snapshot == null ? Double.NaN : toDouble(snapshot.getCagr());
+            cost[i] = -toDouble(fund.getExpenseRatio()); // cheaper ranks higher
+        }
+        double[] sharpeRank = percentileRanks(sharpe);
+        double[] cagrRank = percentileRanks(cagr);
+        double[] costRank = percentileRanks(cost);
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            int target = bucket + 1;
+            double appetite = (double) bucket / (BUCKETS - 1); // 0 = most cautious, 1 = most aggressive
+            List<RecommendedFund> candidates = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                MutualFund fund = funds.get(i);
+                if (fund.getRiskRating() > target + MAX_RISK_STRETCH) {
+                    continue;
+                }
+                double riskFit = 1.0 - Math.abs(fund.getRiskRating() - target) / (double) (BUCKETS - 1);
+                double score = RISK_FIT_WEIGHT * riskFit
+                        + CATEGORY_FIT_WEIGHT * categoryFit(fund.getCategory(), appetite)
+                        + SHARPE_WEIGHT * sharpeRank[i]
+                        + CAGR_WEIGHT * cagrRank[i]
+                        + COST_WEIGHT * costRank[i];
+                candidates.add(toRow(fund, analytics.get(fund.getId()), score));
+            }
+            candidates.sort(Comparator.comparing(RecommendedFund::getScore).reversed()
+                    .thenComparing(RecommendedFund::getFundId));
+            ranked[bucket] = candidates.toArray(new RecommendedFund[0]);
+        }
+    }
+
+    public static FundRecommendationIndex build(List<MutualFund> funds, Map<Long, FundAnalytics> analytics) {
+        return new FundRecommendationIndex(funds, analytics);
+    }
+
+    public static int bucketOf(int riskToleranceScore) {
+        return Math.max(0, Math.min(BUCKETS - 1, riskToleranceScore * BUCKETS / 101));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The best {@code limit} funds for the bucket that are not in {@code excluded}.
+     */
+    public List<RecommendedFund> top(int bucket, Set<Long> excluded, int limit) {
+        RecommendedFund[] order = ranked[bucket];
+        List<RecommendedFund> result = new ArrayList<>(Math.min(limit, order.length));
+        for (int k = 0; k < order.length && result.size() < limit; k++) {
+            if (!excluded.contains(order[k].getFundId())) {
+                result.add(order[k]);
+            }
+        }
+        return result;
+    }
+
+    // Debt suits cautious buckets, equity and ELSS aggressive ones, hybrid the middle
+    private static double categoryFit(MutualFund.Category category, double appetite) {
+        return switch (category) {
+            case DEBT -> 1.0 - appetite;
+            case HYBRID -> 1.0 - Math.abs(appetite - 0.5);
+            case EQUITY, ELSS -> appetite;
+        };
+    }
+
+    /**
+     * Rank of each value as a fraction in [0, 1], ties sharing the lower rank. Missing values score 0.
+     */
+    private static double[] percentileRanks(double[] values) {
+        int n = values.length;
+        double[] ranks = new double[n];
+        int[] order = IntStream.range(0, n).filter(i -> !Double.isNaN(values[i])).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> values[i]))
+                .mapToInt(Integer::intValue).toArray();
+        if (order.length < 2) {
+            for (int i : order) {
+                ranks[i] = 1.0;
+            }
+            return ranks;
+        }
+        int start = 0;
+        for (int k = 1; k <= order.length; k++) {
+            if (k == order.length || values[order[k]] != values[order[start]]) {
+                double rank = (double) start / (order.length - 1);
+                for (int j = start; j < k; j++) {
+                    ranks[order[j]] = rank;
+                }
+                start = k;
+            }
+        }
+        return ranks;
+    }
+
+    private static RecommendedFund toRow(MutualFund fund, FundAnalytics analytics, double score) {
+        return RecommendedFund.builder()
+                .fundId(fund.getId())
+                .fundName(fund.getFundName())
+                .tickerSymbol(fund.getTickerSymbol())
+                .category(fund.getCategory().name())
+                .riskRating(fund.getRiskRating())
+                .currentNav(fund.getCurrentNav())
+                .minInvestment(fund.getMinInvestment())
+                .expenseRatio(fund.getExpenseRatio())
+                .cagr(analytics == null ? null : analytics.getCagr())
+                .sharpeRatio(analytics == null ? null : analytics.getSharpeRatio())
+                .oneYearReturn(analytics == null ? null : analytics.getOneYearReturn())
+                .score(BigDecimal.valueOf(score).setScale(4, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,322 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.dto.FundDetailResponse;
+import com.fsad.mutualfund.dto.FundScreenerRequest;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable snapshot of the fund universe for screening. Discrete facets (category, risk rating,
+ * manager) are BitSets over fund positions; numeric facets are sorted primitive columns whose
+ * ranges turn into BitSets by binary search. The same sort orders drive top-K selection.
+ */
+public final class FundScreenerIndex {
+
+    private static final int MAX_RISK_RATING = 5;
+
+    // Below this match density, sorting the matches beats walking the full sort order
+    private static final int SPARSE_MATCH_RATIO = 8;
+
+    public enum SortField {
+        NAME, RISK, EXPENSE_RATIO, MIN_INVESTMENT, NAV, CAGR, SHARPE, VOLATILITY, ONE_YEAR_RETURN;
+
+        /**
+         * Accepts enum names and their camelCase forms, e.g. "expenseRatio".
+         */
+        public static SortField parse(String value) {
+            String normalized = value.replace("_", "").toUpperCase(Locale.ROOT);
+            for (SortField field : values()) {
+                if (field.name().replace("_", "").equals(normalized)) {
+                    return field;
+                }
+            }
+            throw new RuntimeException("Invalid sort field: " + value);
+        }
+    }
+
+    private final int size;
+    private final FundDetailResponse[] rows;
+    private final Map<MutualFund.Category, BitSet> byCategory = new EnumMap<>(MutualFund.Category.class);
+    private final BitSet[] byRisk = new BitSet[MAX_RISK_RATING + 1];
+    private final Map<String, BitSet> byManager = new HashMap<>();
+    private final String[] sortedNames;
+    private final Map<SortField, Column> columns = new EnumMap<>(SortField.class);
+
+    private FundScreenerIndex(List<MutualFund> funds, Map<Long, FundAnalytics> analytics) {
+        size = funds.size();
+        rows = new FundDetailResponse[size];
+        for (MutualFund.Category category : MutualFund.Category.values()) {
+            byCategory.put(category, new BitSet(size));
+        }
+        for (int r = 0; r <= MAX_RISK_RATING; r++) {
+            byRisk[r] = new BitSet(size);
+        }
+
+        String[] names = new String[size];
+        Map<SortField, double[]> values = new EnumMap<>(SortField.class);
+        for (SortField field : SortField.values()) {
+            if (field != SortField.NAME) {
+                values.put(field, new double[size]);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            MutualFund fund = funds.get(i);
+            rows[i] = toRow(fund, analytics.get(fund.getId()));
+            names[i] = fund.getFundName().toLowerCase(Locale.ROOT);
+
+            byCategory.get(fund.getCategory()).set(i);
+            byRisk[Math.max(0, Math.min(MAX_RISK_RATING, fund.getRiskRating()))].set(i);
+            if (fund.getFundManager() != null) {
+                String manager = fund.getFundManager().toLowerCase(Locale.ROOT);
+                byManager.computeIfAbsent(manager, m -> new BitSet(size)).set(i);
+            }
+
+            values.get(SortField.RISK)[i] = fund.getRiskRating();
+            values.get(SortField.EXPENSE_RATIO)[i] = toDouble(fund.getExpenseRatio());
+            values.get(SortField.MIN_INVESTMENT)[i] = toDouble(fund.getMinInvestment());
+            values.get(SortField.NAV)[i] = toDouble(fund.getCurrentNav());
+            values.get(SortField.CAGR)[i] = toDouble(rows[i].getCagr());
+            values.get(SortField.SHARPE)[i] = toDouble(rows[i].getSharpeRatio());
+            values.get(SortField.VOLATILITY)[i] = toDouble(rows[i].getStandardDeviation());
+            values.get(SortField.ONE_YEAR_RETURN)[i] = toDouble(rows[i].getOneYearReturn());
+        }
+
+        int[] nameOrder = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparing((Integer i) -> names[i]))
+                .mapToInt(Integer::intValue).toArray();
+        sortedNames = new String[size];
+        for (int k = 0; k < size; k++) {
+            sortedNames[k] = names[nameOrder[k]];
+        }
+        columns.put(SortField.NAME, new Column(null, nameOrder, size));
+        values.forEach((field, column) -> columns.put(field, Column.of(column)));
+    }
+
+    public static FundScreenerIndex build(List<MutualFund> funds, Map<Long, FundAnalytics> analytics) {
+        return new FundScreenerIndex(funds, analytics);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Positions of the funds satisfying every criterion in the request.
+     */
+    public BitSet match(FundScreenerRequest request) {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+
+        if (request.getCategory() != null && !request.getCategory().isEmpty()) {
+            BitSet any = new BitSet(size);
+            for (String category : request.getCategory()) {
+                any.or(byCategory.get(parseCategory(category)));
+            }
+            result.and(any);
+        }
+        if (request.getMinRisk() != null || request.getMaxRisk() != null) {
+            int min = request.getMinRisk() == null ? 0 : Math.max(0, request.getMinRisk());
+            int max = request.getMaxRisk() == null
+                    ? MAX_RISK_RATING
+                    : Math.min(MAX_RISK_RATING, request.getMaxRisk());
+            BitSet any = new BitSet(size);
+            for (int r = min; r <= max; r++) {
+                any.or(byRisk[r]);
+            }
+            result.and(any);
+        }
+        if (request.getManager() != null && !request.getManager().isBlank()) {
+            BitSet managed = byManager.get(request.getManager().trim().toLowerCase(Locale.ROOT));
+            if (managed == null) {
+                result.clear();
+            } else {
+                result.and(managed);
+            }
+        }
+        if (request.getNamePrefix() != null && !request.getNamePrefix().isBlank()) {
+            result.and(namePrefix(request.getNamePrefix().trim().toLowerCase(Locale.ROOT)));
+        }
+
+        range(result, SortField.EXPENSE_RATIO, request.getMinExpenseRatio(), request.getMaxExpenseRatio());
+        range(result, SortField.MIN_INVESTMENT, null, request.getMaxMinInvestment());
+        range(result, SortField.CAGR, request.getMinCagr(), request.getMaxCagr());
+        range(result, SortField.SHARPE, request.getMinSharpe(), request.getMaxSharpe());
+        range(result, SortField.VOLATILITY, request.getMinVolatility(), request.getMaxVolatility());
+        return result;
+    }
+
+    /**
+     * The first {@code limit} matches in sort order. Funds without a value for the sort field come last.
+     */
+    public List<FundDetailResponse> top(BitSet matches, SortField field, boolean descending, int limit) {
+        Column column = columns.get(field);
+        int total = matches.cardinality();
+        List<FundDetailResponse> result = new ArrayList<>(Math.min(limit, total));
+
+        if (total * SPARSE_MATCH_RATIO < size) {
+            // Few matches: sort their ranks instead of scanning the whole order
+            int[] ranks = new int[total];
+            int k = 0;
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                ranks[k++] = column.rank[i];
+            }
+            Arrays.sort(ranks);
+            int valid = lowerBound(ranks, column.valid);
+            for (int j = 0; j < total && result.size() < limit; j++) {
+                int rank = !descending ? ranks[j] : j < valid ? ranks[valid - 1 - j] : ranks[j];
+                result.add(rows[column.order[rank]]);
+            }
+            return result;
+        }
+
+        for (int j = 0; j < size && result.size() < limit; j++) {
+            int rank = !descending ? j : j < column.valid ? column.valid - 1 - j : j;
+            int position = column.order[rank];
+            if (matches.get(position)) {
+                result.add(rows[position]);
+            }
+        }
+        return result;
+    }
+
+    private void range(BitSet result, SortField field, Double min, Double max) {
+        if (min == null && max == null) {
+            return;
+        }
+        Column column = columns.get(field);
+        int from = min == null ? 0 : column.lowerBound(min);
+        int to = max == null ? column.valid : column.upperBound(max);
+        BitSet inRange = new BitSet(size);
+        for (int k = from; k < to; k++) {
+            inRange.set(column.order[k]);
+        }
+        result.and(inRange);
+    }
+
+    private BitSet namePrefix(String prefix) {
+        int from = Arrays.binarySearch(sortedNames, prefix);
+        from = from < 0 ? -from - 1 : from;
+        int[] order = columns.get(SortField.NAME).order;
+        BitSet matches = new BitSet(size);
+        for (int k = from; k < size && sortedNames[k].startsWith(prefix); k++) {
+            matches.set(order[k]);
+        }
+        return matches;
+    }
+
+    private static MutualFund.Category parseCategory(String value) {
+        try {
+            return MutualFund.Category.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid category: " + value);
+        }
+    }
+
+    private static FundDetailResponse toRow(MutualFund fund, FundAnalytics analytics) {
+        return FundDetailResponse.builder()
+                .id(fund.getId())
+                .fundName(fund.getFundName())
+                .tickerSymbol(fund.getTickerSymbol())
+                .category(fund.getCategory().name())
+                .expenseRatio(fund.getExpenseRatio())
+                .riskRating(fund.getRiskRating())
+                .currentNav(fund.getCurrentNav())
+                .fundManager(fund.getFundManager())
+                .description(fund.getDescription())
+                .minInvestment(fund.getMinInvestment())
+                .cagr(analytics == null ? null : analytics.getCagr())
+                .sharpeRatio(analytics == null ? null : analytics.getSharpeRatio())
+                .standardDeviation(analytics == null ? null : analytics.getStandardDeviation())
+                .oneYearReturn(analytics == null ? null : analytics.getOneYearReturn())
+                .build();
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * A facet sorted ascending: order[k] is the position with the k-th smallest value and
+     * rank is its inverse. Missing values (NaN) sit after the first {@code valid} entries.
+     */
+    private static final class Column {
+        private final double[] sorted;
+        private final int[] order;
+        private final int[] rank;
+        private final int valid;
+
+        private Column(double[] sorted, int[] order, int valid) {
+            this.sorted = sorted;
+            this.order = order;
+            this.valid = valid;
+            this.rank = new int[order.length];
+            for (int k = 0; k < order.length; k++) {
+                rank[order[k]] = k;
+            }
+        }
+
+        static Column of(double[] values) {
+            // Double.compare orders NaN after every number
+            int[] order = IntStream.range(0, values.length).boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> values[i]))
+                    .mapToInt(Integer::intValue).toArray();
+            double[] sorted = new double[values.length];
+            int valid = 0;
+            for (int k = 0; k < order.length; k++) {
+                sorted[k] = values[order[k]];
+                if (!Double.isNaN(sorted[k])) {
+                    valid = k + 1;
+                }
+            }
+            return new Column(sorted, order, valid);
+        }
+
+        // First index in [0, valid) with value >= key
+        int lowerBound(double key) {
+            int lo = 0;
+            int hi = valid;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // First index in [0, valid) with value > key
+        int upperBound(double key) {
+            int lo = 0;
+            int hi = valid;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.event.FundChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the ETag / Last-Modified headers of the public fund endpoints.
+ * Lookups are pure memory so conditional requests can be answered before any service call.
+ *
+ * Versions start at 0 on every boot; the boot nonce in each ETag keeps tags issued by an
+ * earlier process from matching. Deleted funds keep their bumped version as a tombstone.
+ */
+@Component
+public class FundVersionRegistry {
+
+    private final NavSeriesStore navSeriesStore;
+    private final String bootNonce = Long.toString(System.currentTimeMillis(), 36);
+    private final long bootTime = System.currentTimeMillis() / 1000 * 1000;
+
+    private final ConcurrentMap<Long, Stamp> funds = new ConcurrentHashMap<>();
+    private final AtomicLong catalogueVersion = new AtomicLong();
+    private volatile long catalogueModified = bootTime;
+
+    public FundVersionRegistry(NavSeriesStore navSeriesStore) {
+        this.navSeriesStore = navSeriesStore;
+    }
+
+    public String fundEtag(Long fundId) {
+        Stamp stamp = funds.get(fundId);
+        return "\"fund-" + fundId + "-" + bootNonce + "-" + (stamp == null ? 0 : stamp.version) + "\"";
+    }
+
+    /**
+     * Latest of the fund's last NAV date (when its series is in memory) and its last change
+     * since boot; falls back to the boot time.
+     */
+    public long fundLastModified(Long fundId) {
+        Stamp stamp = funds.get(fundId);
+        long modified = stamp == null ? -1 : stamp.modified;
+
+        NavSeries series = navSeriesStore.peek(fundId);
+        LocalDate lastNav = series == null ? null : series.lastDate();
+        if (lastNav != null) {
+            modified = Math.max(modified, lastNav.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        return modified < 0 ? bootTime : modified;
+    }
+
+    public String catalogueEtag() {
+        return "\"funds-" + bootNonce + "-" + catalogueVersion.get() + "\"";
+    }
+
+    public long catalogueLastModified() {
+        return catalogueModified;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFundChanged(FundChangedEvent event) {
+        // HTTP dates have second precision; truncate so If-Modified-Since compares cleanly
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        funds.compute(event.fundId(), (id, stamp) -> new Stamp(stamp == null ? 1 : stamp.version + 1, now));
+        if (event.type().affectsCatalogue()) {
+            catalogueVersion.incrementAndGet();
+            catalogueModified = now;
+        }
+    }
+
+    private record Stamp(long version, long modified) {
+    }
+}
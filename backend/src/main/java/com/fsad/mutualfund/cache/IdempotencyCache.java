@@ -0,0 +1,164 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.entity.IdempotentRequest;
+import com.fsad.mutualfund.repository.IdempotentRequestRepository;
+import com.fsad.mutualfund.service.OrderExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Results of orders sent with an Idempotency-Key. A size-bounded LRU answers retries without
+ * touching the database; on a miss the idempotency_keys table (written in the order's own
+ * transaction) is the source of truth, so a key evicted here or lost on restart still replays.
+ *
+ * The order executor also checks the LRU before applying a keyed order, which catches a retry
+ * that raced past the service's check while the original was still queued.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotentRequestRepository repository;
+    private final int maxEntries;
+    private final long retentionHours;
+    private final ZoneId zone;
+    private final LinkedHashMap<Key, OrderExecutor.Fill> entries;
+
+    private long hits;
+    private long storeHits;
+    private long misses;
+
+    public IdempotencyCache(IdempotentRequestRepository repository,
+                            @Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${app.idempotency.retention-hours:72}") long retentionHours,
+                            @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+        this.retentionHours = retentionHours;
+        this.zone = ZoneId.of(zone);
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, OrderExecutor.Fill> eldest) {
+                return size() > IdempotencyCache.this.maxEntries;
+            }
+        };
+    }
+
+    public record Key(Long userId, String idempotencyKey) {
+    }
+
+    /**
+     * The header value to key on, or null when none was sent.
+     */
+    public static String normalize(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    /**
+     * The original fill for a retried request, or null if the key is new. Throws if the key was
+     * used for a different request.
+     */
+    public OrderExecutor.Fill replay(Long userId, String idempotencyKey, OrderExecutor.Kind kind,
+                                     BigDecimal amount, Long fundId) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        Key key = new Key(userId, idempotencyKey);
+        OrderExecutor.Fill fill;
+        synchronized (this) {
+            fill = entries.get(key);
+            if (fill != null) {
+                hits++;
+            }
+        }
+        if (fill == null) {
+            fill = repository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(request -> toFill(userId, request))
+                    .orElse(null);
+            synchronized (this) {
+                if (fill == null) {
+                    misses++;
+                    return null;
+                }
+                storeHits++;
+                entries.put(key, fill);
+            }
+        }
+
+        requireSame(fill.order(), kind, amount, fundId);
+        return fill;
+    }
+
+    /**
+     * Throws unless a repeat of {@code original}'s key asks for the same side, amount and fund.
+     */
+    public static void requireSame(OrderExecutor.Order original, OrderExecutor.Kind kind,
+                                   BigDecimal amount, Long fundId) {
+        if (side(original.kind()) != side(kind) || original.amount().compareTo(amount) != 0
+                || !Objects.equals(original.fundId(), fundId)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    /**
+     * Memory only; used by the order executor on its own thread.
+     */
+    public synchronized OrderExecutor.Fill peek(Long userId, String idempotencyKey) {
+        return entries.get(new Key(userId, idempotencyKey));
+    }
+
+    public synchronized void put(OrderExecutor.Fill fill) {
+        OrderExecutor.Order order = fill.order();
+        entries.put(new Key(order.userId(), order.idempotencyKey()), fill);
+    }
+
+    public synchronized Map<String, Object> stats() {
+        return Map.of(
+                "entries", entries.size(),
+                "maxEntries", maxEntries,
+                "hits", hits,
+                "storeHits", storeHits,
+                "misses", misses);
+    }
+
+    // Keys only need to outlive a client's retry window
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 30 3 * * *}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void purge() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now(zone).minusHours(retentionHours));
+        if (purged > 0) {
+            System.out.println("🧹 Purged " + purged + " idempotency keys older than " + retentionHours + "h");
+        }
+    }
+
+    private static OrderExecutor.Fill toFill(Long userId, IdempotentRequest request) {
+        OrderExecutor.Order order = new OrderExecutor.Order(userId, OrderExecutor.Kind.valueOf(request.getKind()),
+                request.getAmount(), request.getFundId(), null, null, request.getDescription(), null,
+                request.getIdempotencyKey());
+        return new OrderExecutor.Fill(order, request.getWalletBalance(), request.getCreatedAt());
+    }
+
+    // A cut-off order and an instant one for the same request are the same side
+    private static OrderExecutor.Kind side(OrderExecutor.Kind kind) {
+        return switch (kind) {
+            case BUY_ORDER -> OrderExecutor.Kind.BUY;
+            case SELL_ORDER -> OrderExecutor.Kind.SELL;
+            default -> kind;
+        };
+    }
+}
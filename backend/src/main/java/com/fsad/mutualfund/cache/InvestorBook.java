@@ -0,0 +1,178 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.service.OrderExecutor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One investor's wallet and holdings as the order executor sees them. Owned by a single
+ * executor stripe: every read and write happens on that stripe's thread, so nothing here is
+ * synchronised.
+ *
+ * Changes since the last successful write are tracked (net wallet change, touched positions)
+ * so a group of orders can be persisted as a handful of batched statements.
+ */
+public final class InvestorBook {
+
+    private final Long userId;
+    private BigDecimal walletBalance;
+    private BigDecimal walletChange = BigDecimal.ZERO;
+    private final Map<Long, Position> positions;
+    private final List<Position> dirty = new ArrayList<>();
+
+    public InvestorBook(Long userId, BigDecimal walletBalance, Collection<Position> positions) {
+        this.userId = userId;
+        this.walletBalance = walletBalance;
+        this.positions = new HashMap<>();
+        for (Position position : positions) {
+            this.positions.put(position.fundId, position);
+        }
+    }
+
+    public static final class Position {
+        private final Long fundId;
+        private BigDecimal units;
+        private BigDecimal averageBuyPrice;
+        private boolean stored; // a portfolio_holdings row exists
+        private boolean dirty;
+
+        public Position(Long fundId, BigDecimal units, BigDecimal averageBuyPrice, boolean stored) {
+            this.fundId = fundId;
+            this.units = units;
+            this.averageBuyPrice = averageBuyPrice;
+            this.stored = stored;
+        }
+
+        public Long fundId() {
+            return fundId;
+        }
+
+        public BigDecimal units() {
+            return units;
+        }
+
+        public BigDecimal averageBuyPrice() {
+            return averageBuyPrice;
+        }
+
+        public boolean stored() {
+            return stored;
+        }
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    public BigDecimal walletBalance() {
+        return walletBalance;
+    }
+
+    /** Net wallet change not yet written. */
+    public BigDecimal walletChange() {
+        return walletChange;
+    }
+
+    /** Positions changed since the last write; a stored position with zero units is to be deleted. */
+    public List<Position> dirtyPositions() {
+        return dirty;
+    }
+
+    public boolean isDirty() {
+        return walletChange.signum() != 0 || !dirty.isEmpty();
+    }
+
+    /**
+     * Applies an order, or throws without changing anything when the wallet or holding is short.
+     */
+    public void apply(OrderExecutor.Order order) {
+        switch (order.kind()) {
+            case DEPOSIT, REFUND, CANCEL_BUY -> credit(order.amount());
+            case DEBIT -> {
+                requireBalance(order.amount(), "Insufficient wallet balance. Required: ₹" + order.amount());
+                credit(order.amount().negate());
+            }
+            case BUY -> {
+                requireBalance(order.amount(), "Insufficient wallet balance. Available: " + walletBalance);
+                credit(order.amount().negate());
+                addUnits(order);
+            }
+            case BUY_ORDER -> {
+                requireBalance(order.amount(), "Insufficient wallet balance. Available: " + walletBalance);
+                credit(order.amount().negate());
+            }
+            case ALLOT -> addUnits(order);
+            case SELL_ORDER -> requireUnits(order); // checked against an estimate; redemption re-checks
+            case SELL, REDEEM -> {
+                Position position = requireUnits(order);
+                position.units = position.units.subtract(order.units());
+                credit(order.amount());
+                touch(position);
+            }
+        }
+    }
+
+    /** Called once the tracked changes are committed. */
+    public void markPersisted() {
+        walletChange = BigDecimal.ZERO;
+        for (Position position : dirty) {
+            position.dirty = false;
+            if (position.units.signum() == 0) {
+                positions.remove(position.fundId);
+                position.stored = false;
+            } else {
+                position.stored = true;
+            }
+        }
+        dirty.clear();
+    }
+
+    private void addUnits(OrderExecutor.Order order) {
+        Position position = positions.computeIfAbsent(order.fundId(),
+                id -> new Position(id, BigDecimal.ZERO, BigDecimal.ZERO, false));
+        // Weighted average price
+        BigDecimal totalOldValue = position.units.multiply(position.averageBuyPrice);
+        BigDecimal totalNewValue = order.units().multiply(order.nav());
+        BigDecimal totalUnits = position.units.add(order.units());
+        if (totalUnits.signum() > 0) {
+            position.averageBuyPrice = totalOldValue.add(totalNewValue).divide(totalUnits, 4, RoundingMode.HALF_UP);
+        }
+        position.units = totalUnits;
+        touch(position);
+    }
+
+    private Position requireUnits(OrderExecutor.Order order) {
+        Position position = positions.get(order.fundId());
+        if (position == null || position.units.signum() == 0) {
+            throw new RuntimeException("No holdings found for this fund");
+        }
+        if (position.units.compareTo(order.units()) < 0) {
+            throw new RuntimeException("Insufficient units. You own: " + position.units);
+        }
+        return position;
+    }
+
+    private void requireBalance(BigDecimal amount, String message) {
+        if (walletBalance.compareTo(amount) < 0) {
+            throw new RuntimeException(message);
+        }
+    }
+
+    private void credit(BigDecimal amount) {
+        walletBalance = walletBalance.add(amount);
+        walletChange = walletChange.add(amount);
+    }
+
+    private void touch(Position position) {
+        if (!position.dirty) {
+            position.dirty = true;
+            dirty.add(position);
+        }
+    }
+}
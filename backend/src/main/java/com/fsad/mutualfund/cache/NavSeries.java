@@ -0,0 +1,209 @@
+package com.fsad.mutualfund.cache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable view of one fund's NAV history stored column-wise: epoch days in an int[] and
+ * NAVs as fixed-point longs (value × 10^{@value #NAV_SCALE}). Dates are strictly ascending.
+ *
+ * Appending at the end reuses the backing arrays while capacity allows; older views keep
+ * their own size and never observe slots written after them.
+ */
+public final class NavSeries {
+
+    public static final int NAV_SCALE = 4;
+    private static final double NAV_FACTOR = 10_000.0;
+
+    private static final NavSeries EMPTY = new NavSeries(new int[0], new long[0], 0);
+
+    private final int[] epochDays;
+    private final long[] navs;
+    private final int size;
+
+    private NavSeries(int[] epochDays, long[] navs, int size) {
+        this.epochDays = epochDays;
+        this.navs = navs;
+        this.size = size;
+    }
+
+    public static NavSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wraps arrays that are already sorted by date; ownership passes to the series.
+     */
+    static NavSeries wrap(int[] epochDays, long[] navs, int size) {
+        return new NavSeries(epochDays, navs, size);
+    }
+
+    public static long toFixedPoint(BigDecimal nav) {
+        return nav.setScale(NAV_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochDayAt(int index) {
+        return epochDays[checkIndex(index)];
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDayAt(index));
+    }
+
+    public long fixedNavAt(int index) {
+        return navs[checkIndex(index)];
+    }
+
+    public BigDecimal navAt(int index) {
+        return BigDecimal.valueOf(fixedNavAt(index), NAV_SCALE);
+    }
+
+    public double navDoubleAt(int index) {
+        return fixedNavAt(index) / NAV_FACTOR;
+    }
+
+    public LocalDate firstDate() {
+        return size == 0 ? null : dateAt(0);
+    }
+
+    public LocalDate lastDate() {
+        return size == 0 ? null : dateAt(size - 1);
+    }
+
+    /**
+     * Index of the first point on or after the given day (size if none).
+     */
+    public int lowerBound(int epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first point strictly after the given day (size if none).
+     */
+    public int upperBound(int epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the last point on or before the given day (-1 if none), i.e. the NAV in force that day.
+     */
+    public int floorIndex(LocalDate date) {
+        return upperBound((int) date.toEpochDay()) - 1;
+    }
+
+    public boolean contains(LocalDate date) {
+        int i = floorIndex(date);
+        return i >= 0 && epochDays[i] == date.toEpochDay();
+    }
+
+    /**
+     * Index range [start, end) of points dated within [from, to]; null bounds are open.
+     */
+    public int[] indexRange(LocalDate from, LocalDate to) {
+        int start = from == null ? 0 : lowerBound((int) from.toEpochDay());
+        int end = to == null ? size : upperBound((int) to.toEpochDay());
+        return new int[] { start, Math.max(start, end) };
+    }
+
+    /**
+     * Copies epoch days in [from, to) for primitive kernels.
+     */
+    public int[] copyEpochDays(int from, int to) {
+        checkRange(from, to);
+        return Arrays.copyOfRange(epochDays, from, to);
+    }
+
+    /**
+     * Copies NAVs in [from, to) as doubles for primitive kernels.
+     */
+    public double[] copyNavs(int from, int to) {
+        checkRange(from, to);
+        double[] result = new double[to - from];
+        for (int i = from; i < to; i++) {
+            result[i - from] = navs[i] / NAV_FACTOR;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a series including the point. Appends in O(1) amortised; an existing date is
+     * overwritten and an out-of-order date is inserted with a copy.
+     */
+    NavSeries with(int epochDay, long fixedNav) {
+        if (size == 0 || epochDay > epochDays[size - 1]) {
+            int[] days = epochDays;
+            long[] values = navs;
+            if (size == days.length) {
+                int capacity = Math.max(16, size + (size >> 1));
+                days = Arrays.copyOf(days, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            days[size] = epochDay;
+            values[size] = fixedNav;
+            return new NavSeries(days, values, size + 1);
+        }
+
+        int index = lowerBound(epochDay);
+        if (epochDays[index] == epochDay) {
+            if (navs[index] == fixedNav) {
+                return this;
+            }
+            long[] values = Arrays.copyOf(navs, navs.length);
+            values[index] = fixedNav;
+            return new NavSeries(Arrays.copyOf(epochDays, epochDays.length), values, size);
+        }
+
+        int[] days = new int[size + 1];
+        long[] values = new long[size + 1];
+        System.arraycopy(epochDays, 0, days, 0, index);
+        System.arraycopy(navs, 0, values, 0, index);
+        days[index] = epochDay;
+        values[index] = fixedNav;
+        System.arraycopy(epochDays, index, days, index + 1, size - index);
+        System.arraycopy(navs, index, values, index + 1, size - index);
+        return new NavSeries(days, values, size + 1);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for NAV series of size " + size);
+        }
+        return index;
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);
+        }
+    }
+}
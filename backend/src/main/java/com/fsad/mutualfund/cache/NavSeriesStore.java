@@ -0,0 +1,88 @@
+package com.fsad.mutualfund.cache;
+
+import com.fsad.mutualfund.repository.NavHistoryRepository;
+import com.fsad.mutualfund.repository.NavPointView;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory columnar NAV history, loaded once per fund from the database and appended to as
+ * new NAVs are recorded. Read paths use this instead of materialising NavHistory entities.
+ */
+@Component
+public class NavSeriesStore {
+
+    private final NavHistoryRepository navHistoryRepository;
+    private final ConcurrentMap<Long, NavSeries> series = new ConcurrentHashMap<>();
+
+    public NavSeriesStore(NavHistoryRepository navHistoryRepository) {
+        this.navHistoryRepository = navHistoryRepository;
+    }
+
+    public NavSeries get(Long fundId) {
+        return series.computeIfAbsent(fundId, this::load);
+    }
+
+    /**
+     * The series if already loaded, without touching the database.
+     */
+    public NavSeries peek(Long fundId) {
+        return series.get(fundId);
+    }
+
+    /**
+     * Adds a point to a loaded series. Inside a transaction the point is re-applied after commit
+     * (covering a concurrent first load that missed it) and the series is dropped on rollback.
+     */
+    public void append(Long fundId, LocalDate navDate, BigDecimal navValue) {
+        int epochDay = (int) navDate.toEpochDay();
+        long fixedNav = NavSeries.toFixedPoint(navValue);
+        apply(fundId, epochDay, fixedNav);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        apply(fundId, epochDay, fixedNav);
+                    } else {
+                        evict(fundId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void evict(Long fundId) {
+        series.remove(fundId);
+    }
+
+    public int loadedFunds() {
+        return series.size();
+    }
+
+    private void apply(Long fundId, int epochDay, long fixedNav) {
+        // computeIfPresent serialises writers per fund; unloaded funds pick the point up on load
+        series.computeIfPresent(fundId, (id, current) -> current.with(epochDay, fixedNav));
+    }
+
+    private NavSeries load(Long fundId) {
+        List<NavPointView> points = navHistoryRepository.findPointsByFundId(fundId);
+        int size = points.size();
+        int[] epochDays = new int[size];
+        long[] navs = new long[size];
+        for (int i = 0; i < size; i++) {
+            NavPointView point = points.get(i);
+            epochDays[i] = (int) point.getNavDate().toEpochDay();
+            navs[i] = NavSeries.toFixedPoint(point.getNavValue());
+        }
+        return NavSeries.wrap(epochDays, navs, size);
+    }
+}
@@ -2,7 +2,9 @@ package com.fsad.mutualfund.config;
 
 import com.fsad.mutualfund.entity.*;
 import com.fsad.mutualfund.repository.*;
+import com.fsad.mutualfund.service.FundAnalyticsService;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +15,7 @@ import java.time.LocalDate;
 import java.util.Random;
 
 @Component
+@Order(1)
 public class DataSeeder implements CommandLineRunner {
 
     private final UserRepository userRepository;
@@ -20,6 +23,7 @@ public class DataSeeder implements CommandLineRunner {
     private final AdvisorProfileRepository advisorProfileRepository;
     private final MutualFundRepository fundRepository;
     private final NavHistoryRepository navHistoryRepository;
+    private final FundAnalyticsService fundAnalyticsService;
     private final PasswordEncoder passwordEncoder;
 
     public DataSeeder(UserRepository userRepository,
@@ -27,12 +31,14 @@ public class DataSeeder implements CommandLineRunner {
                       AdvisorProfileRepository advisorProfileRepository,
                       MutualFundRepository fundRepository,
                       NavHistoryRepository navHistoryRepository,
+                      FundAnalyticsService fundAnalyticsService,
                       PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.investorProfileRepository = investorProfileRepository;
         this.advisorProfileRepository = advisorProfileRepository;
         this.fundRepository = fundRepository;
         this.navHistoryRepository = navHistoryRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -211,5 +217,7 @@ public class DataSeeder implements CommandLineRunner {
         // Update current NAV to latest
         fund.setCurrentNav(BigDecimal.valueOf(nav).setScale(4, RoundingMode.HALF_UP));
         fundRepository.save(fund);
+
+        fundAnalyticsService.rebuild(fund.getId());
     }
 }
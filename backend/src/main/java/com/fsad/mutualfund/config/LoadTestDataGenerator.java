@@ -0,0 +1,404 @@
+package com.fsad.mutualfund.config;
+
+import com.fsad.mutualfund.entity.InvestorProfile;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.entity.Transaction;
+import com.fsad.mutualfund.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates production-sized synthetic data for load testing: funds with weekday random-walk
+ * NAV history, then investors with profiles, SIP-style holdings and matching transactions.
+ *
+ * Rows go in through JDBC batches. Work is split into fixed-size partitions, each seeded from a
+ * sequence drawn up front, so the output is identical whatever the thread count.
+ */
+@Component
+@Profile("loadtest")
+@Order(2)
+public class LoadTestDataGenerator implements CommandLineRunner {
+
+    private static final String TICKER_PREFIX = "LT";
+    private static final String EMAIL_DOMAIN = "@loadtest.local";
+    private static final int FUNDS_PER_PARTITION = 100;
+    private static final int INVESTORS_PER_PARTITION = 5_000;
+
+    private static final String INSERT_FUND = "INSERT INTO mutual_funds (fund_name, ticker_symbol, category, "
+            + "expense_ratio, risk_rating, current_nav, fund_manager, description, min_investment, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NAV =
+            "INSERT INTO nav_history (fund_id, nav_date, nav_value) VALUES (?, ?, ?)";
+    private static final String UPDATE_CURRENT_NAV = "UPDATE mutual_funds SET current_nav = ? WHERE id = ?";
+    private static final String INSERT_USER = "INSERT INTO users (email, password_hash, full_name, role, "
+            + "auth_provider, is_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PROFILE = "INSERT INTO investor_profiles (user_id, risk_tolerance_score, "
+            + "risk_category, wallet_balance, investment_horizon) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_HOLDING = "INSERT INTO portfolio_holdings (investor_id, fund_id, "
+            + "units_owned, average_buy_price) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (user_id, type, amount, status, "
+            + "reference_id, description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] HORIZONS = { "0-1 years", "1-3 years", "3-5 years", "5+ years" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    private final int fundCount;
+    private final int years;
+    private final int investorCount;
+    private final int holdingsPerInvestor;
+    private final int installmentsPerHolding;
+    private final int threads;
+    private final int batchSize;
+    private final long seed;
+
+    public LoadTestDataGenerator(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 PasswordEncoder passwordEncoder,
+                                 @Value("${app.loadtest.funds:10000}") int fundCount,
+                                 @Value("${app.loadtest.years:10}") int years,
+                                 @Value("${app.loadtest.investors:1000000}") int investorCount,
+                                 @Value("${app.loadtest.holdings-per-investor:4}") int holdingsPerInvestor,
+                                 @Value("${app.loadtest.installments-per-holding:6}") int installmentsPerHolding,
+                                 @Value("${app.loadtest.threads:0}") int threads,
+                                 @Value("${app.loadtest.batch-size:5000}") int batchSize,
+                                 @Value("${app.loadtest.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.fundCount = fundCount;
+        this.years = years;
+        this.investorCount = investorCount;
+        this.holdingsPerInvestor = Math.min(holdingsPerInvestor, fundCount);
+        this.installmentsPerHolding = installmentsPerHolding;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mutual_funds WHERE ticker_symbol LIKE ?", Integer.class, TICKER_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            System.out.println("⏭️ Load-test data already present (" + existing + " funds), skipping generation");
+            return;
+        }
+
+        System.out.println("🏗️ Generating load-test data: " + fundCount + " funds x " + years + " years, "
+                + investorCount + " investors on " + threads + " threads...");
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusYears(years);
+        FundUniverse universe = new FundUniverse(fundCount, start, end);
+
+        long started = System.nanoTime();
+        insertFunds(universe);
+        report("funds", fundCount, started);
+
+        started = System.nanoTime();
+        long[] fundSeeds = partitionSeeds(seed, partitions(fundCount, FUNDS_PER_PARTITION));
+        runPartitions(fundSeeds.length, p -> generateNavs(universe, p, new SplittableRandom(fundSeeds[p])));
+        report("NAV points", universe.navRows(), started);
+
+        started = System.nanoTime();
+        String passwordHash = passwordEncoder.encode("loadtest123"); // bcrypt once, not per user
+        long[] investorSeeds = partitionSeeds(seed + 1, partitions(investorCount, INVESTORS_PER_PARTITION));
+        runPartitions(investorSeeds.length,
+                p -> generateInvestors(universe, p, passwordHash, new SplittableRandom(investorSeeds[p])));
+        report("investors", investorCount, started);
+
+        System.out.println("✅ Load-test data generation complete!");
+    }
+
+    private void insertFunds(FundUniverse universe) {
+        SplittableRandom random = new SplittableRandom(seed - 1);
+        MutualFund.Category[] categories = MutualFund.Category.values();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(fundCount);
+
+        for (int i = 0; i < fundCount; i++) {
+            MutualFund.Category category = categories[i % categories.length];
+            int riskRating = switch (category) {
+                case DEBT -> 1 + random.nextInt(2);
+                case HYBRID -> 2 + random.nextInt(2);
+                case EQUITY -> 3 + random.nextInt(3);
+                case ELSS -> 4 + random.nextInt(2);
+            };
+            double startNav = 10 + random.nextDouble() * 490;
+            universe.riskRatings[i] = riskRating;
+            universe.startNavs[i] = startNav;
+            rows.add(new Object[] {
+                    String.format("Load Test %s Fund %06d", category.name(), i),
+                    universe.ticker(i),
+                    category.name(),
+                    BigDecimal.valueOf(25 + random.nextInt(200), 2),
+                    riskRating,
+                    fixed(startNav),
+                    "Load Test Manager " + (i % 500),
+                    "Synthetic fund generated for load testing.",
+                    BigDecimal.valueOf(500L * (1 + random.nextInt(10))).setScale(4),
+                    now
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_FUND, rows));
+
+        jdbcTemplate.query("SELECT id, ticker_symbol FROM mutual_funds WHERE ticker_symbol LIKE ?",
+                rs -> {
+                    universe.fundIds[Integer.parseInt(rs.getString(2).substring(TICKER_PREFIX.length()))] =
+                            rs.getLong(1);
+                }, TICKER_PREFIX + "%");
+    }
+
+    private void generateNavs(FundUniverse universe, int partition, SplittableRandom random) {
+        int from = partition * FUNDS_PER_PARTITION;
+        int to = Math.min(fundCount, from + FUNDS_PER_PARTITION);
+        int startDay = (int) universe.start.toEpochDay();
+        int endDay = (int) universe.end.toEpochDay();
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        List<Object[]> currentNavs = new ArrayList<>(to - from);
+        long written = 0;
+
+        for (int i = from; i < to; i++) {
+            long fundId = universe.fundIds[i];
+            int risk = universe.riskRatings[i];
+            double drift = 0.0001 + 0.0001 * risk;
+            double volatility = 0.002 + 0.004 * risk;
+            double nav = universe.startNavs[i];
+            double floor = nav * 0.2;
+            int month = 0;
+            LocalDate nextMonth = universe.start.withDayOfMonth(1).plusMonths(1);
+
+            for (int day = startDay; day <= endDay; day++) {
+                if (Math.floorMod(day + 3, 7) >= 5) {
+                    continue; // Saturday, Sunday
+                }
+                if (day >= nextMonth.toEpochDay()) {
+                    month++;
+                    nextMonth = nextMonth.plusMonths(1);
+                }
+                nav = Math.max(floor, nav * (1.0 + drift + volatility * random.nextGaussian()));
+                universe.monthNavs[i][month] = nav;
+                rows.add(new Object[] { fundId, Date.valueOf(LocalDate.ofEpochDay(day)), fixed(nav) });
+                written++;
+                if (rows.size() >= batchSize) {
+                    writeBatch(INSERT_NAV, rows);
+                    rows = new ArrayList<>(batchSize);
+                }
+            }
+            // A month without a trading day (start on a month-end weekend) keeps the previous close
+            double close = universe.startNavs[i];
+            for (int m = 0; m < universe.months; m++) {
+                if (universe.monthNavs[i][m] == 0) {
+                    universe.monthNavs[i][m] = close;
+                } else {
+                    close = universe.monthNavs[i][m];
+                }
+            }
+            currentNavs.add(new Object[] { fixed(nav), fundId });
+        }
+        writeBatch(INSERT_NAV, rows);
+        writeBatch(UPDATE_CURRENT_NAV, currentNavs);
+        universe.countNavRows(written);
+    }
+
+    private void generateInvestors(FundUniverse universe, int partition, String passwordHash,
+                                   SplittableRandom random) {
+        int from = partition * INVESTORS_PER_PARTITION;
+        int to = Math.min(investorCount, from + INVESTORS_PER_PARTITION);
+        InvestorProfile.RiskCategory[] riskCategories = InvestorProfile.RiskCategory.values();
+
+        for (int chunkStart = from; chunkStart < to; chunkStart += batchSize) {
+            int chunkEnd = Math.min(to, chunkStart + batchSize);
+            int chunkStartIndex = chunkStart;
+            List<Object[]> users = new ArrayList<>(chunkEnd - chunkStart);
+            for (int n = chunkStart; n < chunkEnd; n++) {
+                Timestamp createdAt = Timestamp.valueOf(
+                        universe.start.atStartOfDay().plusMinutes(random.nextInt(60 * 24 * 30)));
+                users.add(new Object[] { email(n), passwordHash, "Load Test Investor " + n,
+                        User.Role.INVESTOR.name(), User.AuthProvider.LOCAL.name(), true, createdAt, createdAt });
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, users);
+                // Zero-padded emails sort in generation order, so ids come back aligned with the chunk
+                List<Long> userIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM users WHERE email BETWEEN ? AND ? ORDER BY email", Long.class,
+                        email(chunkStartIndex), email(chunkStartIndex + users.size() - 1));
+
+                List<Object[]> profiles = new ArrayList<>(userIds.size());
+                List<Object[]> holdings = new ArrayList<>(userIds.size() * holdingsPerInvestor);
+                List<Object[]> transactions = new ArrayList<>(
+                        userIds.size() * (1 + holdingsPerInvestor * installmentsPerHolding));
+                for (Long userId : userIds) {
+                    int score = random.nextInt(101);
+                    profiles.add(new Object[] { userId, score, riskCategories[Math.min(2, score / 34)].name(),
+                            BigDecimal.valueOf(random.nextInt(5_000_000), 2).setScale(4),
+                            HORIZONS[random.nextInt(HORIZONS.length)] });
+                    addPortfolio(universe, userId, random, holdings, transactions);
+                }
+                jdbcTemplate.batchUpdate(INSERT_PROFILE, profiles);
+                jdbcTemplate.batchUpdate(INSERT_HOLDING, holdings);
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions);
+            });
+        }
+    }
+
+    /**
+     * One deposit, then monthly SIP installments per holding priced at that month's closing NAV,
+     * so holdings, average prices and transaction history agree with each other.
+     */
+    private void addPortfolio(FundUniverse universe, Long userId, SplittableRandom random,
+                              List<Object[]> holdings, List<Object[]> transactions) {
+        int months = universe.months;
+        int[] funds = random.ints(0, fundCount).distinct().limit(holdingsPerInvestor).toArray();
+        int firstMonth = random.nextInt(Math.max(1, months - installmentsPerHolding));
+        BigDecimal deposited = BigDecimal.ZERO;
+
+        for (int fund : funds) {
+            long fundId = universe.fundIds[fund];
+            BigDecimal installment = BigDecimal.valueOf(500L + 100L * random.nextInt(96)).setScale(4);
+            BigDecimal units = BigDecimal.ZERO;
+            BigDecimal invested = BigDecimal.ZERO;
+            for (int k = 0; k < installmentsPerHolding && firstMonth + k < months; k++) {
+                int month = firstMonth + k;
+                BigDecimal nav = fixed(universe.monthNavs[fund][month]);
+                BigDecimal bought = installment.divide(nav, 4, RoundingMode.HALF_UP);
+                units = units.add(bought);
+                invested = invested.add(installment);
+                transactions.add(new Object[] { userId, Transaction.TransactionType.BUY.name(), installment,
+                        Transaction.TransactionStatus.SUCCESS.name(), "FUND-" + fundId,
+                        "Bought " + bought + " units of " + universe.ticker(fund),
+                        Timestamp.valueOf(universe.monthDate(month).atTime(10, random.nextInt(60))) });
+            }
+            if (units.signum() > 0) {
+                holdings.add(new Object[] { userId, fundId, units, invested.divide(units, 4, RoundingMode.HALF_UP) });
+                deposited = deposited.add(invested);
+            }
+        }
+        transactions.add(new Object[] { userId, Transaction.TransactionType.DEPOSIT.name(), deposited,
+                Transaction.TransactionStatus.SUCCESS.name(), "LOADTEST-DEP-" + userId,
+                "Wallet top-up", Timestamp.valueOf(universe.monthDate(firstMonth).atTime(9, 0)) });
+    }
+
+    private void writeBatch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+        }
+    }
+
+    private void runPartitions(int partitions, IntConsumer task) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                futures.add(pool.submit(() -> task.accept(partition)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load-test generation interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load-test generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long[] partitionSeeds(long seed, int partitions) {
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] seeds = new long[partitions];
+        for (int p = 0; p < partitions; p++) {
+            seeds[p] = root.nextLong();
+        }
+        return seeds;
+    }
+
+    private static int partitions(int count, int perPartition) {
+        return (count + perPartition - 1) / perPartition;
+    }
+
+    private static String email(int n) {
+        return String.format("investor%07d", n) + EMAIL_DOMAIN;
+    }
+
+    private static BigDecimal fixed(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static void report(String what, long count, long startedNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        System.out.println("   " + count + " " + what + " in " + elapsedMs + " ms ("
+                + count * 1000 / elapsedMs + "/s)");
+    }
+
+    /**
+     * Fund ids and month-end NAVs shared between the NAV and investor phases. Each fund's row is
+     * written by exactly one NAV partition and only read after all of them finish.
+     */
+    private static final class FundUniverse {
+        private final LocalDate start;
+        private final LocalDate end;
+        private final int months;
+        private final long[] fundIds;
+        private final int[] riskRatings;
+        private final double[] startNavs;
+        private final double[][] monthNavs;
+        private final LongAdder navRows = new LongAdder();
+
+        private FundUniverse(int fundCount, LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+            this.months = (int) ChronoUnit.MONTHS.between(
+                    start.withDayOfMonth(1), end.withDayOfMonth(1)) + 1;
+            this.fundIds = new long[fundCount];
+            this.riskRatings = new int[fundCount];
+            this.startNavs = new double[fundCount];
+            this.monthNavs = new double[fundCount][months];
+        }
+
+        private String ticker(int index) {
+            return TICKER_PREFIX + String.format("%08d", index);
+        }
+
+        private LocalDate monthDate(int month) {
+            LocalDate date = start.withDayOfMonth(1).plusMonths(month).plusDays(27);
+            return date.isBefore(start) ? start : date.isAfter(end) ? end : date;
+        }
+
+        private void countNavRows(long rows) {
+            navRows.add(rows);
+        }
+
+        private long navRows() {
+            return navRows.sum();
+        }
+    }
+}
@@ -1,13 +1,38 @@
 package com.fsad.mutualfund.controller;
 
+import com.fsad.mutualfund.cache.FundCatalogueCache;
+import com.fsad.mutualfund.cache.IdempotencyCache;
 import com.fsad.mutualfund.dto.ApiResponse;
+import com.fsad.mutualfund.dto.EfficientFrontierResponse;
+import com.fsad.mutualfund.dto.EodRunReport;
+import com.fsad.mutualfund.dto.LedgerBalances;
+import com.fsad.mutualfund.dto.LedgerReconcileReport;
+import com.fsad.mutualfund.dto.LedgerSnapshotReport;
+import com.fsad.mutualfund.dto.NavIngestionReport;
+import com.fsad.mutualfund.dto.ReturnsBatchReport;
+import com.fsad.mutualfund.dto.SettlementReport;
 import com.fsad.mutualfund.entity.User;
 import com.fsad.mutualfund.repository.UserRepository;
+import com.fsad.mutualfund.service.EodMarkToMarketService;
+import com.fsad.mutualfund.service.FundAnalyticsService;
 import com.fsad.mutualfund.service.FundService;
+import com.fsad.mutualfund.service.LedgerService;
+import com.fsad.mutualfund.service.NavIngestionService;
+import com.fsad.mutualfund.service.OrderSettlementService;
+import com.fsad.mutualfund.service.PortfolioOptimizerService;
+import com.fsad.mutualfund.service.PortfolioReturnsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,10 +44,41 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final FundService fundService;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final NavIngestionService navIngestionService;
+    private final FundCatalogueCache catalogueCache;
+    private final IdempotencyCache idempotencyCache;
+    private final EodMarkToMarketService eodService;
+    private final PortfolioOptimizerService optimizerService;
+    private final PortfolioReturnsService returnsService;
+    private final OrderSettlementService settlementService;
+    private final LedgerService ledgerService;
+    // "Today" for the batch endpoints is the market's day, as for their scheduled runs
+    private final ZoneId zone;
 
-    public AdminController(UserRepository userRepository, FundService fundService) {
+    public AdminController(UserRepository userRepository, FundService fundService,
+                           FundAnalyticsService fundAnalyticsService,
+                           NavIngestionService navIngestionService,
+                           FundCatalogueCache catalogueCache,
+                           IdempotencyCache idempotencyCache,
+                           EodMarkToMarketService eodService,
+                           PortfolioOptimizerService optimizerService,
+                           PortfolioReturnsService returnsService,
+                           OrderSettlementService settlementService,
+                           LedgerService ledgerService,
+                           @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
         this.userRepository = userRepository;
         this.fundService = fundService;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.navIngestionService = navIngestionService;
+        this.catalogueCache = catalogueCache;
+        this.idempotencyCache = idempotencyCache;
+        this.eodService = eodService;
+        this.optimizerService = optimizerService;
+        this.returnsService = returnsService;
+        this.settlementService = settlementService;
+        this.ledgerService = ledgerService;
+        this.zone = ZoneId.of(zone);
     }
 
     @GetMapping("/users")
@@ -77,4 +133,91 @@ public class AdminController {
                 "analysts", analysts
         ));
     }
+
+    // Backfill: replay NAV history into the analytics snapshot (one fund, or all when omitted)
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<ApiResponse> rebuildAnalytics(@RequestParam(required = false) Long fundId) {
+        if (fundId != null) {
+            fundAnalyticsService.rebuild(fundId);
+            return ResponseEntity.ok(ApiResponse.success("Analytics rebuilt for fund " + fundId));
+        }
+        int rebuilt = fundAnalyticsService.rebuildAll();
+        return ResponseEntity.ok(ApiResponse.success("Analytics rebuilt for " + rebuilt + " funds"));
+    }
+
+    // Daily NAV file or backfill: CSV or semicolon lines of ticker, date, nav (header optional)
+    @PostMapping(value = "/nav/ingest", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<NavIngestionReport> ingestNav(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("NAV file is empty");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(navIngestionService.ingest(in));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read NAV file: " + e.getMessage());
+        }
+    }
+
+    // End-of-day mark-to-market on demand (defaults to today); re-running resumes from checkpoints
+    @PostMapping("/eod/run")
+    public ResponseEntity<EodRunReport> runEod(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(eodService.run(date != null ? date : LocalDate.now(zone)));
+    }
+
+    // Recompute the covariance matrix and efficient frontier now instead of waiting for the nightly run
+    @PostMapping("/optimizer/refresh")
+    public ResponseEntity<EfficientFrontierResponse> refreshOptimizer() {
+        return ResponseEntity.ok(optimizerService.refresh());
+    }
+
+    // Recompute every investor's XIRR snapshot for a date (defaults to today)
+    @PostMapping("/returns/run")
+    public ResponseEntity<ReturnsBatchReport> runReturns(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(returnsService.runBatch(date != null ? date : LocalDate.now(zone)));
+    }
+
+    // Settle pending cut-off orders at a date's NAV (defaults to today); settled orders are never re-applied
+    @PostMapping("/orders/settle")
+    public ResponseEntity<SettlementReport> settleOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(settlementService.settle(date != null ? date : LocalDate.now(zone)));
+    }
+
+    // Ledger balances of one investor: latest snapshot plus the entries after it
+    @GetMapping("/ledger/{userId}")
+    public ResponseEntity<LedgerBalances> getLedgerBalances(@PathVariable Long userId) {
+        return ResponseEntity.ok(ledgerService.getBalances(userId));
+    }
+
+    // Folds new ledger entries into the snapshots (normally every 15 minutes)
+    @PostMapping("/ledger/snapshot")
+    public ResponseEntity<LedgerSnapshotReport> snapshotLedger() {
+        return ResponseEntity.ok(ledgerService.snapshot());
+    }
+
+    // Compares wallet and holding columns with the ledger; repair=true moves the columns back to it
+    @PostMapping("/ledger/reconcile")
+    public ResponseEntity<LedgerReconcileReport> reconcileLedger(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(ledgerService.reconcile(repair));
+    }
+
+    // Fund catalogue cache: hit/miss/eviction counters
+    @GetMapping("/cache/catalogue")
+    public ResponseEntity<Map<String, Object>> getCatalogueCacheStats() {
+        return ResponseEntity.ok(catalogueCache.stats());
+    }
+
+    // Idempotency-Key replays: answered from memory (hits) or from the table (storeHits)
+    @GetMapping("/cache/idempotency")
+    public ResponseEntity<Map<String, Object>> getIdempotencyCacheStats() {
+        return ResponseEntity.ok(idempotencyCache.stats());
+    }
+
+    @DeleteMapping("/cache/catalogue")
+    public ResponseEntity<ApiResponse> clearCatalogueCache() {
+        catalogueCache.clear();
+        return ResponseEntity.ok(ApiResponse.success("Catalogue cache cleared"));
+    }
 }
@@ -1,11 +1,14 @@
 package com.fsad.mutualfund.controller;
 
 import com.fsad.mutualfund.dto.ApiResponse;
+import com.fsad.mutualfund.dto.BacktestRequest;
+import com.fsad.mutualfund.dto.BacktestResponse;
 import com.fsad.mutualfund.dto.PaymentIntentResponse;
 import com.fsad.mutualfund.entity.AdvisorAppointment;
 import com.fsad.mutualfund.entity.AdvisorProfile;
 import com.fsad.mutualfund.security.JwtUtil;
 import com.fsad.mutualfund.service.AdvisorService;
+import com.fsad.mutualfund.service.BacktestService;
 import com.fsad.mutualfund.service.PaymentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,11 +25,14 @@ public class AdvisorController {
 
     private final AdvisorService advisorService;
     private final PaymentService paymentService;
+    private final BacktestService backtestService;
     private final JwtUtil jwtUtil;
 
-    public AdvisorController(AdvisorService advisorService, PaymentService paymentService, JwtUtil jwtUtil) {
+    public AdvisorController(AdvisorService advisorService, PaymentService paymentService,
+                             BacktestService backtestService, JwtUtil jwtUtil) {
         this.advisorService = advisorService;
         this.paymentService = paymentService;
+        this.backtestService = backtestService;
         this.jwtUtil = jwtUtil;
     }
 
@@ -49,6 +55,13 @@ public class AdvisorController {
         return ResponseEntity.ok(result);
     }
 
+    // Replay SIP / lump-sum strategies over NAV history for one or more funds, or a basket
+    @PostMapping("/backtest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BacktestResponse> backtest(@RequestBody BacktestRequest request) {
+        return ResponseEntity.ok(backtestService.backtest(request));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Map<String, Object>> getAdvisorDetail(@PathVariable Long id) {
@@ -1,13 +1,30 @@
 package com.fsad.mutualfund.controller;
 
+import com.fsad.mutualfund.cache.FundVersionRegistry;
+import com.fsad.mutualfund.dto.EfficientFrontierResponse;
 import com.fsad.mutualfund.dto.FundDetailResponse;
 import com.fsad.mutualfund.dto.FundResponse;
+import com.fsad.mutualfund.dto.FundScreenerRequest;
+import com.fsad.mutualfund.dto.FundScreenerResponse;
+import com.fsad.mutualfund.dto.NavPageResponse;
+import com.fsad.mutualfund.dto.NavRecordRequest;
+import com.fsad.mutualfund.dto.RiskMetricsResponse;
+import com.fsad.mutualfund.dto.RollingReturnResponse;
 import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.service.FundScreenerService;
 import com.fsad.mutualfund.service.FundService;
+import com.fsad.mutualfund.service.PortfolioOptimizerService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,23 +32,94 @@ import java.util.List;
 public class FundController {
 
     private final FundService fundService;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final FundVersionRegistry versionRegistry;
+    private final FundScreenerService fundScreenerService;
+    private final PortfolioOptimizerService optimizerService;
 
-    public FundController(FundService fundService) {
+    public FundController(FundService fundService, FundAnalyticsService fundAnalyticsService,
+                          FundVersionRegistry versionRegistry, FundScreenerService fundScreenerService,
+                          PortfolioOptimizerService optimizerService) {
         this.fundService = fundService;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.versionRegistry = versionRegistry;
+        this.fundScreenerService = fundScreenerService;
+        this.optimizerService = optimizerService;
     }
 
-    // Public endpoint — no auth required
+    // Public endpoint — no auth required.
+    // Conditional GET: an unchanged catalogue answers 304 before the service is called
     @GetMapping("/public")
     public ResponseEntity<List<FundResponse>> getAllFunds(
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) Integer maxRisk) {
-        return ResponseEntity.ok(fundService.getAllFunds(category, maxRisk));
+            @RequestParam(required = false) Integer maxRisk,
+            WebRequest request) {
+        if (request.checkNotModified(versionRegistry.catalogueEtag(), versionRegistry.catalogueLastModified())) {
+            return notModified();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(fundService.getAllFunds(category, maxRisk));
     }
 
-    // Public endpoint — fund detail with analytics
+    // Public endpoint — faceted screener over the in-memory fund index (see FundScreenerRequest for filters)
+    @GetMapping("/public/screener")
+    public ResponseEntity<FundScreenerResponse> screenFunds(FundScreenerRequest request) {
+        return ResponseEntity.ok(fundScreenerService.screen(request));
+    }
+
+    // Public endpoint — efficient frontier and risk-category portfolios, recomputed daily
+    @GetMapping("/public/frontier")
+    public ResponseEntity<EfficientFrontierResponse> getEfficientFrontier() {
+        return ResponseEntity.ok(optimizerService.getFrontier());
+    }
+
+    // Public endpoint — fund detail with analytics.
+    // range (1M..5Y, MAX) trims the chart history, points downsamples it, history=false omits it
     @GetMapping("/public/{id}")
-    public ResponseEntity<FundDetailResponse> getFundDetail(@PathVariable Long id) {
-        return ResponseEntity.ok(fundService.getFundDetail(id));
+    public ResponseEntity<FundDetailResponse> getFundDetail(
+            @PathVariable Long id,
+            @RequestParam(required = false) String range,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = "true") boolean history,
+            WebRequest request) {
+        if (request.checkNotModified(versionRegistry.fundEtag(id), versionRegistry.fundLastModified(id))) {
+            return notModified();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(fundService.getFundDetail(id, range, points, history));
+    }
+
+    // Public endpoint — NAV history page by date range, keyset-paginated with 'after' (max 1000 per page)
+    @GetMapping("/public/{id}/nav")
+    public ResponseEntity<NavPageResponse> getNavHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(fundService.getNavHistoryPage(id, from, to, after, limit));
+    }
+
+    // Public endpoint — rolling-return distribution for a window (1M, 3M, 6M, 1Y, 3Y, 5Y)
+    @GetMapping("/public/{id}/rolling-returns")
+    public ResponseEntity<RollingReturnResponse> getRollingReturns(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "1Y") String window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(fundAnalyticsService.getRollingReturns(id, window, from, to));
+    }
+
+    // Public endpoint — risk metrics on calendar-aligned DAILY/WEEKLY/MONTHLY/QUARTERLY returns
+    @GetMapping("/public/{id}/risk")
+    public ResponseEntity<RiskMetricsResponse> getRiskMetrics(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "MONTHLY") String frequency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(fundAnalyticsService.getRiskMetrics(id, frequency, from, to));
     }
 
     // Admin/Analyst: Create a new fund
@@ -48,6 +136,14 @@ public class FundController {
         return ResponseEntity.ok(fundService.updateFund(id, fund));
     }
 
+    // Admin/Analyst: Append a NAV point (updates the analytics snapshot incrementally)
+    @PostMapping("/{id}/nav")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANALYST')")
+    public ResponseEntity<FundResponse> recordNav(@PathVariable Long id,
+                                                  @Valid @RequestBody NavRecordRequest request) {
+        return ResponseEntity.ok(fundService.recordNav(id, request.getNavDate(), request.getNavValue()));
+    }
+
     // Admin: Delete a fund
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -55,4 +151,11 @@ public class FundController {
         fundService.deleteFund(id);
         return ResponseEntity.noContent().build();
     }
+
+    // checkNotModified has already written ETag / Last-Modified; no-cache makes clients revalidate
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
 }
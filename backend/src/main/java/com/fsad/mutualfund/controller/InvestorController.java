@@ -1,10 +1,17 @@
 package com.fsad.mutualfund.controller;
 
 import com.fsad.mutualfund.dto.ApiResponse;
+import com.fsad.mutualfund.dto.GoalProjectionRequest;
+import com.fsad.mutualfund.dto.GoalProjectionResponse;
+import com.fsad.mutualfund.dto.RecommendationResponse;
 import com.fsad.mutualfund.dto.RiskQuestionnaireRequest;
+import com.fsad.mutualfund.dto.TargetAllocationResponse;
 import com.fsad.mutualfund.entity.InvestorProfile;
 import com.fsad.mutualfund.security.JwtUtil;
+import com.fsad.mutualfund.service.GoalProjectionService;
 import com.fsad.mutualfund.service.InvestorService;
+import com.fsad.mutualfund.service.PortfolioOptimizerService;
+import com.fsad.mutualfund.service.RecommendationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,10 +25,18 @@ import java.util.Map;
 public class InvestorController {
 
     private final InvestorService investorService;
+    private final GoalProjectionService goalProjectionService;
+    private final PortfolioOptimizerService optimizerService;
+    private final RecommendationService recommendationService;
     private final JwtUtil jwtUtil;
 
-    public InvestorController(InvestorService investorService, JwtUtil jwtUtil) {
+    public InvestorController(InvestorService investorService, GoalProjectionService goalProjectionService,
+                              PortfolioOptimizerService optimizerService,
+                              RecommendationService recommendationService, JwtUtil jwtUtil) {
         this.investorService = investorService;
+        this.goalProjectionService = goalProjectionService;
+        this.optimizerService = optimizerService;
+        this.recommendationService = recommendationService;
         this.jwtUtil = jwtUtil;
     }
 
@@ -53,17 +68,46 @@ public class InvestorController {
                         "category", profile.getRiskCategory().name())));
     }
 
+    // Idempotency-Key (optional): a retry with the same key does not deposit twice
     @PostMapping("/deposit")
     public ResponseEntity<ApiResponse> deposit(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, BigDecimal> body) {
         Long userId = extractUserId(authHeader);
         BigDecimal amount = body.get("amount");
-        InvestorProfile profile = investorService.depositToWallet(userId, amount);
+        BigDecimal walletBalance = investorService.depositToWallet(userId, amount, idempotencyKey);
 
         return ResponseEntity.ok(ApiResponse.success(
                 "Deposited successfully",
-                Map.of("walletBalance", profile.getWalletBalance())));
+                Map.of("walletBalance", walletBalance)));
+    }
+
+    // Monte Carlo projection of the current holdings, with an optional monthly SIP and goal amount
+    @PostMapping("/projection")
+    public ResponseEntity<GoalProjectionResponse> projectPortfolio(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody GoalProjectionRequest request) {
+        Long userId = extractUserId(authHeader);
+        return ResponseEntity.ok(goalProjectionService.project(userId, request));
+    }
+
+    // Mean-variance target allocation for the investor's risk category (amount defaults to the wallet)
+    @GetMapping("/allocation")
+    public ResponseEntity<TargetAllocationResponse> getTargetAllocation(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) BigDecimal amount) {
+        Long userId = extractUserId(authHeader);
+        return ResponseEntity.ok(optimizerService.allocate(userId, amount));
+    }
+
+    // Funds suited to the investor's risk tolerance that they do not already hold
+    @GetMapping("/recommendations")
+    public ResponseEntity<RecommendationResponse> getRecommendations(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = extractUserId(authHeader);
+        return ResponseEntity.ok(recommendationService.recommend(userId, limit));
     }
 
     private Long extractUserId(String authHeader) {
@@ -1,17 +1,22 @@
 package com.fsad.mutualfund.controller;
 
 import com.fsad.mutualfund.dto.ApiResponse;
+import com.fsad.mutualfund.dto.PortfolioReturnsResponse;
+import com.fsad.mutualfund.dto.TransactionHistoryPage;
 import com.fsad.mutualfund.dto.TransactionRequest;
 import com.fsad.mutualfund.entity.PortfolioHolding;
 import com.fsad.mutualfund.entity.Transaction;
 import com.fsad.mutualfund.security.JwtUtil;
+import com.fsad.mutualfund.service.PortfolioReturnsService;
 import com.fsad.mutualfund.service.TransactionService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,47 +27,50 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final PortfolioReturnsService returnsService;
     private final JwtUtil jwtUtil;
 
-    public TransactionController(TransactionService transactionService, JwtUtil jwtUtil) {
+    public TransactionController(TransactionService transactionService, PortfolioReturnsService returnsService,
+                                 JwtUtil jwtUtil) {
         this.transactionService = transactionService;
+        this.returnsService = returnsService;
         this.jwtUtil = jwtUtil;
     }
 
+    // Idempotency-Key (optional): a retry with the same key returns the first result instead of buying again
     @PostMapping("/buy")
     public ResponseEntity<ApiResponse> buyFund(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransactionRequest request) {
         Long userId = extractUserId(authHeader);
-        Transaction tx = transactionService.buyFund(userId, request);
+        Transaction tx = transactionService.buyFund(userId, request, idempotencyKey);
         return ResponseEntity.ok(ApiResponse.success(tx.getDescription()));
     }
 
     @PostMapping("/sell")
     public ResponseEntity<ApiResponse> sellFund(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TransactionRequest request) {
         Long userId = extractUserId(authHeader);
-        Transaction tx = transactionService.sellFund(userId, request);
+        Transaction tx = transactionService.sellFund(userId, request, idempotencyKey);
         return ResponseEntity.ok(ApiResponse.success(tx.getDescription()));
     }
 
+    // Newest first, keyset-paginated: pass nextCursor back as 'cursor' (max 500 per page)
     @GetMapping("/history")
-    public ResponseEntity<List<Map<String, Object>>> getHistory(
-            @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<TransactionHistoryPage> getHistory(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         Long userId = extractUserId(authHeader);
-        List<Transaction> transactions = transactionService.getTransactionHistory(userId);
-
-        List<Map<String, Object>> result = transactions.stream().map(tx -> Map.<String, Object>of(
-                "id", tx.getId(),
-                "type", tx.getType().name(),
-                "amount", tx.getAmount(),
-                "status", tx.getStatus().name(),
-                "description", tx.getDescription() != null ? tx.getDescription() : "",
-                "createdAt", tx.getCreatedAt().toString()
-        )).collect(Collectors.toList());
-
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(transactionService.getTransactionHistory(
+                userId, type, status, from, to, cursor, limit));
     }
 
     @GetMapping("/portfolio")
@@ -85,6 +93,13 @@ public class TransactionController {
         return ResponseEntity.ok(result);
     }
 
+    // Money-weighted return (XIRR) per holding and for the whole portfolio, from BUY/SELL cash flows
+    @GetMapping("/returns")
+    public ResponseEntity<PortfolioReturnsResponse> getReturns(
+            @RequestHeader("Authorization") String authHeader) {
+        return ResponseEntity.ok(returnsService.getReturns(extractUserId(authHeader)));
+    }
+
     private Long extractUserId(String authHeader) {
         String token = authHeader.replace("Bearer ", "");
         return jwtUtil.getUserIdFromToken(token);
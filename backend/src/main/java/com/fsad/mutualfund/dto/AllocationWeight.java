@@ -0,0 +1,21 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationWeight {
+    private Long fundId;
+    private String fundName;
+    private String tickerSymbol;
+    private String category;
+    private int riskRating;
+    private BigDecimal weight; // fraction of the portfolio
+    private BigDecimal amount; // only when allocating a concrete amount
+}
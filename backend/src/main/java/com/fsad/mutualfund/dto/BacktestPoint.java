@@ -0,0 +1,18 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestPoint {
+    private LocalDate date;
+    private BigDecimal invested;
+    private BigDecimal value;
+}
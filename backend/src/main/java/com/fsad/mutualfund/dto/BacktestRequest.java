@@ -0,0 +1,16 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BacktestRequest {
+    private List<Long> fundIds;
+    private List<BigDecimal> weights; // when set, the funds are one basket split by these weights
+    private List<BacktestStrategy> strategies;
+    private LocalDate from;
+    private LocalDate to; // defaults to the latest NAV
+    private Integer chartPoints = 120; // 0 leaves the value series out
+}
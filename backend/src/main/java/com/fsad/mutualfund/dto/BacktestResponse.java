@@ -0,0 +1,19 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private List<BacktestResult> results;
+    private long elapsedMs;
+}
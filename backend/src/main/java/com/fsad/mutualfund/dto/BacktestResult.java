@@ -0,0 +1,31 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestResult {
+    private String strategy;
+    private List<Long> fundIds;
+    private String funds; // fund name, or the basket's names joined
+    private LocalDate startDate; // first day every fund in the run has a NAV
+    private LocalDate endDate;
+    private int installments;
+    private BigDecimal invested;
+    private BigDecimal finalValue;
+    private BigDecimal gain;
+    private BigDecimal absoluteReturn;
+    private BigDecimal xirr; // null when it is undefined
+    private BigDecimal maxDrawdown; // of the time-weighted value, as a fraction
+    private LocalDate drawdownPeak;
+    private LocalDate drawdownTrough;
+    private List<BacktestPoint> chart;
+}
@@ -0,0 +1,13 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class BacktestStrategy {
+    private String type = "sip"; // lump_sum, sip or step_up_sip
+    private BigDecimal amount; // lump sum, or the first monthly installment
+    private Integer dayOfMonth = 1; // SIP date
+    private BigDecimal annualStepUp; // step_up_sip only, e.g. 0.10 for 10% a year
+    private String label; // shown instead of the type when set
+}
@@ -0,0 +1,26 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EfficientFrontierResponse {
+    private LocalDateTime computedAt;
+    private long computeMs;
+    private int universeSize;
+    private LocalDate historyFrom;
+    private LocalDate historyTo;
+    private int historyDays;
+
+    private List<FrontierPoint> frontier; // lowest to highest risk aversion
+    private Map<String, FrontierPoint> riskCategoryPortfolios; // before minimum-investment limits
+}
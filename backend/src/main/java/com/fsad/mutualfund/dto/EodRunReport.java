@@ -0,0 +1,27 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EodRunReport {
+    private LocalDate runDate;
+    private int partitions;
+    private int partitionsRun;
+    private int partitionsResumed; // already checkpointed by an earlier attempt
+    private List<String> failedPartitions;
+
+    private int fundsPriced;
+    private int fundsSkipped; // NAV already present for the date, or nothing to price from
+    private long holdingsRevalued;
+
+    private long elapsedMs;
+    private long fundsPerSecond;
+}
@@ -0,0 +1,22 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FrontierPoint {
+    private double riskAversion;
+
+    // Annualised, from daily log returns (fractions, e.g. 0.12 = 12%)
+    private BigDecimal expectedReturn;
+    private BigDecimal volatility;
+    private BigDecimal sharpeRatio;
+    private List<AllocationWeight> allocations;
+}
@@ -0,0 +1,29 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Bound from query parameters; every criterion is optional and they combine with AND
+@Data
+public class FundScreenerRequest {
+    private List<String> category; // any of, e.g. category=EQUITY,ELSS
+    private Integer minRisk;
+    private Integer maxRisk;
+    private Double minExpenseRatio;
+    private Double maxExpenseRatio;
+    private Double maxMinInvestment; // funds that can be entered with this amount
+    private String manager;
+    private String namePrefix;
+
+    // Analytics ranges (fractions, e.g. 0.12 = 12%)
+    private Double minCagr;
+    private Double maxCagr;
+    private Double minSharpe;
+    private Double maxSharpe;
+    private Double minVolatility;
+    private Double maxVolatility;
+
+    private String sort = "name"; // name, risk, expenseRatio, minInvestment, nav, cagr, sharpe, volatility, oneYearReturn
+    private String direction = "asc";
+    private Integer limit;
+}
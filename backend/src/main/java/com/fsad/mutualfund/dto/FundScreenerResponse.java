@@ -0,0 +1,22 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FundScreenerResponse {
+    private int universeSize;
+    private int totalMatches;
+    private String sort;
+    private String direction;
+    private long elapsedMicros;
+
+    // Top matches in sort order, without NAV history
+    private List<FundDetailResponse> funds;
+}
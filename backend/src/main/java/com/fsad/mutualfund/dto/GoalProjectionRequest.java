@@ -0,0 +1,15 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class GoalProjectionRequest {
+    private Integer years = 10;
+    private Integer paths; // defaults to app.projection.default-paths
+    private String method = "bootstrap"; // bootstrap or parametric
+    private Integer lookbackYears = 5; // NAV history sampled from
+    private BigDecimal monthlyContribution; // SIP spread over current holdings by value
+    private BigDecimal goalAmount; // optional target for the success probability
+    private Long seed; // fixes the paths for reproducible projections
+}
@@ -0,0 +1,34 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalProjectionResponse {
+    private String method;
+    private int years;
+    private int paths;
+    private long seed;
+    private int fundsHeld;
+
+    // NAV history the simulation samples from
+    private LocalDate historyFrom;
+    private LocalDate historyTo;
+    private int historyDays;
+
+    private BigDecimal currentValue;
+    private BigDecimal monthlyContribution;
+    private List<ProjectionBand> bands;
+
+    private BigDecimal goalAmount;
+    private BigDecimal goalProbability; // fraction of paths ending at or above the goal
+    private long elapsedMs;
+}
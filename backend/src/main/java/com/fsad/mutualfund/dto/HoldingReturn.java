@@ -0,0 +1,22 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingReturn {
+    private Long fundId;
+    private String fundName;
+    private BigDecimal invested; // sum of BUY amounts
+    private BigDecimal redeemed; // sum of SELL amounts
+    private BigDecimal currentValue;
+    private BigDecimal gain; // redeemed + current value - invested
+    private BigDecimal xirr; // annualised, as a fraction; null when undefined
+    private int cashFlows;
+}
@@ -0,0 +1,22 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalances {
+    private Long userId;
+    private BigDecimal wallet;
+    private BigDecimal orderReserve; // cash held by pending cut-off buys
+    private Map<Long, BigDecimal> units; // fund id -> units
+
+    private long snapshotEntryId; // entries up to here come from the snapshot
+    private int tailEntries; // entries replayed on top of it
+}
@@ -0,0 +1,19 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerReconcileReport {
+    private int investors;
+    private int mismatches;
+    private int repaired; // investors whose wallet and holdings were reset to the ledger
+    private List<String> samples; // first mismatches, e.g. "user 42 WALLET ledger=... stored=..."
+    private long elapsedMs;
+}
@@ -0,0 +1,21 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerSnapshotReport {
+    private int investorsOpened; // opening entries posted for balances that predate the ledger
+    private long fromEntryId; // exclusive
+    private long toEntryId; // inclusive
+    private long entries;
+    private int investors;
+    private int accountsInserted;
+    private int accountsUpdated;
+    private long elapsedMs;
+}
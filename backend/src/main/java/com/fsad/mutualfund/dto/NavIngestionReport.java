@@ -0,0 +1,24 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NavIngestionReport {
+    private long rowsRead;
+    private long rowsInserted;
+    private long duplicates;
+    private long rejected;
+    private int fundsUpdated;
+    private long elapsedMs;
+    private long rowsPerSecond;
+
+    // First few rejected lines with the reason, e.g. "line 12: unknown ticker XYZ"
+    private List<String> rejectedLines;
+}
@@ -0,0 +1,21 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NavPageResponse {
+    private Long fundId;
+    private List<FundDetailResponse.NavPoint> points;
+
+    // Pass as 'after' to fetch the next page; null on the last page
+    private LocalDate nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,17 @@
+package com.fsad.mutualfund.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class NavRecordRequest {
+    @NotNull(message = "NAV date is required")
+    private LocalDate navDate;
+
+    @NotNull(message = "NAV value is required")
+    @Positive(message = "NAV value must be positive")
+    private BigDecimal navValue;
+}
@@ -0,0 +1,23 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioReturnsResponse {
+    private LocalDate asOf;
+    private BigDecimal invested;
+    private BigDecimal redeemed;
+    private BigDecimal currentValue;
+    private BigDecimal gain;
+    private BigDecimal xirr; // whole portfolio, including funds since sold
+    private List<HoldingReturn> holdings;
+}
@@ -0,0 +1,23 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionBand {
+    private int month;
+    private LocalDate date;
+    private BigDecimal contributed; // current value plus contributions to date
+    private BigDecimal percentile5;
+    private BigDecimal percentile25;
+    private BigDecimal median;
+    private BigDecimal percentile75;
+    private BigDecimal percentile95;
+}
@@ -0,0 +1,21 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationResponse {
+    private int riskToleranceScore;
+    private String riskCategory;
+    private int riskBucket;
+    private int targetRiskRating;
+    private int holdingsExcluded;
+    private long elapsedMicros;
+    private List<RecommendedFund> funds;
+}
@@ -0,0 +1,26 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendedFund {
+    private Long fundId;
+    private String fundName;
+    private String tickerSymbol;
+    private String category;
+    private int riskRating;
+    private BigDecimal currentNav;
+    private BigDecimal minInvestment;
+    private BigDecimal expenseRatio;
+    private BigDecimal cagr;
+    private BigDecimal sharpeRatio;
+    private BigDecimal oneYearReturn;
+    private BigDecimal score; // 0-1, higher suits the risk bucket better
+}
@@ -0,0 +1,20 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReturnsBatchReport {
+    private LocalDate asOf;
+    private int investors;
+    private int withXirr; // investors whose flows produced a rate
+    private long cashFlows;
+    private long elapsedMs;
+    private long investorsPerSecond;
+}
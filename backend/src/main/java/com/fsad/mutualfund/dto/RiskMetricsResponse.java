@@ -0,0 +1,34 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskMetricsResponse {
+    private Long fundId;
+    private String frequency;
+    private int periodsPerYear;
+    private LocalDate from;
+    private LocalDate to;
+    private int periods;
+
+    // Per-period figures at the chosen frequency
+    private BigDecimal meanReturn;
+    private BigDecimal volatility;
+    private BigDecimal sharpeRatio;
+    private BigDecimal sortinoRatio;
+    private BigDecimal bestPeriod;
+    private BigDecimal worstPeriod;
+
+    // Annualised with the frequency's periods per year
+    private BigDecimal annualisedReturn;
+    private BigDecimal annualisedVolatility;
+    private BigDecimal annualisedSharpeRatio;
+}
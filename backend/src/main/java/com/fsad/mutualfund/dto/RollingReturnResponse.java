@@ -0,0 +1,31 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollingReturnResponse {
+    private Long fundId;
+    private String window;
+    private boolean annualised;
+    private LocalDate asOf;
+    private int observations;
+
+    // Distribution of rolling returns (fractions, e.g. 0.12 = 12%)
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal mean;
+    private BigDecimal median;
+    private BigDecimal percentile5;
+    private BigDecimal percentile25;
+    private BigDecimal percentile75;
+    private BigDecimal percentile95;
+    private BigDecimal positivePercent;
+}
@@ -0,0 +1,23 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementReport {
+    private LocalDate navDate;
+    private int orders;
+    private int funds;
+    private int settled;
+    private int failed; // redemptions short of units, buys cancelled and refunded
+    private int deferred; // no NAV for the date yet, or not saved; picked up by the next run
+
+    private long elapsedMs;
+    private long ordersPerSecond;
+}
@@ -0,0 +1,29 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetAllocationResponse {
+    private String riskCategory;
+    private double riskAversion;
+    private int maxFundRiskRating;
+    private BigDecimal amount;
+    private LocalDate asOf;
+
+    // Annualised, from daily log returns (fractions, e.g. 0.12 = 12%)
+    private BigDecimal expectedReturn;
+    private BigDecimal volatility;
+    private BigDecimal sharpeRatio;
+
+    private List<AllocationWeight> allocations;
+    private int fundsDroppedForMinInvestment;
+}
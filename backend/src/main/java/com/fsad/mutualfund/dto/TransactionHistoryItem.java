@@ -0,0 +1,20 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryItem {
+    private Long id;
+    private String type;
+    private BigDecimal amount;
+    private String status;
+    private String description;
+    private String createdAt;
+}
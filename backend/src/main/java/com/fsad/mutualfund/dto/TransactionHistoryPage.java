@@ -0,0 +1,19 @@
+package com.fsad.mutualfund.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPage {
+    private List<TransactionHistoryItem> transactions; // newest first
+
+    // Pass as 'cursor' to fetch the next (older) page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,48 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One completed partition of an end-of-day run. A restarted run for the same date skips
+ * the partitions recorded here.
+ */
+@Entity
+@Table(name = "eod_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_eod_run_partition", columnNames = { "run_date", "partition_no" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EodCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(name = "partition_count", nullable = false)
+    private int partitionCount;
+
+    @Column(name = "funds_priced")
+    private int fundsPriced;
+
+    @Column(name = "holdings_revalued")
+    private long holdingsRevalued;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        completedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,81 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted analytics snapshot for a fund, maintained incrementally as NAV points are appended.
+ * Monthly returns are folded into running (Welford) moments so no history scan is needed.
+ */
+@Entity
+@Table(name = "fund_analytics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FundAnalytics {
+
+    @Id
+    @Column(name = "fund_id")
+    private Long fundId;
+
+    @Version
+    private Long version;
+
+    @Column(name = "nav_count")
+    private long navCount;
+
+    @Column(name = "first_nav_date")
+    private LocalDate firstNavDate;
+
+    @Column(name = "first_nav", precision = 19, scale = 4)
+    private BigDecimal firstNav;
+
+    @Column(name = "last_nav_date")
+    private LocalDate lastNavDate;
+
+    @Column(name = "last_nav", precision = 19, scale = 4)
+    private BigDecimal lastNav;
+
+    // Closing NAV of the last completed month (or the first NAV while the first month is open)
+    @Column(name = "period_open_nav", precision = 19, scale = 4)
+    private BigDecimal periodOpenNav;
+
+    // Running moments of monthly returns
+    @Column(name = "return_count")
+    private long returnCount;
+
+    @Column(name = "return_mean")
+    private double returnMean;
+
+    @Column(name = "return_m2")
+    private double returnM2;
+
+    @Builder.Default
+    @Column(precision = 19, scale = 6)
+    private BigDecimal cagr = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "sharpe_ratio", precision = 19, scale = 6)
+    private BigDecimal sharpeRatio = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "standard_deviation", precision = 19, scale = 6)
+    private BigDecimal standardDeviation = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "one_year_return", precision = 19, scale = 6)
+    private BigDecimal oneYearReturn = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
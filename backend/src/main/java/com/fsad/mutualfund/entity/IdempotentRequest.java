@@ -0,0 +1,50 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a buy, sell or deposit sent with an Idempotency-Key, written in the same
+ * transaction as the order so a retried request replays this instead of executing again.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = { "user_id", "idempotency_key" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotentRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "idempotency_key", length = 64, nullable = false)
+    private String idempotencyKey;
+
+    @Column(length = 16, nullable = false)
+    private String kind; // order kind, e.g. BUY, SELL_ORDER, DEPOSIT
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "fund_id")
+    private Long fundId;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "wallet_balance", precision = 19, scale = 4)
+    private BigDecimal walletBalance; // balance right after the order
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
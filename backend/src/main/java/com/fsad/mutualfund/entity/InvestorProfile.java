@@ -29,8 +29,10 @@ public class InvestorProfile {
     @Column(name = "risk_category")
     private RiskCategory riskCategory = RiskCategory.MODERATE;
 
+    // Written on insert only; afterwards changed solely by the order executor's guarded
+    // updates, so saving a stale profile cannot roll the balance back
     @Builder.Default
-    @Column(name = "wallet_balance", precision = 19, scale = 4)
+    @Column(name = "wallet_balance", precision = 19, scale = 4, updatable = false)
     private BigDecimal walletBalance = BigDecimal.ZERO;
 
     @Column(name = "investment_horizon")
@@ -0,0 +1,51 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Money-weighted return of one investor's whole portfolio as of a date, written by the nightly
+ * returns batch for reporting.
+ */
+@Entity
+@Table(name = "investor_return_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_return_snapshot_investor_date", columnNames = { "investor_id", "as_of_date" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvestorReturnSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "investor_id", nullable = false)
+    private User investor;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal invested; // sum of BUY amounts
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal redeemed; // sum of SELL amounts
+
+    @Column(name = "current_value", precision = 19, scale = 4, nullable = false)
+    private BigDecimal currentValue;
+
+    @Column(precision = 12, scale = 6)
+    private BigDecimal xirr; // null when the flows have no sign change
+
+    @Column(name = "cash_flows")
+    private int cashFlows;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
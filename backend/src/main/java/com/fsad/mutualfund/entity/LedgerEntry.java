@@ -0,0 +1,65 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One movement of cash or fund units from one account to another. Every row is both legs of a
+ * double entry, so each asset sums to zero across accounts. Rows are only ever inserted, in
+ * batches by the order executor; balances are a snapshot plus the entries after it.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_investor_id", columnList = "investor_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "investor_id", nullable = false, updatable = false)
+    private User investor;
+
+    @Column(name = "fund_id", updatable = false)
+    private Long fundId; // set for fund movements; no FK so entries outlive a removed fund
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false, updatable = false)
+    private Asset asset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_account", length = 16, nullable = false, updatable = false)
+    private Account fromAccount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_account", length = 16, nullable = false, updatable = false)
+    private Account toAccount;
+
+    @Column(precision = 19, scale = 4, nullable = false, updatable = false)
+    private BigDecimal quantity; // rupees for CASH, units for UNITS; never negative
+
+    @Column(length = 16, nullable = false, updatable = false)
+    private String kind; // order kind, or OPENING for balances that predate the ledger
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Asset {
+        CASH, UNITS
+    }
+
+    public enum Account {
+        // The investor's own accounts
+        WALLET, ORDER_RESERVE, HOLDING,
+        // Counterparties: money from or to outside the platform, a fund's cash and its unit register
+        EXTERNAL_CASH, FUND_CASH, FUND_UNITS
+    }
+}
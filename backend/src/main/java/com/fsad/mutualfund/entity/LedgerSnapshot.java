@@ -0,0 +1,47 @@
+package com.fsad.mutualfund.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of one investor account (WALLET, ORDER_RESERVE, or HOLDING per fund) including every
+ * ledger entry up to lastEntryId. All of an investor's rows share the same lastEntryId, so
+ * the current balance is these rows plus that investor's entries after it.
+ */
+@Entity
+@Table(name = "ledger_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_snapshot_account",
+                columnNames = { "investor_id", "account", "fund_id" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "investor_id", nullable = false)
+    private User investor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private LedgerEntry.Account account;
+
+    @Column(name = "fund_id", nullable = false)
+    private Long fundId; // 0 for WALLET and ORDER_RESERVE
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(name = "taken_at")
+    private LocalDateTime takenAt;
+}
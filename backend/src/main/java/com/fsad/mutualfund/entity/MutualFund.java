@@ -23,6 +23,9 @@ public class MutualFund {
     @Column(name = "ticker_symbol", unique = true, nullable = false, length = 10)
     private String tickerSymbol;
 
+    @Column(name = "scheme_code", unique = true, length = 20)
+    private String schemeCode; // AMFI scheme code, matched by NAV file ingestion
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private Category category;
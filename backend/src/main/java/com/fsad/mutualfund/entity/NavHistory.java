@@ -8,6 +8,8 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "nav_history", indexes = {
         @Index(name = "idx_nav_fund_date", columnList = "fund_id, nav_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_nav_fund_date", columnNames = {"fund_id", "nav_date"})
 })
 @Data
 @NoArgsConstructor
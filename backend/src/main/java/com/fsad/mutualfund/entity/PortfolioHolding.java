@@ -3,6 +3,7 @@ package com.fsad.mutualfund.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Entity
 @Table(name = "portfolio_holdings", uniqueConstraints = {
@@ -31,4 +32,11 @@ public class PortfolioHolding {
 
     @Column(name = "average_buy_price", precision = 19, scale = 4, nullable = false)
     private BigDecimal averageBuyPrice;
+
+    // Mark-to-market value at the fund's NAV on valuedAt, maintained by the end-of-day job
+    @Column(name = "market_value", precision = 19, scale = 4)
+    private BigDecimal marketValue;
+
+    @Column(name = "valued_at")
+    private LocalDate valuedAt;
 }
@@ -0,0 +1,58 @@
+package com.fsad.mutualfund.event;
+
+import com.fsad.mutualfund.entity.MutualFund;
+
+/**
+ * Published whenever a fund's catalogue entry, NAV history or analytics change.
+ * Listeners that keep derived state (versions, caches, indexes) react after commit.
+ *
+ * Category and risk rating are carried as they were before and after the change so
+ * filter-keyed caches can invalidate precisely; null means absent (created/deleted) or unknown.
+ */
+public record FundChangedEvent(Long fundId, Type type,
+                               MutualFund.Category previousCategory, Integer previousRiskRating,
+                               MutualFund.Category category, Integer riskRating) {
+
+    public enum Type {
+        CREATED, UPDATED, NAV_RECORDED, ANALYTICS_REBUILT, DELETED;
+
+        // Analytics are not part of the catalogue listing
+        public boolean affectsCatalogue() {
+            return this != ANALYTICS_REBUILT;
+        }
+    }
+
+    public static FundChangedEvent created(MutualFund fund) {
+        return new FundChangedEvent(fund.getId(), Type.CREATED, null, null,
+                fund.getCategory(), fund.getRiskRating());
+    }
+
+    public static FundChangedEvent updated(MutualFund fund, MutualFund.Category previousCategory,
+                                           int previousRiskRating) {
+        return new FundChangedEvent(fund.getId(), Type.UPDATED, previousCategory, previousRiskRating,
+                fund.getCategory(), fund.getRiskRating());
+    }
+
+    public static FundChangedEvent navRecorded(MutualFund fund) {
+        return new FundChangedEvent(fund.getId(), Type.NAV_RECORDED, fund.getCategory(), fund.getRiskRating(),
+                fund.getCategory(), fund.getRiskRating());
+    }
+
+    public static FundChangedEvent deleted(MutualFund fund) {
+        return new FundChangedEvent(fund.getId(), Type.DELETED, fund.getCategory(), fund.getRiskRating(),
+                null, null);
+    }
+
+    public static FundChangedEvent analyticsRebuilt(Long fundId) {
+        return new FundChangedEvent(fundId, Type.ANALYTICS_REBUILT, null, null, null, null);
+    }
+
+    /**
+     * Whether the fund's facets are known on both sides of the change.
+     */
+    public boolean hasFacets() {
+        return type == Type.CREATED ? category != null
+                : type == Type.DELETED ? previousCategory != null
+                : previousCategory != null && category != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fsad.mutualfund.repository;
+
+import com.fsad.mutualfund.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A settled BUY or SELL as a dated cash flow, read without hydrating Transaction entities.
+ */
+public interface CashFlowView {
+    Transaction.TransactionType getType();
+
+    BigDecimal getAmount();
+
+    String getReferenceId();
+
+    LocalDateTime getCreatedAt();
+}
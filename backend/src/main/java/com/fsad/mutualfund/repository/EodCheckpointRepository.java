@@ -0,0 +1,13 @@
+package com.fsad.mutualfund.repository;
+
+import com.fsad.mutualfund.entity.EodCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface EodCheckpointRepository extends JpaRepository<EodCheckpoint, Long> {
+    List<EodCheckpoint> findByRunDate(LocalDate runDate);
+}
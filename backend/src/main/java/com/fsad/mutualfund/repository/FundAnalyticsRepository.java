@@ -0,0 +1,9 @@
+package com.fsad.mutualfund.repository;
+
+import com.fsad.mutualfund.entity.FundAnalytics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FundAnalyticsRepository extends JpaRepository<FundAnalytics, Long> {
+}
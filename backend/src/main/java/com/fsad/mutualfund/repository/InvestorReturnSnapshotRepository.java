@@ -0,0 +1,12 @@
+package com.fsad.mutualfund.repository;
+
+import com.fsad.mutualfund.entity.InvestorReturnSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InvestorReturnSnapshotRepository extends JpaRepository<InvestorReturnSnapshot, Long> {
+    Optional<InvestorReturnSnapshot> findFirstByInvestorIdOrderByAsOfDateDesc(Long investorId);
+}
@@ -1,7 +1,10 @@
 package com.fsad.mutualfund.repository;
 
 import com.fsad.mutualfund.entity.NavHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -13,5 +16,18 @@ public interface NavHistoryRepository extends JpaRepository<NavHistory, Long> {
 
     List<NavHistory> findByMutualFundIdAndNavDateBetweenOrderByNavDateAsc(Long fundId, LocalDate start, LocalDate end);
 
+    @Query("select n.navDate as navDate, n.navValue as navValue from NavHistory n "
+            + "where n.mutualFund.id = :fundId order by n.navDate asc")
+    List<NavPointView> findPointsByFundId(@Param("fundId") Long fundId);
+
+    // Keyset page on (fund_id, nav_date), served by idx_nav_fund_date; 'after' is exclusive
+    @Query("select n.navDate as navDate, n.navValue as navValue from NavHistory n "
+            + "where n.mutualFund.id = :fundId and n.navDate > :after and n.navDate <= :to "
+            + "order by n.navDate asc")
+    List<NavPointView> findPointsAfter(@Param("fundId") Long fundId, @Param("after") LocalDate after,
+                                       @Param("to") LocalDate to, Pageable page);
+
+    boolean existsByMutualFundIdAndNavDate(Long fundId, LocalDate navDate);
+
     void deleteByMutualFundId(Long fundId);
 }
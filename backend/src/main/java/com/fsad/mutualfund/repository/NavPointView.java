@@ -0,0 +1,13 @@
+package com.fsad.mutualfund.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lightweight projection of a NAV row, read without hydrating NavHistory entities.
+ */
+public interface NavPointView {
+    LocalDate getNavDate();
+
+    BigDecimal getNavValue();
+}
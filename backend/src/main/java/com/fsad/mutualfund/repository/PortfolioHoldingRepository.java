@@ -2,6 +2,8 @@ package com.fsad.mutualfund.repository;
 
 import com.fsad.mutualfund.entity.PortfolioHolding;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,8 @@ import java.util.Optional;
 public interface PortfolioHoldingRepository extends JpaRepository<PortfolioHolding, Long> {
     List<PortfolioHolding> findByInvestorId(Long investorId);
     Optional<PortfolioHolding> findByInvestorIdAndMutualFundId(Long investorId, Long fundId);
+
+    // Fund ids only, answered from the (investor_id, fund_id) unique index without loading holdings
+    @Query("select h.mutualFund.id from PortfolioHolding h where h.investor.id = :investorId and h.unitsOwned > 0")
+    List<Long> findHeldFundIds(@Param("investorId") Long investorId);
 }
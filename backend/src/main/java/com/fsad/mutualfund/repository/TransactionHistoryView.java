@@ -0,0 +1,24 @@
+package com.fsad.mutualfund.repository;
+
+import com.fsad.mutualfund.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an investor's transaction history, read without hydrating Transaction entities
+ * or their User proxies.
+ */
+public interface TransactionHistoryView {
+    Long getId();
+
+    Transaction.TransactionType getType();
+
+    BigDecimal getAmount();
+
+    Transaction.TransactionStatus getStatus();
+
+    String getDescription();
+
+    LocalDateTime getCreatedAt();
+}
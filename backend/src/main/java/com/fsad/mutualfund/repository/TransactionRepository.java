@@ -1,14 +1,41 @@
 package com.fsad.mutualfund.repository;
 
 import com.fsad.mutualfund.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Keyset page on (user_id, created_at, id) newest first, served by idx_tx_user_created_id;
+    // the (beforeAt, beforeId) cursor is exclusive and [from, to) bounds created_at
+    @Query("select t.id as id, t.type as type, t.amount as amount, t.status as status, "
+            + "t.description as description, t.createdAt as createdAt from Transaction t "
+            + "where t.user.id = :userId and t.createdAt >= :from and t.createdAt < :to "
+            + "and t.createdAt <= :beforeAt and (t.createdAt < :beforeAt or t.id < :beforeId) "
+            + "and t.type in :types and t.status in :statuses "
+            + "order by t.createdAt desc, t.id desc")
+    List<TransactionHistoryView> findHistoryBefore(@Param("userId") Long userId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("beforeAt") LocalDateTime beforeAt,
+                                                   @Param("beforeId") Long beforeId,
+                                                   @Param("types") Collection<Transaction.TransactionType> types,
+                                                   @Param("statuses") Collection<Transaction.TransactionStatus> statuses,
+                                                   Pageable page);
 
     List<Transaction> findByUserIdAndType(Long userId, Transaction.TransactionType type);
+
+    @Query("select t.type as type, t.amount as amount, t.referenceId as referenceId, t.createdAt as createdAt "
+            + "from Transaction t where t.user.id = :userId and t.status = :status and t.type in :types "
+            + "order by t.createdAt")
+    List<CashFlowView> findCashFlows(@Param("userId") Long userId,
+                                     @Param("status") Transaction.TransactionStatus status,
+                                     @Param("types") Collection<Transaction.TransactionType> types);
 }
@@ -0,0 +1,8 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.BacktestRequest;
+import com.fsad.mutualfund.dto.BacktestResponse;
+
+public interface BacktestService {
+    BacktestResponse backtest(BacktestRequest request);
+}
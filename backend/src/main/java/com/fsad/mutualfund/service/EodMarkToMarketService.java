@@ -0,0 +1,9 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.EodRunReport;
+
+import java.time.LocalDate;
+
+public interface EodMarkToMarketService {
+    EodRunReport run(LocalDate runDate);
+}
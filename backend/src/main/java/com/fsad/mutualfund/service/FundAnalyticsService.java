@@ -0,0 +1,27 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.RiskMetricsResponse;
+import com.fsad.mutualfund.dto.RollingReturnResponse;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+public interface FundAnalyticsService {
+    FundAnalytics getSnapshot(Long fundId);
+
+    /**
+     * Stored snapshots of the given funds by fund id. Funds without one are left out instead of
+     * being replayed in the caller's request; one background backfill creates them.
+     */
+    Map<Long, FundAnalytics> getStoredSnapshots(Collection<MutualFund> funds);
+    FundAnalytics recordNav(Long fundId, LocalDate navDate, BigDecimal navValue);
+    FundAnalytics rebuild(Long fundId);
+    int rebuildAll();
+    void deleteSnapshot(Long fundId);
+    RollingReturnResponse getRollingReturns(Long fundId, String window, LocalDate from, LocalDate to);
+    RiskMetricsResponse getRiskMetrics(Long fundId, String frequency, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,8 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.FundScreenerRequest;
+import com.fsad.mutualfund.dto.FundScreenerResponse;
+
+public interface FundScreenerService {
+    FundScreenerResponse screen(FundScreenerRequest request);
+}
@@ -2,14 +2,19 @@ package com.fsad.mutualfund.service;
 
 import com.fsad.mutualfund.dto.FundDetailResponse;
 import com.fsad.mutualfund.dto.FundResponse;
+import com.fsad.mutualfund.dto.NavPageResponse;
 import com.fsad.mutualfund.entity.MutualFund;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface FundService {
     List<FundResponse> getAllFunds(String category, Integer maxRisk);
-    FundDetailResponse getFundDetail(Long fundId);
+    FundDetailResponse getFundDetail(Long fundId, String range, Integer points, boolean includeHistory);
     FundResponse createFund(MutualFund fund);
     FundResponse updateFund(Long fundId, MutualFund fund);
     void deleteFund(Long fundId);
+    NavPageResponse getNavHistoryPage(Long fundId, LocalDate from, LocalDate to, LocalDate after, Integer limit);
+    FundResponse recordNav(Long fundId, LocalDate navDate, BigDecimal navValue);
 }
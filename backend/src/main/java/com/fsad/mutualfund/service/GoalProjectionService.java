@@ -0,0 +1,8 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.GoalProjectionRequest;
+import com.fsad.mutualfund.dto.GoalProjectionResponse;
+
+public interface GoalProjectionService {
+    GoalProjectionResponse project(Long userId, GoalProjectionRequest request);
+}
@@ -8,5 +8,8 @@ import java.math.BigDecimal;
 public interface InvestorService {
     InvestorProfile getProfile(Long userId);
     InvestorProfile processRiskQuestionnaire(Long userId, RiskQuestionnaireRequest request);
-    InvestorProfile depositToWallet(Long userId, BigDecimal amount);
+    /**
+     * @return the wallet balance right after the deposit
+     */
+    BigDecimal depositToWallet(Long userId, BigDecimal amount, String idempotencyKey);
 }
@@ -0,0 +1,13 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.LedgerBalances;
+import com.fsad.mutualfund.dto.LedgerReconcileReport;
+import com.fsad.mutualfund.dto.LedgerSnapshotReport;
+
+public interface LedgerService {
+    LedgerBalances getBalances(Long userId);
+
+    LedgerSnapshotReport snapshot();
+
+    LedgerReconcileReport reconcile(boolean repair);
+}
@@ -0,0 +1,9 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.NavIngestionReport;
+
+import java.io.InputStream;
+
+public interface NavIngestionService {
+    NavIngestionReport ingest(InputStream navFile);
+}
@@ -0,0 +1,14 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.entity.MutualFund;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Supplies the end-of-day NAV for a fund. Implementations must be thread-safe; the
+ * end-of-day job calls them from several workers at once.
+ */
+public interface NavQuoteSource {
+    BigDecimal quote(MutualFund fund, LocalDate navDate, BigDecimal previousNav);
+}
@@ -0,0 +1,89 @@
+package com.fsad.mutualfund.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The single path for wallet and holding mutations. Orders for one investor are applied one
+ * at a time, in submission order; orders for different investors never wait on each other.
+ */
+public interface OrderExecutor {
+
+    enum Kind {
+        // Instant orders, priced at the fund's current NAV
+        BUY, SELL,
+        // Cut-off orders: placed as PENDING transactions (a buy reserves its cash), then allotted,
+        // redeemed or cancelled at the cut-off NAV by settlement
+        BUY_ORDER, SELL_ORDER, ALLOT, REDEEM, CANCEL_BUY,
+        // Wallet only; REFUND gives back a DEBIT
+        DEPOSIT, DEBIT, REFUND,
+        // No money moves: drops the executor's cached book after the database was corrected directly
+        RELOAD
+    }
+
+    /**
+     * @param fundId         fund orders only
+     * @param nav            price the units were computed at; for SELL_ORDER an estimate
+     * @param units          units bought or sold; for SELL_ORDER an estimate
+     * @param description    written to the transaction row
+     * @param transactionId  the PENDING transaction settled by ALLOT, REDEEM and CANCEL_BUY
+     * @param idempotencyKey client key recorded with the order; a repeat is answered with the first fill
+     */
+    record Order(Long userId, Kind kind, BigDecimal amount, Long fundId, BigDecimal nav, BigDecimal units,
+                 String description, Long transactionId, String idempotencyKey) {
+
+        public static Order fund(Long userId, Kind kind, BigDecimal amount, Long fundId, BigDecimal nav,
+                                 BigDecimal units, String description) {
+            return new Order(userId, kind, amount, fundId, nav, units, description, null, null);
+        }
+
+        public static Order settle(Long transactionId, Long userId, Kind kind, BigDecimal amount, Long fundId,
+                                   BigDecimal nav, BigDecimal units, String description) {
+            return new Order(userId, kind, amount, fundId, nav, units, description, transactionId, null);
+        }
+
+        public static Order deposit(Long userId, BigDecimal amount) {
+            return new Order(userId, Kind.DEPOSIT, amount, null, null, null, null, null, null);
+        }
+
+        public static Order debit(Long userId, BigDecimal amount) {
+            return new Order(userId, Kind.DEBIT, amount, null, null, null, null, null, null);
+        }
+
+        public static Order refund(Long userId, BigDecimal amount) {
+            return new Order(userId, Kind.REFUND, amount, null, null, null, null, null, null);
+        }
+
+        public static Order reload(Long userId) {
+            return new Order(userId, Kind.RELOAD, BigDecimal.ZERO, null, null, null, null, null, null);
+        }
+
+        public Order withIdempotencyKey(String key) {
+            return new Order(userId, kind, amount, fundId, nav, units, description, transactionId, key);
+        }
+    }
+
+    /**
+     * @param walletBalance the investor's balance right after this order; null for RELOAD
+     */
+    record Fill(Order order, BigDecimal walletBalance, LocalDateTime executedAt) {
+    }
+
+    /**
+     * Completes once the order is applied and written, or exceptionally with the reason it was
+     * rejected.
+     */
+    CompletableFuture<Fill> submit(Order order);
+
+    /**
+     * Submits and waits, rethrowing a rejection as the RuntimeException it was raised with.
+     */
+    Fill execute(Order order);
+
+    /**
+     * Waits for an order that was already submitted, the same way {@link #execute} does. Giving
+     * up on the wait does not withdraw the order.
+     */
+    Fill await(CompletableFuture<Fill> future);
+}
@@ -0,0 +1,9 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.SettlementReport;
+
+import java.time.LocalDate;
+
+public interface OrderSettlementService {
+    SettlementReport settle(LocalDate navDate);
+}
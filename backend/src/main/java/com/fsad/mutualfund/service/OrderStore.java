@@ -0,0 +1,30 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.cache.InvestorBook;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistence behind the order executor. Each executor stripe calls it from its own thread,
+ * so implementations must be thread-safe across investors.
+ */
+public interface OrderStore {
+
+    /**
+     * Current wallet and holdings of an investor; throws when the investor has no profile.
+     */
+    InvestorBook load(Long userId);
+
+    /**
+     * Writes a group of fills and the books they changed in one transaction. Throwing leaves
+     * the database as it was.
+     */
+    void persist(List<OrderExecutor.Fill> fills, Collection<InvestorBook> books);
+
+    /**
+     * The newest ledger entry id at or below which every entry is committed. Waits for groups
+     * being written to finish.
+     */
+    long committedLedgerEntryId();
+}
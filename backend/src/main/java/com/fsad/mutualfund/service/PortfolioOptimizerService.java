@@ -0,0 +1,12 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.EfficientFrontierResponse;
+import com.fsad.mutualfund.dto.TargetAllocationResponse;
+
+import java.math.BigDecimal;
+
+public interface PortfolioOptimizerService {
+    EfficientFrontierResponse getFrontier();
+    TargetAllocationResponse allocate(Long userId, BigDecimal amount);
+    EfficientFrontierResponse refresh();
+}
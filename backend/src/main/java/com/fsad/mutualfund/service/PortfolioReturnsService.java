@@ -0,0 +1,12 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.PortfolioReturnsResponse;
+import com.fsad.mutualfund.dto.ReturnsBatchReport;
+
+import java.time.LocalDate;
+
+public interface PortfolioReturnsService {
+    PortfolioReturnsResponse getReturns(Long userId);
+
+    ReturnsBatchReport runBatch(LocalDate asOf);
+}
@@ -0,0 +1,7 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.RecommendationResponse;
+
+public interface RecommendationService {
+    RecommendationResponse recommend(Long userId, Integer limit);
+}
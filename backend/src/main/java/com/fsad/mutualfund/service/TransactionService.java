@@ -1,14 +1,17 @@
 package com.fsad.mutualfund.service;
 
+import com.fsad.mutualfund.dto.TransactionHistoryPage;
 import com.fsad.mutualfund.dto.TransactionRequest;
 import com.fsad.mutualfund.entity.PortfolioHolding;
 import com.fsad.mutualfund.entity.Transaction;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionService {
-    Transaction buyFund(Long userId, TransactionRequest request);
-    Transaction sellFund(Long userId, TransactionRequest request);
-    List<Transaction> getTransactionHistory(Long userId);
+    Transaction buyFund(Long userId, TransactionRequest request, String idempotencyKey);
+    Transaction sellFund(Long userId, TransactionRequest request, String idempotencyKey);
+    TransactionHistoryPage getTransactionHistory(Long userId, String type, String status,
+                                                 LocalDate from, LocalDate to, String cursor, Integer limit);
     List<PortfolioHolding> getPortfolio(Long userId);
 }
@@ -2,19 +2,18 @@ package com.fsad.mutualfund.service.impl;
 
 import com.fsad.mutualfund.entity.AdvisorAppointment;
 import com.fsad.mutualfund.entity.AdvisorProfile;
-import com.fsad.mutualfund.entity.InvestorProfile;
 import com.fsad.mutualfund.entity.User;
 import com.fsad.mutualfund.repository.AdvisorAppointmentRepository;
 import com.fsad.mutualfund.repository.AdvisorProfileRepository;
-import com.fsad.mutualfund.repository.InvestorProfileRepository;
 import com.fsad.mutualfund.repository.UserRepository;
 import com.fsad.mutualfund.service.AdvisorService;
+import com.fsad.mutualfund.service.OrderExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AdvisorServiceImpl implements AdvisorService {
@@ -22,16 +21,16 @@ public class AdvisorServiceImpl implements AdvisorService {
     private final AdvisorProfileRepository advisorProfileRepository;
     private final AdvisorAppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
-    private final InvestorProfileRepository investorProfileRepository;
+    private final OrderExecutor orderExecutor;
 
     public AdvisorServiceImpl(AdvisorProfileRepository advisorProfileRepository,
             AdvisorAppointmentRepository appointmentRepository,
             UserRepository userRepository,
-            InvestorProfileRepository investorProfileRepository) {
+            OrderExecutor orderExecutor) {
         this.advisorProfileRepository = advisorProfileRepository;
         this.appointmentRepository = appointmentRepository;
         this.userRepository = userRepository;
-        this.investorProfileRepository = investorProfileRepository;
+        this.orderExecutor = orderExecutor;
     }
 
     @Override
@@ -46,7 +45,6 @@ public class AdvisorServiceImpl implements AdvisorService {
     }
 
     @Override
-    @Transactional
     public AdvisorAppointment bookAppointment(Long advisorId, Long investorUserId, LocalDateTime scheduledAt,
             String notes) {
         AdvisorProfile advisor = advisorProfileRepository.findById(advisorId)
@@ -55,16 +53,16 @@ public class AdvisorServiceImpl implements AdvisorService {
         User investor = userRepository.findById(investorUserId)
                 .orElseThrow(() -> new RuntimeException("Investor not found"));
 
-        InvestorProfile investorProfile = investorProfileRepository.findByUserId(investorUserId)
-                .orElseThrow(() -> new RuntimeException("Investor profile not found"));
-
-        // Deduct consultation fee from wallet
+        // Charge the fee first; the appointment exists only once it is paid
         BigDecimal fee = advisor.getConsultationFee();
-        if (investorProfile.getWalletBalance().compareTo(fee) < 0) {
-            throw new RuntimeException("Insufficient wallet balance. Required: ₹" + fee);
+        CompletableFuture<OrderExecutor.Fill> debit = orderExecutor.submit(OrderExecutor.Order.debit(investorUserId, fee));
+        try {
+            orderExecutor.await(debit);
+        } catch (RuntimeException e) {
+            // Timed out: if the fee goes through after all, there is no appointment to pay for
+            debit.thenAccept(fill -> refund(investorUserId, fee));
+            throw e;
         }
-        investorProfile.setWalletBalance(investorProfile.getWalletBalance().subtract(fee));
-        investorProfileRepository.save(investorProfile);
 
         AdvisorAppointment appointment = AdvisorAppointment.builder()
                 .investor(investor)
@@ -74,7 +72,21 @@ public class AdvisorServiceImpl implements AdvisorService {
                 .status(AdvisorAppointment.AppointmentStatus.PENDING)
                 .build();
 
-        return appointmentRepository.save(appointment);
+        try {
+            return appointmentRepository.save(appointment);
+        } catch (RuntimeException e) {
+            refund(investorUserId, fee);
+            throw e;
+        }
+    }
+
+    private void refund(Long investorUserId, BigDecimal fee) {
+        orderExecutor.submit(OrderExecutor.Order.refund(investorUserId, fee)).whenComplete((fill, failure) -> {
+            if (failure != null) {
+                System.out.println("❌ Consultation fee of " + fee + " could not be refunded to user "
+                        + investorUserId + ": " + failure.getMessage());
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,217 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.BacktestPoint;
+import com.fsad.mutualfund.dto.BacktestRequest;
+import com.fsad.mutualfund.dto.BacktestResponse;
+import com.fsad.mutualfund.dto.BacktestResult;
+import com.fsad.mutualfund.dto.BacktestStrategy;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.BacktestService;
+import com.fsad.mutualfund.utils.Downsampler;
+import com.fsad.mutualfund.utils.StrategyBacktester;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class BacktestServiceImpl implements BacktestService {
+
+    private static final int MAX_FUNDS = 100;
+    private static final int MAX_STRATEGIES = 10;
+    private static final int MAX_CHART_POINTS = 1000;
+
+    private final MutualFundRepository mutualFundRepository;
+    private final NavSeriesStore navSeriesStore;
+
+    public BacktestServiceImpl(MutualFundRepository mutualFundRepository, NavSeriesStore navSeriesStore) {
+        this.mutualFundRepository = mutualFundRepository;
+        this.navSeriesStore = navSeriesStore;
+    }
+
+    // One fund or one weighted basket, already on its own date grid
+    private record Subject(List<MutualFund> funds, double[] weights, StrategyBacktester.Grid grid) {
+    }
+
+    @Override
+    public BacktestResponse backtest(BacktestRequest request) {
+        long started = System.nanoTime();
+        List<Long> fundIds = request.getFundIds() == null
+                ? List.of() : new ArrayList<>(new LinkedHashSet<>(request.getFundIds()));
+        if (fundIds.isEmpty() || fundIds.size() > MAX_FUNDS) {
+            throw new RuntimeException("Select between 1 and " + MAX_FUNDS + " funds");
+        }
+        List<BacktestStrategy> strategies = request.getStrategies();
+        if (strategies == null || strategies.isEmpty() || strategies.size() > MAX_STRATEGIES) {
+            throw new RuntimeException("Select between 1 and " + MAX_STRATEGIES + " strategies");
+        }
+        if (request.getFrom() == null) {
+            throw new RuntimeException("Backtest start date is required");
+        }
+        LocalDate to = request.getTo() == null ? LocalDate.now() : request.getTo();
+        if (!request.getFrom().isBefore(to)) {
+            throw new RuntimeException("Backtest start date must be before the end date");
+        }
+        int chartPoints = request.getChartPoints() == null
+                ? 0 : Math.max(0, Math.min(MAX_CHART_POINTS, request.getChartPoints()));
+        List<StrategyBacktester.Strategy> parsed = strategies.stream().map(BacktestServiceImpl::parse).toList();
+
+        Map<Long, MutualFund> fundsById = mutualFundRepository.findAllById(fundIds).stream()
+                .collect(Collectors.toMap(MutualFund::getId, Function.identity()));
+        List<MutualFund> funds = new ArrayList<>(fundIds.size());
+        for (Long id : fundIds) {
+            MutualFund fund = fundsById.get(id);
+            if (fund == null) {
+                throw new RuntimeException("Fund not found: " + id);
+            }
+            funds.add(fund);
+        }
+
+        // Only the requested window is copied out of the store, once per fund
+        int fromDay = (int) request.getFrom().toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        int[][] epochDays = new int[funds.size()][];
+        double[][] navs = new double[funds.size()][];
+        for (int f = 0; f < funds.size(); f++) {
+            NavSeries series = navSeriesStore.get(funds.get(f).getId());
+            int[] range = series.indexRange(request.getFrom(), to);
+            // The NAV in force on the start date may predate it
+            int start = range[0] > 0 && (range[0] == series.size() || series.epochDayAt(range[0]) > fromDay)
+                    ? range[0] - 1 : range[0];
+            if (start == range[1]) {
+                throw new RuntimeException("No NAV history for " + funds.get(f).getFundName() + " in the selected period");
+            }
+            epochDays[f] = series.copyEpochDays(start, range[1]);
+            navs[f] = series.copyNavs(start, range[1]);
+        }
+
+        List<Subject> subjects = request.getWeights() == null
+                ? IntStream.range(0, funds.size()).parallel()
+                        .mapToObj(f -> new Subject(List.of(funds.get(f)), new double[] { 1.0 },
+                                StrategyBacktester.Grid.of(new int[][] { epochDays[f] }, new double[][] { navs[f] },
+                                        fromDay, toDay)))
+                        .toList()
+                : List.of(new Subject(funds, normalise(request.getWeights(), funds.size()),
+                        StrategyBacktester.Grid.of(epochDays, navs, fromDay, toDay)));
+        for (Subject subject : subjects) {
+            if (subject.grid().size() == 0) {
+                throw new RuntimeException("No overlapping NAV history for " + describe(subject.funds()));
+            }
+        }
+
+        // Every (fund or basket, strategy) pair is independent
+        List<BacktestResult> results = IntStream.range(0, subjects.size() * parsed.size()).parallel()
+                .mapToObj(job -> {
+                    Subject subject = subjects.get(job / parsed.size());
+                    int s = job % parsed.size();
+                    StrategyBacktester.Result result = StrategyBacktester.run(
+                            subject.grid(), subject.weights(), parsed.get(s));
+                    return toResult(subject, strategies.get(s), result, chartPoints);
+                })
+                .toList();
+
+        return BacktestResponse.builder()
+                .from(request.getFrom())
+                .to(to)
+                .results(results)
+                .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private static StrategyBacktester.Strategy parse(BacktestStrategy strategy) {
+        StrategyBacktester.Type type = StrategyBacktester.Type.parse(strategy.getType() == null ? "sip" : strategy.getType());
+        if (strategy.getAmount() == null || strategy.getAmount().signum() <= 0) {
+            throw new RuntimeException("Strategy amount must be positive");
+        }
+        int dayOfMonth = strategy.getDayOfMonth() == null ? 1 : strategy.getDayOfMonth();
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new RuntimeException("SIP day of month must be between 1 and 31");
+        }
+        double stepUp = strategy.getAnnualStepUp() == null ? 0.0 : strategy.getAnnualStepUp().doubleValue();
+        if (stepUp < 0 || stepUp > 1) {
+            throw new RuntimeException("Annual step-up must be between 0 and 1");
+        }
+        return new StrategyBacktester.Strategy(type, strategy.getAmount().doubleValue(), dayOfMonth, stepUp);
+    }
+
+    private static double[] normalise(List<BigDecimal> weights, int funds) {
+        if (weights.size() != funds) {
+            throw new RuntimeException("Provide one weight per fund");
+        }
+        double[] result = new double[funds];
+        double total = 0.0;
+        for (int f = 0; f < funds; f++) {
+            BigDecimal weight = weights.get(f);
+            if (weight == null || weight.signum() < 0) {
+                throw new RuntimeException("Basket weights cannot be negative");
+            }
+            result[f] = weight.doubleValue();
+            total += result[f];
+        }
+        if (total <= 0) {
+            throw new RuntimeException("Basket weights must not all be zero");
+        }
+        for (int f = 0; f < funds; f++) {
+            result[f] /= total;
+        }
+        return result;
+    }
+
+    private static BacktestResult toResult(Subject subject, BacktestStrategy strategy,
+                                           StrategyBacktester.Result result, int chartPoints) {
+        int[] epochDays = subject.grid().epochDays();
+        List<BacktestPoint> chart = null;
+        if (chartPoints > 0) {
+            int[] kept = Downsampler.lttb(epochDays, result.values(), 0, epochDays.length, chartPoints);
+            chart = new ArrayList<>(kept.length);
+            for (int i : kept) {
+                chart.add(BacktestPoint.builder()
+                        .date(LocalDate.ofEpochDay(epochDays[i]))
+                        .invested(money(result.investedToDate()[i]))
+                        .value(money(result.values()[i]))
+                        .build());
+            }
+        }
+
+        return BacktestResult.builder()
+                .strategy(strategy.getLabel() != null ? strategy.getLabel() : strategy.getType())
+                .fundIds(subject.funds().stream().map(MutualFund::getId).toList())
+                .funds(describe(subject.funds()))
+                .startDate(LocalDate.ofEpochDay(epochDays[0]))
+                .endDate(LocalDate.ofEpochDay(epochDays[epochDays.length - 1]))
+                .installments(result.installments())
+                .invested(money(result.invested()))
+                .finalValue(money(result.finalValue()))
+                .gain(money(result.gain()))
+                .absoluteReturn(ratio(result.absoluteReturn()))
+                .xirr(Double.isFinite(result.xirr()) ? ratio(result.xirr()) : null)
+                .maxDrawdown(ratio(result.maxDrawdown()))
+                .drawdownPeak(LocalDate.ofEpochDay(result.drawdownPeakDay()))
+                .drawdownTrough(LocalDate.ofEpochDay(result.drawdownTroughDay()))
+                .chart(chart)
+                .build();
+    }
+
+    private static String describe(List<MutualFund> funds) {
+        return funds.stream().map(MutualFund::getFundName).collect(Collectors.joining(" + "));
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal ratio(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,263 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.EodRunReport;
+import com.fsad.mutualfund.entity.EodCheckpoint;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.EodCheckpointRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.EodMarkToMarketService;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.service.NavQuoteSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-of-day mark-to-market: prices every fund for the run date, appends the NAV, moves
+ * current_nav, folds the point into the analytics snapshot and revalues holdings.
+ *
+ * Funds are partitioned by id mod N across a worker pool. Each partition commits in chunks and
+ * writes a checkpoint when done; funds already priced for the date are skipped, so a failed
+ * run can simply be started again.
+ */
+@Service
+public class EodMarkToMarketServiceImpl implements EodMarkToMarketService {
+
+    private static final String INSERT_NAV =
+            "INSERT INTO nav_history (fund_id, nav_date, nav_value) VALUES (?, ?, ?)";
+    private static final String UPDATE_CURRENT_NAV = "UPDATE mutual_funds SET current_nav = ? WHERE id = ?";
+    private static final String REVALUE_HOLDINGS = "UPDATE portfolio_holdings "
+            + "SET market_value = ROUND(units_owned * ?, 4), valued_at = ? WHERE fund_id = ?";
+
+    private final MutualFundRepository fundRepository;
+    private final EodCheckpointRepository checkpointRepository;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final NavSeriesStore navSeriesStore;
+    private final NavQuoteSource quoteSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int partitions;
+    private final int threads;
+    private final int chunkSize;
+    private final ZoneId zone;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public EodMarkToMarketServiceImpl(MutualFundRepository fundRepository,
+                                      EodCheckpointRepository checkpointRepository,
+                                      FundAnalyticsService fundAnalyticsService,
+                                      NavSeriesStore navSeriesStore,
+                                      Optional<NavQuoteSource> quoteSource,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${app.eod.partitions:16}") int partitions,
+                                      @Value("${app.eod.threads:0}") int threads,
+                                      @Value("${app.eod.chunk-size:200}") int chunkSize,
+                                      @Value("${app.eod.zone:Asia/Kolkata}") String zone,
+                                      @Value("${app.eod.cron:-}") String cron) {
+        // A scheduled run without a real feed would have nothing to price with; fail at startup
+        if (quoteSource.isEmpty() && !Scheduled.CRON_DISABLED.equals(cron)) {
+            throw new IllegalStateException("app.eod.cron is set but no NavQuoteSource is configured");
+        }
+        this.fundRepository = fundRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.navSeriesStore = navSeriesStore;
+        this.quoteSource = quoteSource.orElse(null);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.partitions = partitions;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.zone = ZoneId.of(zone);
+    }
+
+    // Off unless app.eod.cron is set; settlement and the optimiser consume the NAVs it writes
+    @Scheduled(cron = "${app.eod.cron:-}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void scheduledRun() {
+        EodRunReport report = run(LocalDate.now(zone));
+        System.out.println("📈 EOD mark-to-market " + report.getRunDate() + ": " + report.getFundsPriced()
+                + " funds priced, " + report.getHoldingsRevalued() + " holdings revalued in "
+                + report.getElapsedMs() + " ms (" + report.getFundsPerSecond() + " funds/s)");
+    }
+
+    @Override
+    public EodRunReport run(LocalDate runDate) {
+        if (quoteSource == null) {
+            throw new RuntimeException("No NAV quote source is configured; load NAVs through /api/admin/nav/ingest");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("An end-of-day run is already in progress");
+        }
+        try {
+            return execute(runDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private EodRunReport execute(LocalDate runDate) {
+        long started = System.nanoTime();
+
+        // A resumed run keeps the partitioning it started with so checkpoints stay meaningful
+        List<EodCheckpoint> checkpoints = checkpointRepository.findByRunDate(runDate);
+        int partitionCount = checkpoints.isEmpty() ? partitions : checkpoints.get(0).getPartitionCount();
+        Set<Integer> completed = new HashSet<>();
+        for (EodCheckpoint checkpoint : checkpoints) {
+            completed.add(checkpoint.getPartitionNo());
+        }
+
+        List<List<MutualFund>> byPartition = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (MutualFund fund : fundRepository.findAll()) {
+            byPartition.get((int) Math.floorMod(fund.getId(), (long) partitionCount)).add(fund);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<EodCheckpoint>> futures = new ArrayList<>();
+        List<Integer> submitted = new ArrayList<>();
+        try {
+            for (int p = 0; p < partitionCount; p++) {
+                if (completed.contains(p)) {
+                    continue;
+                }
+                int partition = p;
+                submitted.add(partition);
+                futures.add(pool.submit(() ->
+                        runPartition(runDate, partition, partitionCount, byPartition.get(partition))));
+            }
+
+            int fundsPriced = 0;
+            int fundsSkipped = 0;
+            long holdingsRevalued = 0;
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    EodCheckpoint checkpoint = futures.get(i).get();
+                    fundsPriced += checkpoint.getFundsPriced();
+                    fundsSkipped += byPartition.get(submitted.get(i)).size() - checkpoint.getFundsPriced();
+                    holdingsRevalued += checkpoint.getHoldingsRevalued();
+                } catch (ExecutionException e) {
+                    failed.add(submitted.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+
+            long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            return EodRunReport.builder()
+                    .runDate(runDate)
+                    .partitions(partitionCount)
+                    .partitionsRun(submitted.size())
+                    .partitionsResumed(completed.size())
+                    .failedPartitions(failed)
+                    .fundsPriced(fundsPriced)
+                    .fundsSkipped(fundsSkipped)
+                    .holdingsRevalued(holdingsRevalued)
+                    .elapsedMs(elapsedMs)
+                    .fundsPerSecond(fundsPriced * 1000L / elapsedMs)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("End-of-day run interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private EodCheckpoint runPartition(LocalDate runDate, int partition, int partitionCount, List<MutualFund> funds) {
+        int fundsPriced = 0;
+        long holdingsRevalued = 0;
+        for (int start = 0; start < funds.size(); start += chunkSize) {
+            List<MutualFund> chunk = funds.subList(start, Math.min(funds.size(), start + chunkSize));
+            long[] result = transactionTemplate.execute(status -> priceChunk(runDate, chunk));
+            fundsPriced += (int) result[0];
+            holdingsRevalued += result[1];
+        }
+
+        EodCheckpoint checkpoint = EodCheckpoint.builder()
+                .runDate(runDate)
+                .partitionNo(partition)
+                .partitionCount(partitionCount)
+                .fundsPriced(fundsPriced)
+                .holdingsRevalued(holdingsRevalued)
+                .build();
+        return checkpointRepository.save(checkpoint);
+    }
+
+    // Returns { funds priced, holdings revalued } for one chunk, all within one transaction
+    private long[] priceChunk(LocalDate runDate, List<MutualFund> chunk) {
+        List<MutualFund> priced = new ArrayList<>(chunk.size());
+        List<BigDecimal> navs = new ArrayList<>(chunk.size());
+        for (MutualFund fund : chunk) {
+            NavSeries series = navSeriesStore.get(fund.getId());
+            if (series.contains(runDate)) {
+                continue; // priced by an earlier attempt
+            }
+            int previous = series.floorIndex(runDate);
+            BigDecimal previousNav = previous >= 0 ? series.navAt(previous) : fund.getCurrentNav();
+            if (previousNav == null || previousNav.signum() <= 0) {
+                continue;
+            }
+            priced.add(fund);
+            navs.add(quoteSource.quote(fund, runDate, previousNav));
+        }
+        if (priced.isEmpty()) {
+            return new long[] { 0, 0 };
+        }
+
+        Date navDate = Date.valueOf(runDate);
+        List<Object[]> navRows = new ArrayList<>(priced.size());
+        for (int i = 0; i < priced.size(); i++) {
+            navRows.add(new Object[] { priced.get(i).getId(), navDate, navs.get(i) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_NAV, navRows);
+
+        List<Object[]> currentNavs = new ArrayList<>(priced.size());
+        List<Object[]> revaluations = new ArrayList<>(priced.size());
+        for (int i = 0; i < priced.size(); i++) {
+            MutualFund fund = priced.get(i);
+            BigDecimal nav = navs.get(i);
+            navSeriesStore.append(fund.getId(), runDate, nav);
+            fundAnalyticsService.recordNav(fund.getId(), runDate, nav);
+
+            // A back-dated run adds history but leaves the latest NAV and valuations alone
+            if (runDate.equals(navSeriesStore.get(fund.getId()).lastDate())) {
+                currentNavs.add(new Object[] { nav, fund.getId() });
+                revaluations.add(new Object[] { nav, navDate, fund.getId() });
+            }
+            eventPublisher.publishEvent(FundChangedEvent.navRecorded(fund));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_CURRENT_NAV, currentNavs);
+
+        long revalued = 0;
+        for (int count : jdbcTemplate.batchUpdate(REVALUE_HOLDINGS, revaluations)) {
+            revalued += Math.max(0, count); // drivers may report SUCCESS_NO_INFO for rewritten batches
+        }
+        return new long[] { priced.size(), revalued };
+    }
+}
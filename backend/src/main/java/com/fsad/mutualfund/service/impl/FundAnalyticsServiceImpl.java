@@ -0,0 +1,385 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.RiskMetricsResponse;
+import com.fsad.mutualfund.dto.RollingReturnResponse;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.FundAnalyticsRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.utils.FinancialCalculator;
+import com.fsad.mutualfund.utils.Frequency;
+import com.fsad.mutualfund.utils.NavResampler;
+import com.fsad.mutualfund.utils.ReturnWindow;
+import com.fsad.mutualfund.utils.RollingReturns;
+import com.fsad.mutualfund.utils.RunningStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class FundAnalyticsServiceImpl implements FundAnalyticsService {
+
+    private static final double RISK_FREE_RATE = 0.06; // 6% annual
+    private static final int MONTHS_PER_YEAR = Frequency.MONTHLY.getPeriodsPerYear();
+    private static final int SCALE = 6;
+
+    private final FundAnalyticsRepository analyticsRepository;
+    private final NavSeriesStore navSeriesStore;
+    private final MutualFundRepository fundRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // The proxied bean, so backfilled rebuilds run in their own transactions
+    private final FundAnalyticsService self;
+    private final TaskExecutor taskExecutor;
+
+    // Full-history rolling returns per fund and window, valid until the fund's next NAV
+    private final ConcurrentMap<Long, ConcurrentMap<ReturnWindow, RollingReturnResponse>> rollingReturnCache =
+            new ConcurrentHashMap<>();
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    public FundAnalyticsServiceImpl(FundAnalyticsRepository analyticsRepository,
+                                    NavSeriesStore navSeriesStore,
+                                    MutualFundRepository fundRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Lazy FundAnalyticsService self,
+                                    @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.analyticsRepository = analyticsRepository;
+        this.navSeriesStore = navSeriesStore;
+        this.fundRepository = fundRepository;
+        this.eventPublisher = eventPublisher;
+        this.self = self;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public FundAnalytics getSnapshot(Long fundId) {
+        return analyticsRepository.findById(fundId)
+                .orElseGet(() -> replay(fundId));
+    }
+
+    @Override
+    public Map<Long, FundAnalytics> getStoredSnapshots(Collection<MutualFund> funds) {
+        List<Long> fundIds = funds.stream().map(MutualFund::getId).collect(Collectors.toList());
+        Map<Long, FundAnalytics> snapshots = new HashMap<>();
+        for (FundAnalytics snapshot : analyticsRepository.findAllById(fundIds)) {
+            snapshots.put(snapshot.getFundId(), snapshot);
+        }
+        List<Long> missing = fundIds.stream().filter(id -> !snapshots.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty() && backfilling.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> backfill(missing));
+            } catch (RuntimeException e) {
+                backfilling.set(false);
+                throw e;
+            }
+        }
+        return snapshots;
+    }
+
+    // Each rebuild publishes ANALYTICS_REBUILT, so indexes pick the fund up on their next build
+    private void backfill(List<Long> fundIds) {
+        try {
+            int rebuilt = 0;
+            for (Long fundId : fundIds) {
+                // A NAV recorded meanwhile may have created the snapshot already
+                if (analyticsRepository.existsById(fundId)) {
+                    continue;
+                }
+                try {
+                    self.rebuild(fundId);
+                    rebuilt++;
+                } catch (DataAccessException e) {
+                    // Lost the race with a concurrent recordNav, whose snapshot stands
+                }
+            }
+            System.out.println("📈 Analytics backfilled for " + rebuilt + " funds");
+        } catch (RuntimeException e) {
+            System.out.println("❌ Analytics backfill stopped: " + e.getMessage());
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    @Override
+    @Transactional
+    public FundAnalytics recordNav(Long fundId, LocalDate navDate, BigDecimal navValue) {
+        FundAnalytics snapshot = analyticsRepository.findById(fundId).orElse(null);
+
+        // Out-of-order or corrected points cannot be folded in; replay the series instead
+        if (snapshot == null || snapshot.getLastNavDate() == null
+                || !navDate.isAfter(snapshot.getLastNavDate())) {
+            return replay(fundId);
+        }
+
+        append(snapshot, navDate, navValue);
+        refreshDerived(snapshot);
+        rollingReturnCache.remove(fundId);
+        return analyticsRepository.save(snapshot);
+    }
+
+    @Override
+    @Transactional
+    public FundAnalytics rebuild(Long fundId) {
+        FundAnalytics snapshot = replay(fundId);
+        eventPublisher.publishEvent(FundChangedEvent.analyticsRebuilt(fundId));
+        return snapshot;
+    }
+
+    // Lazy creation and out-of-order NAVs replay silently; the caller's own change event covers them
+    private FundAnalytics replay(Long fundId) {
+        FundAnalytics snapshot = analyticsRepository.findById(fundId)
+                .orElse(FundAnalytics.builder().fundId(fundId).build());
+        reset(snapshot);
+
+        // Bulk equivalent of replaying append(): calendar-month closes with carry-forward
+        NavSeries series = navSeriesStore.get(fundId);
+        int n = series.size();
+        if (n > 0) {
+            NavResampler.Resampled monthly = NavResampler.resample(
+                    series.copyEpochDays(0, n), series.copyNavs(0, n), 0, n, Frequency.MONTHLY);
+            RunningStats stats = monthly.returnStats(0.0);
+
+            snapshot.setNavCount(n);
+            snapshot.setFirstNavDate(series.dateAt(0));
+            snapshot.setFirstNav(series.navAt(0));
+            snapshot.setLastNavDate(series.dateAt(n - 1));
+            snapshot.setLastNav(series.navAt(n - 1));
+            snapshot.setPeriodOpenNav(series.navAt(monthly.sourceIndex()[monthly.size() - 1]));
+            snapshot.setReturnCount(stats.count());
+            snapshot.setReturnMean(stats.mean());
+            snapshot.setReturnM2(stats.m2());
+        }
+        refreshDerived(snapshot);
+        rollingReturnCache.remove(fundId);
+        return analyticsRepository.save(snapshot);
+    }
+
+    @Override
+    public int rebuildAll() {
+        List<MutualFund> funds = fundRepository.findAll();
+        for (MutualFund fund : funds) {
+            rebuild(fund.getId());
+        }
+        return funds.size();
+    }
+
+    @Override
+    @Transactional
+    public void deleteSnapshot(Long fundId) {
+        if (analyticsRepository.existsById(fundId)) {
+            analyticsRepository.deleteById(fundId);
+        }
+        rollingReturnCache.remove(fundId);
+    }
+
+    @Override
+    public RollingReturnResponse getRollingReturns(Long fundId, String window, LocalDate from, LocalDate to) {
+        ReturnWindow returnWindow = ReturnWindow.parse(window);
+        if (!fundRepository.existsById(fundId)) {
+            throw new RuntimeException("Fund not found: " + fundId);
+        }
+
+        NavSeries series = navSeriesStore.get(fundId);
+        boolean fullHistory = from == null && to == null;
+        if (fullHistory) {
+            Map<ReturnWindow, RollingReturnResponse> cachedForFund = rollingReturnCache.get(fundId);
+            RollingReturnResponse cached = cachedForFund != null ? cachedForFund.get(returnWindow) : null;
+            if (cached != null && cached.getAsOf() != null && cached.getAsOf().equals(series.lastDate())) {
+                return cached;
+            }
+        }
+
+        // Window starts may precede 'from', so the sweep sees the whole series and only ends are bounded
+        int[] range = series.indexRange(from, to);
+        double[] returns = RollingReturns.compute(
+                series.copyEpochDays(0, series.size()), series.copyNavs(0, series.size()),
+                range[0], range[1], returnWindow);
+        RollingReturnResponse response = summarise(fundId, returnWindow, series, range[1], returns);
+
+        if (fullHistory) {
+            rollingReturnCache.computeIfAbsent(fundId, id -> new ConcurrentHashMap<>()).put(returnWindow, response);
+        }
+        return response;
+    }
+
+    @Override
+    public RiskMetricsResponse getRiskMetrics(Long fundId, String frequency, LocalDate from, LocalDate to) {
+        Frequency freq = Frequency.parse(frequency);
+        if (!fundRepository.existsById(fundId)) {
+            throw new RuntimeException("Fund not found: " + fundId);
+        }
+
+        NavSeries series = navSeriesStore.get(fundId);
+        int[] range = series.indexRange(from, to);
+        int n = series.size();
+        NavResampler.Resampled resampled = NavResampler.resample(
+                series.copyEpochDays(0, n), series.copyNavs(0, n), range[0], range[1], freq);
+
+        int periodsPerYear = freq.getPeriodsPerYear();
+        RunningStats stats = resampled.returnStats(RISK_FREE_RATE / periodsPerYear);
+
+        RiskMetricsResponse.RiskMetricsResponseBuilder builder = RiskMetricsResponse.builder()
+                .fundId(fundId)
+                .frequency(freq.name())
+                .periodsPerYear(periodsPerYear)
+                .from(range[1] > range[0] ? series.dateAt(range[0]) : null)
+                .to(range[1] > range[0] ? series.dateAt(range[1] - 1) : null)
+                .periods((int) stats.count());
+        if (stats.count() == 0) {
+            return builder.build();
+        }
+
+        return builder
+                .meanReturn(round(stats.mean()))
+                .volatility(FinancialCalculator.standardDeviation(stats))
+                .sharpeRatio(FinancialCalculator.sharpeRatio(stats, RISK_FREE_RATE, periodsPerYear))
+                .sortinoRatio(FinancialCalculator.sortinoRatio(stats, RISK_FREE_RATE, periodsPerYear))
+                .bestPeriod(round(stats.max()))
+                .worstPeriod(round(stats.min()))
+                .annualisedReturn(FinancialCalculator.annualisedReturn(stats.mean(), periodsPerYear))
+                .annualisedVolatility(FinancialCalculator.annualisedVolatility(stats, periodsPerYear))
+                .annualisedSharpeRatio(FinancialCalculator.annualisedSharpeRatio(stats, RISK_FREE_RATE, periodsPerYear))
+                .build();
+    }
+
+    private RollingReturnResponse summarise(Long fundId, ReturnWindow window, NavSeries series,
+                                            int end, double[] returns) {
+        RollingReturnResponse.RollingReturnResponseBuilder builder = RollingReturnResponse.builder()
+                .fundId(fundId)
+                .window(window.getLabel())
+                .annualised(window.isAnnualised())
+                .asOf(end > 0 ? series.dateAt(end - 1) : null)
+                .observations(returns.length);
+        if (returns.length == 0) {
+            return builder.build();
+        }
+
+        RunningStats stats = RunningStats.of(returns);
+        int positive = 0;
+        for (double r : returns) {
+            if (r > 0) {
+                positive++;
+            }
+        }
+        double[] sorted = returns.clone();
+        Arrays.sort(sorted);
+
+        return builder
+                .min(round(stats.min()))
+                .max(round(stats.max()))
+                .mean(round(stats.mean()))
+                .median(round(RollingReturns.percentile(sorted, 50)))
+                .percentile5(round(RollingReturns.percentile(sorted, 5)))
+                .percentile25(round(RollingReturns.percentile(sorted, 25)))
+                .percentile75(round(RollingReturns.percentile(sorted, 75)))
+                .percentile95(round(RollingReturns.percentile(sorted, 95)))
+                .positivePercent(round(100.0 * positive / returns.length))
+                .build();
+    }
+
+    private BigDecimal round(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private void reset(FundAnalytics s) {
+        s.setNavCount(0);
+        s.setFirstNavDate(null);
+        s.setFirstNav(null);
+        s.setLastNavDate(null);
+        s.setLastNav(null);
+        s.setPeriodOpenNav(null);
+        s.setReturnCount(0);
+        s.setReturnMean(0.0);
+        s.setReturnM2(0.0);
+    }
+
+    /**
+     * Folds one NAV point into the snapshot in O(1). A monthly return is closed whenever the
+     * point opens a new calendar month; months with no NAV at all carry the previous close forward.
+     */
+    private void append(FundAnalytics s, LocalDate navDate, BigDecimal navValue) {
+        if (s.getNavCount() == 0) {
+            s.setFirstNavDate(navDate);
+            s.setFirstNav(navValue);
+            s.setPeriodOpenNav(navValue);
+        } else {
+            YearMonth lastMonth = YearMonth.from(s.getLastNavDate());
+            YearMonth month = YearMonth.from(navDate);
+            if (month.isAfter(lastMonth)) {
+                addReturns(s, 1, periodReturn(s.getPeriodOpenNav(), s.getLastNav()));
+                long emptyMonths = ChronoUnit.MONTHS.between(lastMonth, month) - 1;
+                if (emptyMonths > 0) {
+                    addReturns(s, emptyMonths, 0.0);
+                }
+                s.setPeriodOpenNav(s.getLastNav());
+            }
+        }
+        s.setLastNavDate(navDate);
+        s.setLastNav(navValue);
+        s.setNavCount(s.getNavCount() + 1);
+    }
+
+    private void addReturns(FundAnalytics s, long k, double value) {
+        RunningStats stats = returnStats(s);
+        stats.addRepeated(value, k);
+        s.setReturnCount(stats.count());
+        s.setReturnMean(stats.mean());
+        s.setReturnM2(stats.m2());
+    }
+
+    private RunningStats returnStats(FundAnalytics s) {
+        return RunningStats.ofMoments(s.getReturnCount(), s.getReturnMean(), s.getReturnM2());
+    }
+
+    private double periodReturn(BigDecimal open, BigDecimal close) {
+        if (open.signum() <= 0) {
+            return 0.0;
+        }
+        return close.doubleValue() / open.doubleValue() - 1.0;
+    }
+
+    private void refreshDerived(FundAnalytics s) {
+        BigDecimal cagr = BigDecimal.ZERO;
+        BigDecimal sharpeRatio = BigDecimal.ZERO;
+        BigDecimal stdDev = BigDecimal.ZERO;
+        BigDecimal oneYearReturn = BigDecimal.ZERO;
+
+        if (s.getNavCount() >= 2) {
+            long days = ChronoUnit.DAYS.between(s.getFirstNavDate(), s.getLastNavDate());
+            cagr = FinancialCalculator.calculateCAGR(s.getFirstNav(), s.getLastNav(), days / 365.25);
+            oneYearReturn = FinancialCalculator.calculateReturn(s.getFirstNav(), s.getLastNav());
+
+            RunningStats monthly = returnStats(s);
+            stdDev = FinancialCalculator.standardDeviation(monthly);
+            sharpeRatio = FinancialCalculator.sharpeRatio(monthly, RISK_FREE_RATE, MONTHS_PER_YEAR);
+        }
+
+        s.setCagr(cagr);
+        s.setSharpeRatio(sharpeRatio);
+        s.setStandardDeviation(stdDev);
+        s.setOneYearReturn(oneYearReturn);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.FundScreenerIndex;
+import com.fsad.mutualfund.dto.FundDetailResponse;
+import com.fsad.mutualfund.dto.FundScreenerRequest;
+import com.fsad.mutualfund.dto.FundScreenerResponse;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.service.FundScreenerService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.List;
+
+@Service
+public class FundScreenerServiceImpl implements FundScreenerService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final MutualFundRepository fundRepository;
+    private final FundAnalyticsService fundAnalyticsService;
+
+    private volatile FundScreenerIndex index;
+    private volatile boolean stale = true;
+
+    public FundScreenerServiceImpl(MutualFundRepository fundRepository,
+                                   FundAnalyticsService fundAnalyticsService) {
+        this.fundRepository = fundRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
+    }
+
+    @Override
+    public FundScreenerResponse screen(FundScreenerRequest request) {
+        int limit = request.getLimit() == null ? DEFAULT_LIMIT : request.getLimit();
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        FundScreenerIndex.SortField sort = FundScreenerIndex.SortField.parse(request.getSort());
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+
+        FundScreenerIndex current = currentIndex();
+        long started = System.nanoTime();
+        BitSet matches = current.match(request);
+        List<FundDetailResponse> funds = current.top(matches, sort, descending, limit);
+
+        return FundScreenerResponse.builder()
+                .universeSize(current.size())
+                .totalMatches(matches.cardinality())
+                .sort(sort.name())
+                .direction(descending ? "desc" : "asc")
+                .elapsedMicros((System.nanoTime() - started) / 1_000)
+                .funds(funds)
+                .build();
+    }
+
+    // Any fund, NAV or analytics change invalidates the index; the next query rebuilds it once
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFundChanged(FundChangedEvent event) {
+        stale = true;
+    }
+
+    private FundScreenerIndex currentIndex() {
+        FundScreenerIndex current = index;
+        if (current != null && !stale) {
+            return current;
+        }
+        synchronized (this) {
+            if (index == null || stale) {
+                // Cleared before reading so a change committed mid-build marks the new index stale
+                stale = false;
+                try {
+                    index = buildIndex();
+                } catch (RuntimeException e) {
+                    stale = true;
+                    throw e;
+                }
+            }
+            return index;
+        }
+    }
+
+    private FundScreenerIndex buildIndex() {
+        // Funds still waiting for their first snapshot are listed without analytics until it lands
+        List<MutualFund> funds = fundRepository.findAll();
+        return FundScreenerIndex.build(funds, fundAnalyticsService.getStoredSnapshots(funds));
+    }
+}
@@ -1,20 +1,29 @@
 package com.fsad.mutualfund.service.impl;
 
+import com.fsad.mutualfund.cache.FundCatalogueCache;
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
 import com.fsad.mutualfund.dto.FundDetailResponse;
 import com.fsad.mutualfund.dto.FundResponse;
+import com.fsad.mutualfund.dto.NavPageResponse;
+import com.fsad.mutualfund.entity.FundAnalytics;
 import com.fsad.mutualfund.entity.MutualFund;
 import com.fsad.mutualfund.entity.NavHistory;
+import com.fsad.mutualfund.event.FundChangedEvent;
 import com.fsad.mutualfund.repository.MutualFundRepository;
 import com.fsad.mutualfund.repository.NavHistoryRepository;
+import com.fsad.mutualfund.repository.NavPointView;
+import com.fsad.mutualfund.service.FundAnalyticsService;
 import com.fsad.mutualfund.service.FundService;
-import com.fsad.mutualfund.utils.FinancialCalculator;
+import com.fsad.mutualfund.utils.Downsampler;
+import com.fsad.mutualfund.utils.ReturnWindow;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,27 +31,46 @@ import java.util.stream.Collectors;
 @Service
 public class FundServiceImpl implements FundService {
 
-    private static final BigDecimal RISK_FREE_RATE = new BigDecimal("0.06"); // 6% annual
+    private static final int MIN_CHART_POINTS = 3;
+    private static final int DEFAULT_NAV_PAGE_SIZE = 250;
+    private static final int MAX_NAV_PAGE_SIZE = 1000;
+    private static final LocalDate EARLIEST_NAV_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_NAV_DATE = LocalDate.of(9999, 12, 31);
 
     private final MutualFundRepository fundRepository;
     private final NavHistoryRepository navHistoryRepository;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final NavSeriesStore navSeriesStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FundCatalogueCache catalogueCache;
 
     public FundServiceImpl(MutualFundRepository fundRepository,
-                           NavHistoryRepository navHistoryRepository) {
+                           NavHistoryRepository navHistoryRepository,
+                           FundAnalyticsService fundAnalyticsService,
+                           NavSeriesStore navSeriesStore,
+                           ApplicationEventPublisher eventPublisher,
+                           FundCatalogueCache catalogueCache) {
         this.fundRepository = fundRepository;
         this.navHistoryRepository = navHistoryRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.navSeriesStore = navSeriesStore;
+        this.eventPublisher = eventPublisher;
+        this.catalogueCache = catalogueCache;
     }
 
     @Override
     public List<FundResponse> getAllFunds(String category, Integer maxRisk) {
+        MutualFund.Category cat = category != null ? MutualFund.Category.valueOf(category.toUpperCase()) : null;
+        return catalogueCache.get(cat, maxRisk, () -> loadFunds(cat, maxRisk));
+    }
+
+    private List<FundResponse> loadFunds(MutualFund.Category category, Integer maxRisk) {
         List<MutualFund> funds;
 
         if (category != null && maxRisk != null) {
-            MutualFund.Category cat = MutualFund.Category.valueOf(category.toUpperCase());
-            funds = fundRepository.findByCategoryAndRiskRatingLessThanEqual(cat, maxRisk);
+            funds = fundRepository.findByCategoryAndRiskRatingLessThanEqual(category, maxRisk);
         } else if (category != null) {
-            MutualFund.Category cat = MutualFund.Category.valueOf(category.toUpperCase());
-            funds = fundRepository.findByCategory(cat);
+            funds = fundRepository.findByCategory(category);
         } else if (maxRisk != null) {
             funds = fundRepository.findByRiskRatingLessThanEqual(maxRisk);
         } else {
@@ -53,46 +81,16 @@ public class FundServiceImpl implements FundService {
     }
 
     @Override
-    public FundDetailResponse getFundDetail(Long fundId) {
+    public FundDetailResponse getFundDetail(Long fundId, String range, Integer points, boolean includeHistory) {
         MutualFund fund = fundRepository.findById(fundId)
                 .orElseThrow(() -> new RuntimeException("Fund not found: " + fundId));
 
-        List<NavHistory> history = navHistoryRepository
-                .findByMutualFundIdOrderByNavDateAsc(fundId);
-
-        // Build analytics
-        BigDecimal cagr = BigDecimal.ZERO;
-        BigDecimal sharpeRatio = BigDecimal.ZERO;
-        BigDecimal stdDev = BigDecimal.ZERO;
-        BigDecimal oneYearReturn = BigDecimal.ZERO;
-
-        if (history.size() >= 2) {
-            NavHistory first = history.get(0);
-            NavHistory last = history.get(history.size() - 1);
-            long days = ChronoUnit.DAYS.between(first.getNavDate(), last.getNavDate());
-            double years = days / 365.25;
-
-            cagr = FinancialCalculator.calculateCAGR(
-                    first.getNavValue(), last.getNavValue(), years);
-
-            // Monthly returns for Sharpe
-            List<BigDecimal> monthlyReturns = computeMonthlyReturns(history);
-            if (monthlyReturns.size() >= 2) {
-                sharpeRatio = FinancialCalculator.calculateSharpeRatio(monthlyReturns, RISK_FREE_RATE);
-                stdDev = FinancialCalculator.calculateStandardDeviation(monthlyReturns);
-            }
-
-            // 1-year return
-            oneYearReturn = FinancialCalculator.calculateReturn(
-                    first.getNavValue(), last.getNavValue());
-        }
+        // Analytics are served from the incrementally maintained snapshot
+        FundAnalytics analytics = fundAnalyticsService.getSnapshot(fundId);
 
-        List<FundDetailResponse.NavPoint> navPoints = history.stream()
-                .map(h -> FundDetailResponse.NavPoint.builder()
-                        .date(h.getNavDate())
-                        .value(h.getNavValue())
-                        .build())
-                .collect(Collectors.toList());
+        List<FundDetailResponse.NavPoint> navPoints = includeHistory
+                ? chartPoints(navSeriesStore.get(fundId), range, points)
+                : null;
 
         return FundDetailResponse.builder()
                 .id(fund.getId())
@@ -105,18 +103,58 @@ public class FundServiceImpl implements FundService {
                 .fundManager(fund.getFundManager())
                 .description(fund.getDescription())
                 .minInvestment(fund.getMinInvestment())
-                .cagr(cagr)
-                .sharpeRatio(sharpeRatio)
-                .standardDeviation(stdDev)
-                .oneYearReturn(oneYearReturn)
+                .cagr(analytics.getCagr())
+                .sharpeRatio(analytics.getSharpeRatio())
+                .standardDeviation(analytics.getStandardDeviation())
+                .oneYearReturn(analytics.getOneYearReturn())
                 .navHistory(navPoints)
                 .build();
     }
 
+    @Override
+    public NavPageResponse getNavHistoryPage(Long fundId, LocalDate from, LocalDate to,
+                                             LocalDate after, Integer limit) {
+        if (!fundRepository.existsById(fundId)) {
+            throw new RuntimeException("Fund not found: " + fundId);
+        }
+        int pageSize = limit == null ? DEFAULT_NAV_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_NAV_PAGE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_NAV_PAGE_SIZE);
+        }
+
+        // The cursor and 'from' are both lower bounds; the later one wins
+        LocalDate lowerExclusive = from != null ? from.minusDays(1) : EARLIEST_NAV_DATE;
+        if (after != null && after.isAfter(lowerExclusive)) {
+            lowerExclusive = after;
+        }
+        LocalDate upperInclusive = to != null ? to : LATEST_NAV_DATE;
+
+        // Fetch one extra row to learn whether another page exists
+        List<NavPointView> rows = navHistoryRepository.findPointsAfter(
+                fundId, lowerExclusive, upperInclusive, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<NavPointView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<FundDetailResponse.NavPoint> points = page.stream()
+                .map(p -> FundDetailResponse.NavPoint.builder()
+                        .date(p.getNavDate())
+                        .value(p.getNavValue())
+                        .build())
+                .collect(Collectors.toList());
+
+        return NavPageResponse.builder()
+                .fundId(fundId)
+                .points(points)
+                .nextCursor(hasMore ? page.get(page.size() - 1).getNavDate() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Override
     @Transactional
     public FundResponse createFund(MutualFund fund) {
         MutualFund saved = fundRepository.save(fund);
+        eventPublisher.publishEvent(FundChangedEvent.created(saved));
         return toFundResponse(saved);
     }
 
@@ -125,9 +163,12 @@ public class FundServiceImpl implements FundService {
     public FundResponse updateFund(Long fundId, MutualFund fundData) {
         MutualFund fund = fundRepository.findById(fundId)
                 .orElseThrow(() -> new RuntimeException("Fund not found: " + fundId));
+        MutualFund.Category previousCategory = fund.getCategory();
+        int previousRiskRating = fund.getRiskRating();
 
         fund.setFundName(fundData.getFundName());
         fund.setTickerSymbol(fundData.getTickerSymbol());
+        fund.setSchemeCode(fundData.getSchemeCode());
         fund.setCategory(fundData.getCategory());
         fund.setExpenseRatio(fundData.getExpenseRatio());
         fund.setRiskRating(fundData.getRiskRating());
@@ -137,30 +178,85 @@ public class FundServiceImpl implements FundService {
         fund.setMinInvestment(fundData.getMinInvestment());
 
         MutualFund updated = fundRepository.save(fund);
+        eventPublisher.publishEvent(FundChangedEvent.updated(updated, previousCategory, previousRiskRating));
         return toFundResponse(updated);
     }
 
     @Override
     @Transactional
     public void deleteFund(Long fundId) {
-        if (!fundRepository.existsById(fundId)) {
-            throw new RuntimeException("Fund not found: " + fundId);
-        }
+        MutualFund fund = fundRepository.findById(fundId)
+                .orElseThrow(() -> new RuntimeException("Fund not found: " + fundId));
+        fundAnalyticsService.deleteSnapshot(fundId);
         navHistoryRepository.deleteByMutualFundId(fundId);
         fundRepository.deleteById(fundId);
+        navSeriesStore.evict(fundId);
+        eventPublisher.publishEvent(FundChangedEvent.deleted(fund));
     }
 
-    private List<BigDecimal> computeMonthlyReturns(List<NavHistory> history) {
-        List<BigDecimal> returns = new ArrayList<>();
-        int step = Math.max(1, history.size() / 12); // Approximate monthly intervals
-        for (int i = step; i < history.size(); i += step) {
-            BigDecimal prevNav = history.get(i - step).getNavValue();
-            BigDecimal curNav = history.get(i).getNavValue();
-            if (prevNav.compareTo(BigDecimal.ZERO) > 0) {
-                returns.add(FinancialCalculator.calculateReturn(prevNav, curNav));
-            }
+    @Override
+    @Transactional
+    public FundResponse recordNav(Long fundId, LocalDate navDate, BigDecimal navValue) {
+        MutualFund fund = fundRepository.findById(fundId)
+                .orElseThrow(() -> new RuntimeException("Fund not found: " + fundId));
+
+        if (navHistoryRepository.existsByMutualFundIdAndNavDate(fundId, navDate)) {
+            throw new RuntimeException("NAV already recorded for " + navDate);
         }
-        return returns;
+
+        navHistoryRepository.save(NavHistory.builder()
+                .mutualFund(fund)
+                .navDate(navDate)
+                .navValue(navValue)
+                .build());
+        navSeriesStore.append(fundId, navDate, navValue);
+
+        FundAnalytics analytics = fundAnalyticsService.recordNav(fundId, navDate, navValue);
+
+        // Only the latest point moves the fund's current NAV; backfills leave it alone
+        if (navDate.equals(analytics.getLastNavDate())) {
+            fund.setCurrentNav(navValue);
+            fund = fundRepository.save(fund);
+        }
+        eventPublisher.publishEvent(FundChangedEvent.navRecorded(fund));
+        return toFundResponse(fund);
+    }
+
+    // Trims the series to the requested range, then LTTB-downsamples it to at most 'points' points
+    private List<FundDetailResponse.NavPoint> chartPoints(NavSeries series, String range, Integer points) {
+        int from = 0;
+        int to = series.size();
+        if (range != null && !"MAX".equalsIgnoreCase(range) && to > 0) {
+            LocalDate start = ReturnWindow.parse(range).startFrom(series.lastDate());
+            from = series.lowerBound((int) start.toEpochDay());
+        }
+
+        if (points == null || points >= to - from) {
+            return toNavPoints(series, from, to);
+        }
+
+        int[] kept = Downsampler.lttb(series.copyEpochDays(from, to), series.copyNavs(from, to),
+                0, to - from, Math.max(MIN_CHART_POINTS, points));
+        List<FundDetailResponse.NavPoint> result = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            result.add(toNavPoint(series, from + index));
+        }
+        return result;
+    }
+
+    private List<FundDetailResponse.NavPoint> toNavPoints(NavSeries series, int from, int to) {
+        List<FundDetailResponse.NavPoint> points = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            points.add(toNavPoint(series, i));
+        }
+        return points;
+    }
+
+    private FundDetailResponse.NavPoint toNavPoint(NavSeries series, int index) {
+        return FundDetailResponse.NavPoint.builder()
+                .date(series.dateAt(index))
+                .value(series.navAt(index))
+                .build();
     }
 
     private FundResponse toFundResponse(MutualFund fund) {
@@ -0,0 +1,206 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.GoalProjectionRequest;
+import com.fsad.mutualfund.dto.GoalProjectionResponse;
+import com.fsad.mutualfund.dto.ProjectionBand;
+import com.fsad.mutualfund.entity.PortfolioHolding;
+import com.fsad.mutualfund.repository.PortfolioHoldingRepository;
+import com.fsad.mutualfund.service.GoalProjectionService;
+import com.fsad.mutualfund.utils.AlignedReturns;
+import com.fsad.mutualfund.utils.MonteCarloSimulator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class GoalProjectionServiceImpl implements GoalProjectionService {
+
+    private static final int MAX_YEARS = 40;
+    private static final int MAX_BANDS = 40; // observations kept per path
+    private static final int MIN_HISTORY_DAYS = 60;
+    private static final double[] PERCENTILES = { 5, 25, 50, 75, 95 };
+
+    private final PortfolioHoldingRepository holdingRepository;
+    private final NavSeriesStore navSeriesStore;
+    private final int defaultPaths;
+    private final int maxPaths;
+    // Projections get their own bounded pool; a burst of requests queues for a permit instead of
+    // starving the batch jobs that run on the common pool
+    private final ForkJoinPool pool;
+    private final Semaphore permits;
+
+    public GoalProjectionServiceImpl(PortfolioHoldingRepository holdingRepository,
+                                     NavSeriesStore navSeriesStore,
+                                     @Value("${app.projection.default-paths:20000}") int defaultPaths,
+                                     @Value("${app.projection.max-paths:200000}") int maxPaths,
+                                     @Value("${app.projection.threads:0}") int threads,
+                                     @Value("${app.projection.max-concurrent:2}") int maxConcurrent) {
+        this.holdingRepository = holdingRepository;
+        this.navSeriesStore = navSeriesStore;
+        this.defaultPaths = defaultPaths;
+        this.maxPaths = maxPaths;
+        this.pool = new ForkJoinPool(threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public GoalProjectionResponse project(Long userId, GoalProjectionRequest request) {
+        long started = System.nanoTime();
+        int years = request.getYears() == null ? 10 : request.getYears();
+        if (years < 1 || years > MAX_YEARS) {
+            throw new RuntimeException("Projection horizon must be between 1 and " + MAX_YEARS + " years");
+        }
+        int paths = request.getPaths() == null ? defaultPaths : request.getPaths();
+        if (paths < 1 || paths > maxPaths) {
+            throw new RuntimeException("Number of paths must be between 1 and " + maxPaths);
+        }
+        int lookbackYears = request.getLookbackYears() == null ? 5 : Math.max(1, request.getLookbackYears());
+        MonteCarloSimulator.Method method = request.getMethod() == null
+                ? MonteCarloSimulator.Method.BOOTSTRAP : MonteCarloSimulator.Method.parse(request.getMethod());
+        BigDecimal monthly = request.getMonthlyContribution() == null
+                ? BigDecimal.ZERO : request.getMonthlyContribution();
+        if (monthly.signum() < 0) {
+            throw new RuntimeException("Monthly contribution cannot be negative");
+        }
+
+        List<PortfolioHolding> holdings = new ArrayList<>();
+        for (PortfolioHolding holding : holdingRepository.findByInvestorId(userId)) {
+            if (holding.getUnitsOwned().signum() > 0 && holding.getMutualFund().getCurrentNav() != null) {
+                holdings.add(holding);
+            }
+        }
+        if (holdings.isEmpty()) {
+            throw new RuntimeException("No holdings to project");
+        }
+
+        // Current value per fund; contributions follow the same weights
+        int funds = holdings.size();
+        double[] initial = new double[funds];
+        double total = 0.0;
+        for (int f = 0; f < funds; f++) {
+            PortfolioHolding holding = holdings.get(f);
+            initial[f] = holding.getUnitsOwned().multiply(holding.getMutualFund().getCurrentNav()).doubleValue();
+            total += initial[f];
+        }
+        double[] contribution = new double[funds];
+        for (int f = 0; f < funds; f++) {
+            contribution[f] = total > 0 ? monthly.doubleValue() * initial[f] / total : monthly.doubleValue() / funds;
+        }
+
+        AlignedReturns history = loadHistory(holdings, lookbackYears);
+        if (history.days() < MIN_HISTORY_DAYS) {
+            throw new RuntimeException("Not enough overlapping NAV history to project (need "
+                    + MIN_HISTORY_DAYS + " trading days, have " + history.days() + ")");
+        }
+
+        int months = years * 12;
+        int interval = (months + MAX_BANDS - 1) / MAX_BANDS;
+        int[] observeAt = new int[(months + interval - 1) / interval];
+        for (int o = 0; o < observeAt.length; o++) {
+            observeAt[o] = Math.min(months, (o + 1) * interval);
+        }
+
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        double[][] observed;
+        double[][] bands;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Projection interrupted");
+        }
+        try {
+            observed = MonteCarloSimulator.simulate(
+                    history, method, initial, contribution, observeAt, paths, seed, pool);
+            bands = MonteCarloSimulator.percentiles(observed, PERCENTILES, pool);
+        } finally {
+            permits.release();
+        }
+
+        LocalDate today = LocalDate.now();
+        List<ProjectionBand> result = new ArrayList<>(observeAt.length);
+        for (int o = 0; o < observeAt.length; o++) {
+            int month = observeAt[o];
+            result.add(ProjectionBand.builder()
+                    .month(month)
+                    .date(today.plusMonths(month))
+                    .contributed(money(total + monthly.doubleValue() * month))
+                    .percentile5(money(bands[o][0]))
+                    .percentile25(money(bands[o][1]))
+                    .median(money(bands[o][2]))
+                    .percentile75(money(bands[o][3]))
+                    .percentile95(money(bands[o][4]))
+                    .build());
+        }
+
+        BigDecimal goalProbability = null;
+        if (request.getGoalAmount() != null) {
+            double fraction = MonteCarloSimulator.fractionAtLeast(
+                    observed[observed.length - 1], request.getGoalAmount().doubleValue());
+            goalProbability = BigDecimal.valueOf(fraction).setScale(4, RoundingMode.HALF_UP);
+        }
+
+        return GoalProjectionResponse.builder()
+                .method(method.name())
+                .years(years)
+                .paths(paths)
+                .seed(seed)
+                .fundsHeld(funds)
+                .historyFrom(LocalDate.ofEpochDay(history.firstEpochDay()))
+                .historyTo(LocalDate.ofEpochDay(history.lastEpochDay()))
+                .historyDays(history.days())
+                .currentValue(money(total))
+                .monthlyContribution(monthly)
+                .bands(result)
+                .goalAmount(request.getGoalAmount())
+                .goalProbability(goalProbability)
+                .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private AlignedReturns loadHistory(List<PortfolioHolding> holdings, int lookbackYears) {
+        List<NavSeries> series = new ArrayList<>(holdings.size());
+        LocalDate to = null;
+        for (PortfolioHolding holding : holdings) {
+            NavSeries fundSeries = navSeriesStore.get(holding.getMutualFund().getId());
+            series.add(fundSeries);
+            if (!fundSeries.isEmpty() && (to == null || fundSeries.lastDate().isAfter(to))) {
+                to = fundSeries.lastDate();
+            }
+        }
+        if (to == null) {
+            throw new RuntimeException("No NAV history for the funds held");
+        }
+
+        // Only the lookback window is copied out of the store
+        LocalDate from = to.minusYears(lookbackYears);
+        int[][] epochDays = new int[series.size()][];
+        double[][] navs = new double[series.size()][];
+        for (int f = 0; f < series.size(); f++) {
+            int[] range = series.get(f).indexRange(from, to);
+            epochDays[f] = series.get(f).copyEpochDays(range[0], range[1]);
+            navs[f] = series.get(f).copyNavs(range[0], range[1]);
+        }
+        return AlignedReturns.of(epochDays, navs, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -1,11 +1,13 @@
 package com.fsad.mutualfund.service.impl;
 
+import com.fsad.mutualfund.cache.IdempotencyCache;
 import com.fsad.mutualfund.dto.RiskQuestionnaireRequest;
 import com.fsad.mutualfund.entity.InvestorProfile;
 import com.fsad.mutualfund.entity.User;
 import com.fsad.mutualfund.repository.InvestorProfileRepository;
 import com.fsad.mutualfund.repository.UserRepository;
 import com.fsad.mutualfund.service.InvestorService;
+import com.fsad.mutualfund.service.OrderExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +19,17 @@ public class InvestorServiceImpl implements InvestorService {
 
     private final InvestorProfileRepository profileRepository;
     private final UserRepository userRepository;
+    private final OrderExecutor orderExecutor;
+    private final IdempotencyCache idempotencyCache;
 
     public InvestorServiceImpl(InvestorProfileRepository profileRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               OrderExecutor orderExecutor,
+                               IdempotencyCache idempotencyCache) {
         this.profileRepository = profileRepository;
         this.userRepository = userRepository;
+        this.orderExecutor = orderExecutor;
+        this.idempotencyCache = idempotencyCache;
     }
 
     @Override
@@ -62,14 +70,17 @@ public class InvestorServiceImpl implements InvestorService {
     }
 
     @Override
-    @Transactional
-    public InvestorProfile depositToWallet(Long userId, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public BigDecimal depositToWallet(Long userId, BigDecimal amount, String idempotencyKey) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Deposit amount must be positive");
         }
 
-        InvestorProfile profile = getProfile(userId);
-        profile.setWalletBalance(profile.getWalletBalance().add(amount));
-        return profileRepository.save(profile);
+        // A retry reports the balance the first attempt left, without depositing again
+        String key = IdempotencyCache.normalize(idempotencyKey);
+        OrderExecutor.Fill fill = idempotencyCache.replay(userId, key, OrderExecutor.Kind.DEPOSIT, amount, null);
+        if (fill == null) {
+            fill = orderExecutor.execute(OrderExecutor.Order.deposit(userId, amount).withIdempotencyKey(key));
+        }
+        return fill.walletBalance();
     }
 }
@@ -0,0 +1,211 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.InvestorBook;
+import com.fsad.mutualfund.entity.LedgerEntry;
+import com.fsad.mutualfund.entity.Transaction;
+import com.fsad.mutualfund.service.OrderExecutor;
+import com.fsad.mutualfund.service.OrderStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Loads books and writes order groups with batched JDBC statements: one batch each for wallet
+ * changes, holding inserts, updates and deletes, new transaction rows and settled ones, the
+ * idempotency keys the orders were sent with, and the ledger entries for every movement.
+ */
+@Component
+public class JdbcOrderStore implements OrderStore {
+
+    private static final String SELECT_WALLET = "SELECT wallet_balance FROM investor_profiles WHERE user_id = ?";
+    private static final String SELECT_HOLDINGS =
+            "SELECT fund_id, units_owned, average_buy_price FROM portfolio_holdings WHERE investor_id = ?";
+    // Still guarded: if something outside the executor moved the balance, the group fails
+    // and the book is reloaded instead of the wallet going negative
+    private static final String UPDATE_WALLET = "UPDATE investor_profiles SET wallet_balance = wallet_balance + ? "
+            + "WHERE user_id = ? AND wallet_balance + ? >= 0";
+    private static final String INSERT_HOLDING = "INSERT INTO portfolio_holdings "
+            + "(investor_id, fund_id, units_owned, average_buy_price) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_HOLDING = "UPDATE portfolio_holdings SET units_owned = ?, average_buy_price = ? "
+            + "WHERE investor_id = ? AND fund_id = ?";
+    private static final String DELETE_HOLDING = "DELETE FROM portfolio_holdings WHERE investor_id = ? AND fund_id = ?";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+            + "(user_id, type, amount, status, reference_id, description, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Guarded on PENDING so an order can be settled only once
+    private static final String SETTLE_TRANSACTION = "UPDATE transactions SET status = ?, description = ? "
+            + "WHERE id = ? AND status = 'PENDING'";
+
+    // Unique on (user_id, idempotency_key): a key can only ever be committed with one order
+    private static final String INSERT_IDEMPOTENCY_KEY = "INSERT INTO idempotency_keys "
+            + "(user_id, idempotency_key, kind, amount, fund_id, description, wallet_balance, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LEDGER_ENTRY = "INSERT INTO ledger_entries "
+            + "(investor_id, fund_id, asset, from_account, to_account, quantity, kind, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_LAST_LEDGER_ENTRY = "SELECT COALESCE(MAX(id), 0) FROM ledger_entries";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Groups write under the read lock; ids are handed out in insert order, not commit order
+    private final ReadWriteLock writes = new ReentrantReadWriteLock();
+
+    public JdbcOrderStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public InvestorBook load(Long userId) {
+        List<BigDecimal> wallet = jdbcTemplate.query(SELECT_WALLET, (rs, i) -> rs.getBigDecimal(1), userId);
+        if (wallet.isEmpty()) {
+            throw new RuntimeException("Investor profile not found");
+        }
+        List<InvestorBook.Position> positions = jdbcTemplate.query(SELECT_HOLDINGS,
+                (rs, i) -> new InvestorBook.Position(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3), true),
+                userId);
+        BigDecimal balance = wallet.get(0) == null ? BigDecimal.ZERO : wallet.get(0);
+        return new InvestorBook(userId, balance, positions);
+    }
+
+    @Override
+    public void persist(List<OrderExecutor.Fill> fills, Collection<InvestorBook> books) {
+        List<Object[]> walletRows = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (InvestorBook book : books) {
+            if (book.walletChange().signum() != 0) {
+                walletRows.add(new Object[] { book.walletChange(), book.userId(), book.walletChange() });
+            }
+            for (InvestorBook.Position position : book.dirtyPositions()) {
+                boolean empty = position.units().signum() == 0;
+                if (position.stored() && empty) {
+                    deletes.add(new Object[] { book.userId(), position.fundId() });
+                } else if (position.stored()) {
+                    updates.add(new Object[] { position.units(), position.averageBuyPrice(), book.userId(), position.fundId() });
+                } else if (!empty) {
+                    inserts.add(new Object[] { book.userId(), position.fundId(), position.units(), position.averageBuyPrice() });
+                }
+            }
+        }
+
+        List<Object[]> transactions = new ArrayList<>();
+        List<Object[]> settlements = new ArrayList<>();
+        List<Object[]> keys = new ArrayList<>();
+        List<Object[]> entries = new ArrayList<>();
+        for (OrderExecutor.Fill fill : fills) {
+            OrderExecutor.Order order = fill.order();
+            Timestamp executedAt = Timestamp.valueOf(fill.executedAt());
+            post(order, executedAt, entries);
+            if (order.idempotencyKey() != null) {
+                keys.add(new Object[] { order.userId(), order.idempotencyKey(), order.kind().name(), order.amount(),
+                        order.fundId(), order.description(), fill.walletBalance(), executedAt });
+            }
+            switch (order.kind()) {
+                case BUY, SELL -> transactions.add(new Object[] { order.userId(), order.kind().name(), order.amount(),
+                        Transaction.TransactionStatus.SUCCESS.name(), "FUND-" + order.fundId(),
+                        order.description(), executedAt });
+                case BUY_ORDER, SELL_ORDER -> transactions.add(new Object[] { order.userId(),
+                        (order.kind() == OrderExecutor.Kind.BUY_ORDER ? Transaction.TransactionType.BUY
+                                : Transaction.TransactionType.SELL).name(), order.amount(),
+                        Transaction.TransactionStatus.PENDING.name(), "FUND-" + order.fundId(),
+                        order.description(), executedAt });
+                case ALLOT, REDEEM -> settlements.add(new Object[] {
+                        Transaction.TransactionStatus.SUCCESS.name(), order.description(), order.transactionId() });
+                case CANCEL_BUY -> settlements.add(new Object[] {
+                        Transaction.TransactionStatus.FAILED.name(), order.description(), order.transactionId() });
+                case DEPOSIT, DEBIT, REFUND, RELOAD -> {
+                }
+            }
+        }
+
+        writes.readLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int count : batch(UPDATE_WALLET, walletRows)) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) for batched statements; only 0 means no row
+                    if (count == 0) {
+                        throw new RuntimeException("Wallet changed outside the order executor");
+                    }
+                }
+                batch(DELETE_HOLDING, deletes);
+                batch(UPDATE_HOLDING, updates);
+                batch(INSERT_HOLDING, inserts);
+                batch(INSERT_TRANSACTION, transactions);
+                for (int count : batch(SETTLE_TRANSACTION, settlements)) {
+                    if (count == 0) {
+                        throw new RuntimeException("Order was already settled");
+                    }
+                }
+                batch(INSERT_IDEMPOTENCY_KEY, keys);
+                batch(INSERT_LEDGER_ENTRY, entries);
+            });
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    /**
+     * With no group mid-write, every entry id already handed out belongs to a committed group, and
+     * any group that starts later gets higher ids.
+     */
+    @Override
+    public long committedLedgerEntryId() {
+        writes.writeLock().lock();
+        try {
+            return jdbcTemplate.queryForObject(SELECT_LAST_LEDGER_ENTRY, Long.class);
+        } finally {
+            writes.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The ledger entries for one order: cash between the wallet, the buy reserve, the fund and
+     * the outside world, and units between the fund's register and the holding.
+     */
+    private static void post(OrderExecutor.Order order, Timestamp at, List<Object[]> entries) {
+        switch (order.kind()) {
+            case DEPOSIT, REFUND -> cash(order, LedgerEntry.Account.EXTERNAL_CASH, LedgerEntry.Account.WALLET, at, entries);
+            case DEBIT -> cash(order, LedgerEntry.Account.WALLET, LedgerEntry.Account.EXTERNAL_CASH, at, entries);
+            case BUY_ORDER -> cash(order, LedgerEntry.Account.WALLET, LedgerEntry.Account.ORDER_RESERVE, at, entries);
+            case CANCEL_BUY -> cash(order, LedgerEntry.Account.ORDER_RESERVE, LedgerEntry.Account.WALLET, at, entries);
+            case BUY, ALLOT -> {
+                cash(order, order.kind() == OrderExecutor.Kind.BUY ? LedgerEntry.Account.WALLET
+                        : LedgerEntry.Account.ORDER_RESERVE, LedgerEntry.Account.FUND_CASH, at, entries);
+                units(order, LedgerEntry.Account.FUND_UNITS, LedgerEntry.Account.HOLDING, at, entries);
+            }
+            case SELL, REDEEM -> {
+                units(order, LedgerEntry.Account.HOLDING, LedgerEntry.Account.FUND_UNITS, at, entries);
+                cash(order, LedgerEntry.Account.FUND_CASH, LedgerEntry.Account.WALLET, at, entries);
+            }
+            case SELL_ORDER, RELOAD -> {
+            }
+        }
+    }
+
+    private static void cash(OrderExecutor.Order order, LedgerEntry.Account from, LedgerEntry.Account to,
+                             Timestamp at, List<Object[]> entries) {
+        entries.add(new Object[] { order.userId(), order.fundId(), LedgerEntry.Asset.CASH.name(), from.name(),
+                to.name(), order.amount(), order.kind().name(), at });
+    }
+
+    private static void units(OrderExecutor.Order order, LedgerEntry.Account from, LedgerEntry.Account to,
+                              Timestamp at, List<Object[]> entries) {
+        entries.add(new Object[] { order.userId(), order.fundId(), LedgerEntry.Asset.UNITS.name(), from.name(),
+                to.name(), order.units(), order.kind().name(), at });
+    }
+
+    private int[] batch(String sql, List<Object[]> rows) {
+        return rows.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(sql, rows);
+    }
+}
@@ -0,0 +1,467 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.dto.LedgerBalances;
+import com.fsad.mutualfund.dto.LedgerReconcileReport;
+import com.fsad.mutualfund.dto.LedgerSnapshotReport;
+import com.fsad.mutualfund.entity.LedgerEntry;
+import com.fsad.mutualfund.service.LedgerService;
+import com.fsad.mutualfund.service.OrderExecutor;
+import com.fsad.mutualfund.service.OrderStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Snapshots and audits the append-only ledger the order executor writes with every order group.
+ *
+ * A snapshot run folds the entries committed since the previous run into ledger_snapshots in one
+ * pass over the id range, so an investor's balance is their snapshot rows plus the few entries
+ * after them. Ids are handed out in insert order, not commit order, so a run folds only up to the
+ * id the order store reports as committed; a group that commits after a later one is never skipped.
+ *
+ * The wallet and holding columns stay the read model the rest of the app (and the executor's
+ * cached books) use; reconcile checks them against the ledger a chunk of investors at a time
+ * and, when asked, moves them back to it.
+ */
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final String OPENING = "OPENING";
+    private static final int MAX_SAMPLES = 50;
+    private static final String OWN_ACCOUNTS = "('WALLET', 'ORDER_RESERVE', 'HOLDING')";
+
+    private static final String SELECT_WATERMARK = "SELECT COALESCE(MAX(last_entry_id), 0) FROM ledger_snapshots";
+    private static final String COUNT_ENTRIES = "SELECT COUNT(*) FROM ledger_entries WHERE id > ? AND id <= ?";
+    private static final String SELECT_DELTAS = "SELECT m.investor_id, m.account, m.fund_id, SUM(m.quantity), s.id "
+            + "FROM (" + movements("id > ? AND id <= ?") + ") m "
+            + "LEFT JOIN ledger_snapshots s ON s.investor_id = m.investor_id AND s.account = m.account "
+            + "AND s.fund_id = m.fund_id WHERE m.account IN " + OWN_ACCOUNTS
+            + " GROUP BY m.investor_id, m.account, m.fund_id, s.id";
+    private static final String UPDATE_SNAPSHOT = "UPDATE ledger_snapshots SET balance = balance + ? WHERE id = ?";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO ledger_snapshots "
+            + "(investor_id, account, fund_id, balance, last_entry_id, taken_at) VALUES (?, ?, ?, ?, ?, ?)";
+    // Every row of a touched investor moves to the new watermark, so their rows always agree on it
+    private static final String ADVANCE_SNAPSHOTS = "UPDATE ledger_snapshots SET last_entry_id = ?, taken_at = ? "
+            + "WHERE investor_id IN (SELECT investor_id FROM ledger_entries WHERE id > ? AND id <= ?)";
+
+    private static final String SELECT_INVESTORS = "SELECT user_id FROM investor_profiles ORDER BY user_id";
+    private static final String SELECT_UNOPENED = "SELECT p.user_id FROM investor_profiles p WHERE NOT EXISTS "
+            + "(SELECT 1 FROM ledger_entries e WHERE e.investor_id = p.user_id AND e.kind = '" + OPENING + "') "
+            + "ORDER BY p.user_id";
+    private static final String INSERT_ENTRY = "INSERT INTO ledger_entries "
+            + "(investor_id, fund_id, asset, from_account, to_account, quantity, kind, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Repairs are deltas, so orders committed since the comparison are kept
+    private static final String ADJUST_WALLET = "UPDATE investor_profiles "
+            + "SET wallet_balance = COALESCE(wallet_balance, 0) + ? WHERE user_id = ?";
+    private static final String ADJUST_HOLDING = "UPDATE portfolio_holdings SET units_owned = units_owned + ? "
+            + "WHERE investor_id = ? AND fund_id = ?";
+    private static final String INSERT_HOLDING = "INSERT INTO portfolio_holdings "
+            + "(investor_id, fund_id, units_owned, average_buy_price) "
+            + "SELECT ?, id, ?, COALESCE(current_nav, 0) FROM mutual_funds WHERE id = ?";
+    private static final String DELETE_EMPTY_HOLDING = "DELETE FROM portfolio_holdings "
+            + "WHERE investor_id = ? AND fund_id = ? AND units_owned = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate consistentRead;
+    private final OrderExecutor orderExecutor;
+    private final OrderStore orderStore;
+    private final int batchSize;
+    private final ZoneId zone;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerServiceImpl(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             OrderExecutor orderExecutor,
+                             OrderStore orderStore,
+                             @Value("${app.ledger.batch-size:1000}") int batchSize,
+                             @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.orderExecutor = orderExecutor;
+        this.orderStore = orderStore;
+        this.batchSize = batchSize;
+        this.zone = ZoneId.of(zone);
+        // Ledger and stored balances must be read as of one moment to be comparable
+        this.consistentRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.consistentRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Both legs of every matching entry as signed movements: into to_account, out of
+     * from_account. fund_id is kept only where it names the account (HOLDING).
+     */
+    private static String movements(String where) {
+        return "SELECT investor_id, to_account AS account, "
+                + "CASE WHEN to_account = 'HOLDING' THEN fund_id ELSE 0 END AS fund_id, quantity, id "
+                + "FROM ledger_entries WHERE " + where
+                + " UNION ALL SELECT investor_id, from_account, "
+                + "CASE WHEN from_account = 'HOLDING' THEN fund_id ELSE 0 END, -quantity, id "
+                + "FROM ledger_entries WHERE " + where;
+    }
+
+    /** Balances of one investor's own accounts. */
+    private static final class Accounts {
+        private BigDecimal wallet = BigDecimal.ZERO;
+        private BigDecimal reserve = BigDecimal.ZERO;
+        private final Map<Long, BigDecimal> units = new TreeMap<>();
+
+        void add(LedgerEntry.Account account, long fundId, BigDecimal amount) {
+            if (amount == null) {
+                return;
+            }
+            switch (account) {
+                case WALLET -> wallet = wallet.add(amount);
+                case ORDER_RESERVE -> reserve = reserve.add(amount);
+                case HOLDING -> units.merge(fundId, amount, BigDecimal::add);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private record State(Map<Long, Accounts> ledger, Map<Long, Accounts> stored, Set<Long> opened) {
+    }
+
+    private record Difference(LedgerEntry.Account account, long fundId, BigDecimal ledger, BigDecimal stored) {
+    }
+
+    @Override
+    public LedgerBalances getBalances(Long userId) {
+        return consistentRead.execute(status -> {
+            long watermark = jdbcTemplate.queryForObject(SELECT_WATERMARK, Long.class);
+            Accounts accounts = load(List.of(userId), watermark).ledger().getOrDefault(userId, new Accounts());
+            Long snapshotEntryId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(last_entry_id) FROM ledger_snapshots WHERE investor_id = ?", Long.class, userId);
+            Integer tail = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM ledger_entries WHERE investor_id = ? AND id > ?",
+                    Integer.class, userId, watermark);
+            return LedgerBalances.builder()
+                    .userId(userId)
+                    .wallet(accounts.wallet)
+                    .orderReserve(accounts.reserve)
+                    .units(accounts.units)
+                    .snapshotEntryId(snapshotEntryId != null ? snapshotEntryId : 0L)
+                    .tailEntries(tail != null ? tail : 0)
+                    .build();
+        });
+    }
+
+    @Scheduled(cron = "${app.ledger.snapshot-cron:0 */15 * * * *}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void scheduledSnapshot() {
+        LedgerSnapshotReport report = snapshot();
+        if (report.getEntries() > 0 || report.getInvestorsOpened() > 0) {
+            System.out.println("📒 Ledger snapshot: " + report.getEntries() + " entries up to #"
+                    + report.getToEntryId() + " folded for " + report.getInvestors() + " investors ("
+                    + report.getInvestorsOpened() + " opened) in " + report.getElapsedMs() + " ms");
+        }
+    }
+
+    @Override
+    public LedgerSnapshotReport snapshot() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A ledger run is already in progress");
+        }
+        try {
+            long started = System.nanoTime();
+            int opened = openAccounts();
+            // Taken before the fold's transaction starts, so its snapshot sees every entry up to it
+            long committed = orderStore.committedLedgerEntryId();
+            LedgerSnapshotReport report = transactionTemplate.execute(status -> fold(committed));
+            report.setInvestorsOpened(opened);
+            report.setElapsedMs(Math.max(1, (System.nanoTime() - started) / 1_000_000));
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public LedgerReconcileReport reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A ledger run is already in progress");
+        }
+        try {
+            return execute(repair);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Posts OPENING entries for investors whose balances predate the ledger: whatever the stored
+     * wallet, buy reserve and holdings hold beyond what the ledger already explains. An investor
+     * with nothing to explain still gets a zero marker, so later drift is reported, not absorbed.
+     */
+    private int openAccounts() {
+        List<Long> unopened = jdbcTemplate.queryForList(SELECT_UNOPENED, Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(zone));
+        for (int start = 0; start < unopened.size(); start += batchSize) {
+            List<Long> chunk = unopened.subList(start, Math.min(unopened.size(), start + batchSize));
+            consistentRead.executeWithoutResult(status -> {
+                State state = load(chunk, jdbcTemplate.queryForObject(SELECT_WATERMARK, Long.class));
+                List<Object[]> rows = new ArrayList<>();
+                for (Long investorId : chunk) {
+                    if (state.opened().contains(investorId)) {
+                        continue;
+                    }
+                    List<Difference> differences = compare(state, investorId);
+                    for (Difference difference : differences) {
+                        rows.add(opening(investorId, difference, now));
+                    }
+                    if (differences.isEmpty()) {
+                        rows.add(new Object[] { investorId, null, LedgerEntry.Asset.CASH.name(),
+                                LedgerEntry.Account.EXTERNAL_CASH.name(), LedgerEntry.Account.WALLET.name(),
+                                BigDecimal.ZERO, OPENING, now });
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+                }
+            });
+        }
+        return unopened.size();
+    }
+
+    private static Object[] opening(Long investorId, Difference difference, Timestamp now) {
+        boolean holding = difference.account() == LedgerEntry.Account.HOLDING;
+        LedgerEntry.Account outside = holding ? LedgerEntry.Account.FUND_UNITS : LedgerEntry.Account.EXTERNAL_CASH;
+        BigDecimal missing = difference.stored().subtract(difference.ledger());
+        LedgerEntry.Account from = missing.signum() > 0 ? outside : difference.account();
+        LedgerEntry.Account to = missing.signum() > 0 ? difference.account() : outside;
+        return new Object[] { investorId, holding ? difference.fundId() : null,
+                (holding ? LedgerEntry.Asset.UNITS : LedgerEntry.Asset.CASH).name(), from.name(), to.name(),
+                missing.abs(), OPENING, now };
+    }
+
+    /**
+     * Folds entries (watermark, committed] into the snapshot rows.
+     */
+    private LedgerSnapshotReport fold(long committed) {
+        long from = jdbcTemplate.queryForObject(SELECT_WATERMARK, Long.class);
+        if (committed <= from) {
+            return LedgerSnapshotReport.builder().fromEntryId(from).toEntryId(from).build();
+        }
+        long to = committed;
+        long entries = jdbcTemplate.queryForObject(COUNT_ENTRIES, Long.class, from, to);
+
+        Timestamp takenAt = Timestamp.valueOf(LocalDateTime.now(zone));
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        Set<Long> investors = new HashSet<>();
+        jdbcTemplate.query(SELECT_DELTAS, rs -> {
+            long investorId = rs.getLong(1);
+            BigDecimal delta = rs.getBigDecimal(4);
+            long snapshotId = rs.getLong(5);
+            investors.add(investorId);
+            if (!rs.wasNull()) {
+                if (delta.signum() != 0) {
+                    updates.add(new Object[] { delta, snapshotId });
+                }
+            } else {
+                inserts.add(new Object[] { investorId, rs.getString(2), rs.getLong(3), delta, to, takenAt });
+            }
+        }, from, to, from, to);
+
+        jdbcTemplate.update(ADVANCE_SNAPSHOTS, to, takenAt, from, to);
+        for (int start = 0; start < updates.size(); start += batchSize) {
+            jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT, updates.subList(start, Math.min(updates.size(), start + batchSize)));
+        }
+        for (int start = 0; start < inserts.size(); start += batchSize) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, inserts.subList(start, Math.min(inserts.size(), start + batchSize)));
+        }
+        return LedgerSnapshotReport.builder()
+                .fromEntryId(from)
+                .toEntryId(to)
+                .entries(entries)
+                .investors(investors.size())
+                .accountsInserted(inserts.size())
+                .accountsUpdated(updates.size())
+                .build();
+    }
+
+    private LedgerReconcileReport execute(boolean repair) {
+        long started = System.nanoTime();
+        List<Long> investors = jdbcTemplate.queryForList(SELECT_INVESTORS, Long.class);
+        List<String> samples = new ArrayList<>();
+        int mismatches = 0;
+        int repaired = 0;
+        for (int start = 0; start < investors.size(); start += batchSize) {
+            List<Long> chunk = investors.subList(start, Math.min(investors.size(), start + batchSize));
+            State state = consistentRead.execute(
+                    status -> load(chunk, jdbcTemplate.queryForObject(SELECT_WATERMARK, Long.class)));
+
+            Map<Long, List<Difference>> drifted = new HashMap<>();
+            for (Long investorId : chunk) {
+                List<Difference> differences = compare(state, investorId);
+                if (differences.isEmpty()) {
+                    continue;
+                }
+                mismatches++;
+                for (Difference difference : differences) {
+                    if (samples.size() < MAX_SAMPLES) {
+                        samples.add("user " + investorId + " " + difference.account()
+                                + (difference.account() == LedgerEntry.Account.HOLDING ? " fund " + difference.fundId() : "")
+                                + " ledger=" + difference.ledger() + " stored=" + difference.stored()
+                                + (state.opened().contains(investorId) ? "" : " (not opened yet)"));
+                    }
+                }
+                // Only opened investors: for the rest the ledger does not hold the full history yet
+                if (repair && state.opened().contains(investorId)) {
+                    drifted.put(investorId, differences);
+                }
+            }
+            if (!drifted.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> repair(drifted));
+                reload(drifted.keySet());
+                repaired += drifted.size();
+            }
+        }
+
+        return LedgerReconcileReport.builder()
+                .investors(investors.size())
+                .mismatches(mismatches)
+                .repaired(repaired)
+                .samples(samples)
+                .elapsedMs(Math.max(1, (System.nanoTime() - started) / 1_000_000))
+                .build();
+    }
+
+    private void repair(Map<Long, List<Difference>> drifted) {
+        List<Object[]> wallets = new ArrayList<>();
+        List<Object[]> adjusted = new ArrayList<>();
+        List<Object[]> inserted = new ArrayList<>();
+        for (Map.Entry<Long, List<Difference>> investor : drifted.entrySet()) {
+            for (Difference difference : investor.getValue()) {
+                BigDecimal delta = difference.ledger().subtract(difference.stored());
+                switch (difference.account()) {
+                    case WALLET -> wallets.add(new Object[] { delta, investor.getKey() });
+                    case HOLDING -> {
+                        if (difference.stored().signum() != 0) {
+                            adjusted.add(new Object[] { delta, investor.getKey(), difference.fundId() });
+                        } else if (delta.signum() > 0) {
+                            inserted.add(new Object[] { investor.getKey(), delta, difference.fundId() });
+                        }
+                    }
+                    // The reserve has no column of its own; a gap there is reported, not repaired
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (!wallets.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_WALLET, wallets);
+        }
+        if (!adjusted.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_HOLDING, adjusted);
+            List<Object[]> emptied = new ArrayList<>(adjusted.size());
+            for (Object[] row : adjusted) {
+                emptied.add(new Object[] { row[1], row[2] });
+            }
+            jdbcTemplate.batchUpdate(DELETE_EMPTY_HOLDING, emptied);
+        }
+        if (!inserted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HOLDING, inserted);
+        }
+    }
+
+    // The executor caches books; make it read the repaired rows
+    private void reload(Set<Long> investors) {
+        List<CompletableFuture<OrderExecutor.Fill>> futures = new ArrayList<>(investors.size());
+        for (Long investorId : investors) {
+            futures.add(orderExecutor.submit(OrderExecutor.Order.reload(investorId)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Ledger balances (snapshot rows plus the entries after the watermark) and stored balances
+     * (wallet column, holdings, pending buys) for a chunk of investors.
+     */
+    private State load(List<Long> investors, long watermark) {
+        String in = "(" + String.join(", ", Collections.nCopies(investors.size(), "?")) + ")";
+        Object[] ids = investors.toArray();
+        Object[] tailArgs = new Object[ids.length * 2 + 2];
+        System.arraycopy(ids, 0, tailArgs, 0, ids.length);
+        tailArgs[ids.length] = watermark;
+        System.arraycopy(ids, 0, tailArgs, ids.length + 1, ids.length);
+        tailArgs[tailArgs.length - 1] = watermark;
+
+        Map<Long, Accounts> ledger = new HashMap<>();
+        jdbcTemplate.query("SELECT investor_id, account, fund_id, balance FROM ledger_snapshots "
+                + "WHERE investor_id IN " + in, rs -> {
+            accounts(ledger, rs.getLong(1)).add(
+                    LedgerEntry.Account.valueOf(rs.getString(2)), rs.getLong(3), rs.getBigDecimal(4));
+        }, ids);
+        jdbcTemplate.query("SELECT m.investor_id, m.account, m.fund_id, SUM(m.quantity) FROM ("
+                + movements("investor_id IN " + in + " AND id > ?") + ") m WHERE m.account IN " + OWN_ACCOUNTS
+                + " GROUP BY m.investor_id, m.account, m.fund_id", rs -> {
+            accounts(ledger, rs.getLong(1)).add(
+                    LedgerEntry.Account.valueOf(rs.getString(2)), rs.getLong(3), rs.getBigDecimal(4));
+        }, tailArgs);
+
+        Map<Long, Accounts> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, wallet_balance FROM investor_profiles WHERE user_id IN " + in, rs -> {
+            accounts(stored, rs.getLong(1)).add(LedgerEntry.Account.WALLET, 0, rs.getBigDecimal(2));
+        }, ids);
+        jdbcTemplate.query("SELECT investor_id, fund_id, units_owned FROM portfolio_holdings "
+                + "WHERE investor_id IN " + in, rs -> {
+            accounts(stored, rs.getLong(1)).add(LedgerEntry.Account.HOLDING, rs.getLong(2), rs.getBigDecimal(3));
+        }, ids);
+        jdbcTemplate.query("SELECT user_id, SUM(amount) FROM transactions WHERE user_id IN " + in
+                + " AND status = 'PENDING' AND type = 'BUY' AND reference_id LIKE 'FUND-%' GROUP BY user_id", rs -> {
+            accounts(stored, rs.getLong(1)).add(LedgerEntry.Account.ORDER_RESERVE, 0, rs.getBigDecimal(2));
+        }, ids);
+
+        Set<Long> opened = new HashSet<>(jdbcTemplate.queryForList("SELECT DISTINCT investor_id FROM ledger_entries "
+                + "WHERE investor_id IN " + in + " AND kind = '" + OPENING + "'", Long.class, ids));
+        return new State(ledger, stored, opened);
+    }
+
+    private static Accounts accounts(Map<Long, Accounts> byInvestor, long investorId) {
+        return byInvestor.computeIfAbsent(investorId, id -> new Accounts());
+    }
+
+    private static List<Difference> compare(State state, Long investorId) {
+        Accounts ledger = state.ledger().getOrDefault(investorId, new Accounts());
+        Accounts stored = state.stored().getOrDefault(investorId, new Accounts());
+        List<Difference> differences = new ArrayList<>();
+        if (ledger.wallet.compareTo(stored.wallet) != 0) {
+            differences.add(new Difference(LedgerEntry.Account.WALLET, 0, ledger.wallet, stored.wallet));
+        }
+        if (ledger.reserve.compareTo(stored.reserve) != 0) {
+            differences.add(new Difference(LedgerEntry.Account.ORDER_RESERVE, 0, ledger.reserve, stored.reserve));
+        }
+        Set<Long> funds = new HashSet<>(ledger.units.keySet());
+        funds.addAll(stored.units.keySet());
+        for (Long fundId : funds) {
+            BigDecimal ledgerUnits = ledger.units.getOrDefault(fundId, BigDecimal.ZERO);
+            BigDecimal storedUnits = stored.units.getOrDefault(fundId, BigDecimal.ZERO);
+            if (ledgerUnits.compareTo(storedUnits) != 0) {
+                differences.add(new Difference(LedgerEntry.Account.HOLDING, fundId, ledgerUnits, storedUnits));
+            }
+        }
+        return differences;
+    }
+}
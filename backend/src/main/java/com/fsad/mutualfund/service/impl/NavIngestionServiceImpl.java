@@ -0,0 +1,377 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.NavIngestionReport;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.service.NavIngestionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class NavIngestionServiceImpl implements NavIngestionService {
+
+    private static final String INSERT_NAV =
+            "INSERT INTO nav_history (fund_id, nav_date, nav_value) VALUES (?, ?, ?)";
+    // Existing points among a batch's funds and dates, so dedupe never loads whole histories
+    private static final String SELECT_EXISTING = "SELECT fund_id, nav_date FROM nav_history "
+            + "WHERE nav_date BETWEEN ? AND ? AND fund_id IN ";
+    private static final String UPDATE_CURRENT_NAV =
+            "UPDATE mutual_funds SET current_nav = ? WHERE id = ?";
+
+    private static final int MAX_REJECTED_LINES = 100;
+
+    // ISO first (our own exports), then the AMFI daily file format, then dd/MM/yyyy
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd-MMM-yyyy")
+                    .toFormatter(Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+    private final MutualFundRepository fundRepository;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final NavSeriesStore navSeriesStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public NavIngestionServiceImpl(MutualFundRepository fundRepository,
+                                   FundAnalyticsService fundAnalyticsService,
+                                   NavSeriesStore navSeriesStore,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.nav-ingest.batch-size:5000}") int batchSize) {
+        this.fundRepository = fundRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.navSeriesStore = navSeriesStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public NavIngestionReport ingest(InputStream navFile) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A NAV file ingest is already in progress");
+        }
+        try {
+            return ingestFile(navFile);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private NavIngestionReport ingestFile(InputStream navFile) {
+        long started = System.nanoTime();
+        Map<Long, MutualFund> funds = new HashMap<>();
+        Map<String, Long> byTicker = new HashMap<>();
+        Map<String, Long> bySchemeCode = new HashMap<>();
+        for (MutualFund fund : fundRepository.findAll()) {
+            funds.put(fund.getId(), fund);
+            byTicker.put(fund.getTickerSymbol().toUpperCase(Locale.ROOT), fund.getId());
+            if (fund.getSchemeCode() != null) {
+                bySchemeCode.put(fund.getSchemeCode().trim(), fund.getId());
+            }
+        }
+
+        Ingestion run = new Ingestion(byTicker, bySchemeCode);
+        int fundsUpdated;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(navFile, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                run.accept(line);
+                if (run.pending.size() >= batchSize) {
+                    flush(run);
+                }
+            }
+            flush(run);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read NAV file: " + e.getMessage());
+        } finally {
+            // Batches committed before a failure are already in nav_history and the series store
+            fundsUpdated = refreshFunds(run.touched, run.lastInserted, funds);
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return NavIngestionReport.builder()
+                .rowsRead(run.rowsRead)
+                .rowsInserted(run.inserted)
+                .duplicates(run.duplicates)
+                .rejected(run.rejected)
+                .fundsUpdated(fundsUpdated)
+                .elapsedMs(elapsedMs)
+                .rowsPerSecond(run.rowsRead * 1000 / elapsedMs)
+                .rejectedLines(run.rejectedLines)
+                .build();
+    }
+
+    /**
+     * Writes one JDBC batch and appends it to the in-memory series in the same transaction,
+     * so a failed batch leaves neither the table nor the store half-updated.
+     */
+    private void flush(Ingestion run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = existing(run.pending);
+        List<NavRow> rows = new ArrayList<>(run.pending.size());
+        for (NavRow row : run.pending) {
+            if (existing.contains(key(row.fundId(), row.navDate()))) {
+                run.duplicates++;
+            } else {
+                rows.add(row);
+            }
+        }
+        run.pending = new ArrayList<>(batchSize);
+        run.seen.clear();
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_NAV, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.fundId());
+                ps.setDate(2, Date.valueOf(row.navDate()));
+                ps.setBigDecimal(3, row.navValue());
+            });
+            for (NavRow row : rows) {
+                navSeriesStore.append(row.fundId(), row.navDate(), row.navValue());
+            }
+        });
+        run.inserted += rows.size();
+        for (NavRow row : rows) {
+            run.touched.merge(row.fundId(), 1, Integer::sum);
+            run.lastInserted.put(row.fundId(), row);
+        }
+    }
+
+    private Set<Long> existing(List<NavRow> rows) {
+        Set<Long> fundIds = new HashSet<>();
+        LocalDate from = rows.get(0).navDate();
+        LocalDate to = from;
+        for (NavRow row : rows) {
+            fundIds.add(row.fundId());
+            from = row.navDate().isBefore(from) ? row.navDate() : from;
+            to = row.navDate().isAfter(to) ? row.navDate() : to;
+        }
+        List<Object> args = new ArrayList<>(fundIds.size() + 2);
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        args.addAll(fundIds);
+        Set<Long> keys = new HashSet<>();
+        jdbcTemplate.query(SELECT_EXISTING + "(" + String.join(", ", Collections.nCopies(fundIds.size(), "?")) + ")",
+                rs -> {
+                    keys.add(key(rs.getLong(1), rs.getDate(2).toLocalDate()));
+                }, args.toArray());
+        return keys;
+    }
+
+    private static long key(long fundId, LocalDate navDate) {
+        return (fundId << 32) | (navDate.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Refreshes analytics and current NAV once per touched fund. A single new point (the daily
+     * file case) is folded in incrementally; backfills replay the series once.
+     */
+    private int refreshFunds(Map<Long, Integer> touched, Map<Long, NavRow> lastInserted,
+                             Map<Long, MutualFund> funds) {
+        List<Long> fundIds = new ArrayList<>(touched.keySet());
+        for (int start = 0; start < fundIds.size(); start += batchSize) {
+            List<Long> chunk = fundIds.subList(start, Math.min(fundIds.size(), start + batchSize));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> currentNavs = new ArrayList<>(chunk.size());
+                for (Long fundId : chunk) {
+                    NavRow row = lastInserted.get(fundId);
+                    FundAnalytics snapshot = touched.get(fundId) == 1
+                            ? fundAnalyticsService.recordNav(fundId, row.navDate(), row.navValue())
+                            : fundAnalyticsService.rebuild(fundId);
+                    // The snapshot's last NAV is the newest point, which an older backfilled row is not
+                    currentNavs.add(new Object[] { snapshot.getLastNav(), fundId });
+                    eventPublisher.publishEvent(FundChangedEvent.navRecorded(funds.get(fundId)));
+                }
+                jdbcTemplate.batchUpdate(UPDATE_CURRENT_NAV, currentNavs);
+            });
+        }
+        return fundIds.size();
+    }
+
+    /**
+     * Per-run parsing state: column layout, counters and the pending batch. Dedupe keys only
+     * cover the pending batch; flush checks it against nav_history.
+     */
+    private final class Ingestion {
+        private final Map<String, Long> byTicker;
+        private final Map<String, Long> bySchemeCode;
+        private final Set<Long> seen = new HashSet<>();
+        private final Map<Long, Integer> touched = new HashMap<>();
+        private final Map<Long, NavRow> lastInserted = new HashMap<>();
+        private final List<String> rejectedLines = new ArrayList<>();
+        private final LocalDate today = LocalDate.now();
+
+        private List<NavRow> pending = new ArrayList<>(batchSize);
+        private long lineNumber;
+        private long rowsRead;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+
+        private String delimiter;
+        private int tickerColumn = 0;
+        private int dateColumn = 1;
+        private int navColumn = 2;
+        private int dateFormat;
+        private boolean schemeCodes; // AMFI files identify funds by scheme code
+
+        private Ingestion(Map<String, Long> byTicker, Map<String, Long> bySchemeCode) {
+            this.byTicker = byTicker;
+            this.bySchemeCode = bySchemeCode;
+        }
+
+        void accept(String line) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                return;
+            }
+            if (delimiter == null) {
+                delimiter = line.indexOf(';') >= 0 ? ";" : ",";
+                if (readHeader(line)) {
+                    return;
+                }
+            }
+            // Section titles in industry files ("Open Ended Schemes(...)") carry no delimiter
+            if (!line.contains(delimiter)) {
+                return;
+            }
+
+            rowsRead++;
+            String[] columns = line.split(delimiter, -1);
+            int minColumns = Math.max(tickerColumn, Math.max(dateColumn, navColumn)) + 1;
+            if (columns.length < minColumns) {
+                reject(line, "expected at least " + minColumns + " columns");
+                return;
+            }
+
+            String ticker = columns[tickerColumn].trim();
+            Long fundId = schemeCodes ? bySchemeCode.get(ticker) : byTicker.get(ticker.toUpperCase(Locale.ROOT));
+            if (fundId == null) {
+                reject(line, (schemeCodes ? "unknown scheme code " : "unknown ticker ") + ticker);
+                return;
+            }
+            LocalDate navDate = parseDate(columns[dateColumn].trim());
+            if (navDate == null) {
+                reject(line, "invalid date " + columns[dateColumn].trim());
+                return;
+            }
+            if (navDate.isAfter(today)) {
+                reject(line, "date " + navDate + " is in the future");
+                return;
+            }
+            BigDecimal navValue = parseNav(columns[navColumn].trim());
+            if (navValue == null) {
+                reject(line, "invalid NAV " + columns[navColumn].trim());
+                return;
+            }
+
+            if (!seen.add(key(fundId, navDate))) {
+                duplicates++;
+                return;
+            }
+            pending.add(new NavRow(fundId, navDate, navValue));
+        }
+
+        /**
+         * Maps columns by name when the first line is a header; otherwise keeps ticker, date, nav order.
+         */
+        private boolean readHeader(String line) {
+            boolean header = false;
+            String[] columns = line.split(delimiter, -1);
+            for (int i = 0; i < columns.length; i++) {
+                switch (columns[i].trim().toLowerCase(Locale.ROOT)) {
+                    case "ticker", "ticker_symbol", "symbol" -> tickerColumn = i;
+                    case "scheme code", "scheme_code" -> {
+                        tickerColumn = i;
+                        schemeCodes = true;
+                    }
+                    case "date", "nav_date" -> dateColumn = i;
+                    case "nav", "nav_value", "net asset value" -> navColumn = i;
+                    default -> {
+                        continue;
+                    }
+                }
+                header = true;
+            }
+            return header;
+        }
+
+        private LocalDate parseDate(String value) {
+            // Files use one format throughout, so start from the one that matched last
+            for (int i = 0; i < DATE_FORMATS.size(); i++) {
+                int candidate = (dateFormat + i) % DATE_FORMATS.size();
+                try {
+                    LocalDate date = LocalDate.parse(value, DATE_FORMATS.get(candidate));
+                    dateFormat = candidate;
+                    return date;
+                } catch (DateTimeParseException e) {
+                    // try the next format
+                }
+            }
+            return null;
+        }
+
+        private BigDecimal parseNav(String value) {
+            try {
+                BigDecimal nav = new BigDecimal(value);
+                return nav.signum() > 0 ? nav.setScale(NavSeries.NAV_SCALE, RoundingMode.HALF_UP) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private void reject(String line, String reason) {
+            rejected++;
+            if (rejectedLines.size() < MAX_REJECTED_LINES) {
+                rejectedLines.add("line " + lineNumber + ": " + reason + " [" + line + "]");
+            }
+        }
+    }
+
+    private record NavRow(long fundId, LocalDate navDate, BigDecimal navValue) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.SettlementReport;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.entity.Transaction;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.OrderExecutor;
+import com.fsad.mutualfund.service.OrderSettlementService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Settles cut-off orders: every PENDING buy and sell placed before the cut-off on the NAV date
+ * is grouped by fund and submitted to the order executor as allotments and redemptions. The
+ * executor writes them in its usual grouped batches, and the PENDING guard on the update means a
+ * rerun never settles an order twice.
+ *
+ * Each order is priced at the first NAV on or after its own trade date (the day it was placed,
+ * or the next day if placed after the cut-off), so orders left over from a missed run, or from
+ * before a date settled out of turn, still get the NAV they were owed.
+ *
+ * An order whose NAV is not in yet, or is dated after the NAV date, stays pending; a redemption
+ * short of units is marked FAILED, and orders for a fund that no longer exists are cancelled
+ * (a buy gets its reserved cash back).
+ */
+@Service
+public class OrderSettlementServiceImpl implements OrderSettlementService {
+
+    private static final String FUND_REFERENCE_PREFIX = "FUND-";
+
+    private static final String SELECT_PENDING = "SELECT id, user_id, type, amount, reference_id, created_at FROM transactions "
+            + "WHERE status = 'PENDING' AND type IN ('BUY', 'SELL') AND created_at < ? ORDER BY reference_id, id";
+    private static final String FAIL_ORDER = "UPDATE transactions SET status = 'FAILED', description = ? "
+            + "WHERE id = ? AND status = 'PENDING'";
+
+    private final OrderExecutor orderExecutor;
+    private final NavSeriesStore navSeriesStore;
+    private final MutualFundRepository fundRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalTime cutoffTime;
+    private final ZoneId zone;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderSettlementServiceImpl(OrderExecutor orderExecutor,
+                                      NavSeriesStore navSeriesStore,
+                                      MutualFundRepository fundRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Value("${app.orders.cutoff-time:15:00}") String cutoffTime,
+                                      @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
+        this.orderExecutor = orderExecutor;
+        this.navSeriesStore = navSeriesStore;
+        this.fundRepository = fundRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cutoffTime = LocalTime.parse(cutoffTime);
+        this.zone = ZoneId.of(zone);
+    }
+
+    private record PendingOrder(long id, long userId, boolean buy, BigDecimal amount, LocalDate tradeDate) {
+    }
+
+    @Scheduled(cron = "${app.orders.settlement-cron:0 45 21 * * MON-FRI}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void scheduledRun() {
+        SettlementReport report = settle(LocalDate.now(zone));
+        if (report.getOrders() > 0) {
+            System.out.println("🧾 Order settlement " + report.getNavDate() + ": " + report.getSettled() + " settled, "
+                    + report.getFailed() + " failed, " + report.getDeferred() + " deferred across "
+                    + report.getFunds() + " funds in " + report.getElapsedMs() + " ms");
+        }
+    }
+
+    @Override
+    public SettlementReport settle(LocalDate navDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Order settlement is already in progress");
+        }
+        try {
+            return execute(navDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private SettlementReport execute(LocalDate navDate) {
+        long started = System.nanoTime();
+
+        // Rows come ordered by fund, so each fund's orders are one contiguous run
+        Map<Long, List<PendingOrder>> byFund = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PENDING, rs -> {
+            Long fundId = parseFundId(rs.getString(5));
+            if (fundId != null) {
+                LocalDateTime placedAt = rs.getTimestamp(6).toLocalDateTime();
+                LocalDate tradeDate = placedAt.toLocalTime().isBefore(cutoffTime)
+                        ? placedAt.toLocalDate() : placedAt.toLocalDate().plusDays(1);
+                byFund.computeIfAbsent(fundId, id -> new ArrayList<>()).add(new PendingOrder(rs.getLong(1),
+                        rs.getLong(2), "BUY".equals(rs.getString(3)), rs.getBigDecimal(4), tradeDate));
+            }
+        }, Timestamp.valueOf(navDate.atTime(cutoffTime)));
+
+        Map<Long, String> fundNames = new HashMap<>();
+        for (MutualFund fund : fundRepository.findAllById(byFund.keySet())) {
+            fundNames.put(fund.getId(), fund.getFundName());
+        }
+
+        int orders = 0;
+        int deferred = 0;
+        int failed = 0;
+        List<Object[]> rejected = new ArrayList<>();
+        List<PendingOrder> submitted = new ArrayList<>();
+        List<CompletableFuture<OrderExecutor.Fill>> futures = new ArrayList<>();
+        for (Map.Entry<Long, List<PendingOrder>> entry : byFund.entrySet()) {
+            Long fundId = entry.getKey();
+            List<PendingOrder> fundOrders = entry.getValue();
+            orders += fundOrders.size();
+            String fundName = fundNames.get(fundId);
+            if (fundName == null) {
+                // Fund removed: buys get their reserved cash back, sells have nothing to undo
+                for (PendingOrder order : fundOrders) {
+                    if (order.buy()) {
+                        submitted.add(order);
+                        futures.add(orderExecutor.submit(OrderExecutor.Order.settle(order.id(), order.userId(),
+                                OrderExecutor.Kind.CANCEL_BUY, order.amount(), fundId, null, null,
+                                "Buy order cancelled: fund no longer available")));
+                    } else {
+                        failed++;
+                        rejected.add(new Object[] { "Sell order cancelled: fund no longer available", order.id() });
+                    }
+                }
+                continue;
+            }
+
+            NavSeries series = navSeriesStore.get(fundId);
+            for (PendingOrder order : fundOrders) {
+                int index = series.lowerBound((int) order.tradeDate().toEpochDay());
+                if (index == series.size() || series.dateAt(index).isAfter(navDate)) {
+                    deferred++;
+                    continue;
+                }
+                submitted.add(order);
+                futures.add(orderExecutor.submit(
+                        toSettlement(order, fundId, fundName, series.navAt(index), series.dateAt(index))));
+            }
+        }
+
+        int settled = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            PendingOrder order = submitted.get(i);
+            try {
+                OrderExecutor.Fill fill = futures.get(i).join();
+                if (fill.order().kind() == OrderExecutor.Kind.CANCEL_BUY) {
+                    failed++;
+                } else {
+                    settled++;
+                }
+            } catch (CompletionException e) {
+                // Not saved (IllegalStateException), or a buy that could not be applied: left PENDING
+                // for the next run, since failing a buy would strand its reserved cash
+                if (e.getCause() instanceof IllegalStateException || order.buy()) {
+                    deferred++;
+                } else {
+                    failed++;
+                    rejected.add(new Object[] { "Redemption rejected: " + e.getCause().getMessage(), order.id() });
+                }
+            }
+        }
+        if (!rejected.isEmpty()) {
+            jdbcTemplate.batchUpdate(FAIL_ORDER, rejected);
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return SettlementReport.builder()
+                .navDate(navDate)
+                .orders(orders)
+                .funds(byFund.size())
+                .settled(settled)
+                .failed(failed)
+                .deferred(deferred)
+                .elapsedMs(elapsedMs)
+                .ordersPerSecond(orders * 1000L / elapsedMs)
+                .build();
+    }
+
+    private static OrderExecutor.Order toSettlement(PendingOrder order, Long fundId, String fundName,
+                                                    BigDecimal nav, LocalDate navDate) {
+        BigDecimal units = order.amount().divide(nav, 4, RoundingMode.HALF_UP);
+        String priced = " units of " + fundName + " at NAV " + nav + " (" + navDate + ")";
+        if (order.buy()) {
+            return OrderExecutor.Order.settle(order.id(), order.userId(), OrderExecutor.Kind.ALLOT,
+                    order.amount(), fundId, nav, units, "Bought " + units + priced);
+        }
+        return OrderExecutor.Order.settle(order.id(), order.userId(), OrderExecutor.Kind.REDEEM,
+                order.amount(), fundId, nav, units, "Sold " + units + priced);
+    }
+
+    private static Long parseFundId(String referenceId) {
+        if (referenceId == null || !referenceId.startsWith(FUND_REFERENCE_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(referenceId.substring(FUND_REFERENCE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
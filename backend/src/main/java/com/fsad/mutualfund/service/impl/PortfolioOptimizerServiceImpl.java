@@ -0,0 +1,407 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.FundCovarianceMatrix;
+import com.fsad.mutualfund.cache.NavSeries;
+import com.fsad.mutualfund.cache.NavSeriesStore;
+import com.fsad.mutualfund.dto.AllocationWeight;
+import com.fsad.mutualfund.dto.EfficientFrontierResponse;
+import com.fsad.mutualfund.dto.FrontierPoint;
+import com.fsad.mutualfund.dto.TargetAllocationResponse;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.InvestorProfile;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.FundAnalyticsRepository;
+import com.fsad.mutualfund.repository.InvestorProfileRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.service.PortfolioOptimizerService;
+import com.fsad.mutualfund.utils.AlignedReturns;
+import com.fsad.mutualfund.utils.MeanVarianceOptimizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mean-variance allocations per investor risk category. The covariance matrix, the efficient
+ * frontier and each category's unconstrained portfolio are computed once a day (or on first use)
+ * and shared; a request only re-solves when the investor's amount rules out some funds'
+ * minimum investment. Deleting a fund in the universe rebuilds them on the next request.
+ */
+@Service
+public class PortfolioOptimizerServiceImpl implements PortfolioOptimizerService {
+
+    private static final double RISK_FREE_RATE = 0.06; // 6% annual
+    private static final int FRONTIER_POINTS = 20;
+    private static final double MIN_RISK_AVERSION = 0.5;
+    private static final double MAX_RISK_AVERSION = 100.0;
+    private static final double MIN_WEIGHT = 1e-4; // smaller weights are rounded away
+    private static final int MIN_HISTORY_DAYS = 90;
+    private static final int STALE_DAYS = 30;
+    private static final double COVERAGE = 0.8; // share of funds whose history must span the window
+
+    private final MutualFundRepository fundRepository;
+    private final FundAnalyticsRepository analyticsRepository;
+    private final InvestorProfileRepository profileRepository;
+    private final NavSeriesStore navSeriesStore;
+    private final int lookbackYears;
+    private final int maxFunds;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+
+    public PortfolioOptimizerServiceImpl(MutualFundRepository fundRepository,
+                                         FundAnalyticsRepository analyticsRepository,
+                                         InvestorProfileRepository profileRepository,
+                                         NavSeriesStore navSeriesStore,
+                                         @Value("${app.optimizer.lookback-years:3}") int lookbackYears,
+                                         @Value("${app.optimizer.max-funds:300}") int maxFunds) {
+        this.fundRepository = fundRepository;
+        this.analyticsRepository = analyticsRepository;
+        this.profileRepository = profileRepository;
+        this.navSeriesStore = navSeriesStore;
+        this.lookbackYears = lookbackYears;
+        this.maxFunds = maxFunds;
+    }
+
+    @Override
+    public EfficientFrontierResponse getFrontier() {
+        return currentSnapshot().response();
+    }
+
+    @Override
+    public TargetAllocationResponse allocate(Long userId, BigDecimal amount) {
+        InvestorProfile profile = profileRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Investor profile not found for user: " + userId));
+        BigDecimal investable = amount != null ? amount : profile.getWalletBalance();
+        if (investable == null || investable.signum() <= 0) {
+            throw new RuntimeException("Amount to allocate must be positive");
+        }
+
+        Snapshot current = currentSnapshot();
+        InvestorProfile.RiskCategory category = profile.getRiskCategory();
+        double[] target = current.targets().get(category);
+        if (target == null) {
+            throw new RuntimeException("No funds available for the " + category.name() + " risk profile");
+        }
+
+        // Funds whose minimum investment exceeds the whole amount are out from the start
+        FundCovarianceMatrix matrix = current.matrix();
+        List<MutualFund> funds = matrix.funds();
+        double value = investable.doubleValue();
+        boolean[] eligible = eligibleFunds(funds, category);
+        int dropped = 0;
+        for (int i = 0; i < funds.size(); i++) {
+            if (eligible[i] && minInvestment(funds.get(i)) > value) {
+                eligible[i] = false;
+                dropped += target[i] >= MIN_WEIGHT ? 1 : 0;
+            }
+        }
+        if (!anyEligible(eligible)) {
+            throw new RuntimeException("Amount is below the minimum investment of every eligible fund");
+        }
+        double[] weights = dropped > 0
+                ? MeanVarianceOptimizer.solve(matrix.expectedReturns(), matrix.covariance(),
+                        riskAversion(category), eligible, target)
+                : target;
+
+        // Then drop, one at a time, the fund furthest below its minimum and re-solve from there
+        while (true) {
+            int worst = -1;
+            double worstRatio = 1.0;
+            for (int i = 0; i < weights.length; i++) {
+                double minimum = minInvestment(funds.get(i));
+                if (eligible[i] && weights[i] >= MIN_WEIGHT && weights[i] * value < minimum) {
+                    double ratio = weights[i] * value / minimum;
+                    if (ratio < worstRatio) {
+                        worstRatio = ratio;
+                        worst = i;
+                    }
+                }
+            }
+            if (worst < 0) {
+                break;
+            }
+            eligible[worst] = false;
+            dropped++;
+            if (!anyEligible(eligible)) {
+                throw new RuntimeException("Amount is below the minimum investment of every eligible fund");
+            }
+            weights = MeanVarianceOptimizer.solve(matrix.expectedReturns(), matrix.covariance(),
+                    riskAversion(category), eligible, weights);
+        }
+
+        FrontierPoint point = toPoint(matrix, riskAversion(category), weights, value);
+        return TargetAllocationResponse.builder()
+                .riskCategory(category.name())
+                .riskAversion(riskAversion(category))
+                .maxFundRiskRating(maxFundRiskRating(category))
+                .amount(investable)
+                .asOf(matrix.historyTo())
+                .expectedReturn(point.getExpectedReturn())
+                .volatility(point.getVolatility())
+                .sharpeRatio(point.getSharpeRatio())
+                .allocations(point.getAllocations())
+                .fundsDroppedForMinInvestment(dropped)
+                .build();
+    }
+
+    // Nightly, after the end-of-day NAV run has landed
+    @Scheduled(cron = "${app.optimizer.refresh-cron:0 0 22 * * *}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void scheduledRefresh() {
+        EfficientFrontierResponse response = refresh();
+        System.out.println("📐 Efficient frontier refreshed: " + response.getUniverseSize() + " funds in "
+                + response.getComputeMs() + " ms");
+    }
+
+    @Override
+    public synchronized EfficientFrontierResponse refresh() {
+        stale = false;
+        snapshot = buildSnapshot();
+        return snapshot.response();
+    }
+
+    // Other changes wait for the nightly refresh; a deleted fund would fail every buy allocated to it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFundChanged(FundChangedEvent event) {
+        Snapshot current = snapshot;
+        if (event.type() == FundChangedEvent.Type.DELETED && current != null
+                && current.matrix().funds().stream().anyMatch(fund -> fund.getId().equals(event.fundId()))) {
+            stale = true;
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !stale) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null || stale) {
+                // Cleared before reading so a deletion committed mid-build marks the new snapshot stale
+                stale = false;
+                try {
+                    snapshot = buildSnapshot();
+                } catch (RuntimeException e) {
+                    stale = true;
+                    throw e;
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    private Snapshot buildSnapshot() {
+        long started = System.nanoTime();
+        FundCovarianceMatrix matrix = buildMatrix();
+        double[] mu = matrix.expectedReturns();
+        double[] covariance = matrix.covariance();
+
+        // Frontier from the return-seeking end to minimum variance, each warm-started from the last
+        boolean[] all = new boolean[matrix.size()];
+        Arrays.fill(all, true);
+        List<FrontierPoint> frontier = new ArrayList<>(FRONTIER_POINTS);
+        double[] weights = null;
+        for (int k = 0; k < FRONTIER_POINTS; k++) {
+            double riskAversion = MIN_RISK_AVERSION
+                    * Math.pow(MAX_RISK_AVERSION / MIN_RISK_AVERSION, (double) k / (FRONTIER_POINTS - 1));
+            weights = MeanVarianceOptimizer.solve(mu, covariance, riskAversion, all, weights);
+            frontier.add(toPoint(matrix, riskAversion, weights, 0.0));
+        }
+
+        Map<InvestorProfile.RiskCategory, double[]> targets = new EnumMap<>(InvestorProfile.RiskCategory.class);
+        Map<String, FrontierPoint> categoryPoints = new LinkedHashMap<>();
+        for (InvestorProfile.RiskCategory category : InvestorProfile.RiskCategory.values()) {
+            boolean[] eligible = eligibleFunds(matrix.funds(), category);
+            if (!anyEligible(eligible)) {
+                continue;
+            }
+            double[] target = MeanVarianceOptimizer.solve(mu, covariance, riskAversion(category), eligible, null);
+            targets.put(category, target);
+            categoryPoints.put(category.name(), toPoint(matrix, riskAversion(category), target, 0.0));
+        }
+
+        EfficientFrontierResponse response = EfficientFrontierResponse.builder()
+                .computedAt(LocalDateTime.now())
+                .computeMs((System.nanoTime() - started) / 1_000_000)
+                .universeSize(matrix.size())
+                .historyFrom(matrix.historyFrom())
+                .historyTo(matrix.historyTo())
+                .historyDays(matrix.historyDays())
+                .frontier(frontier)
+                .riskCategoryPortfolios(categoryPoints)
+                .build();
+        return new Snapshot(matrix, targets, response);
+    }
+
+    /**
+     * Universe: funds with current NAVs whose history spans the window shared by most funds,
+     * capped at the best {@code maxFunds} by Sharpe ratio.
+     */
+    private FundCovarianceMatrix buildMatrix() {
+        Map<Long, FundAnalytics> analytics = new HashMap<>();
+        for (FundAnalytics snapshot : analyticsRepository.findAll()) {
+            analytics.put(snapshot.getFundId(), snapshot);
+        }
+
+        List<MutualFund> candidates = new ArrayList<>();
+        List<NavSeries> series = new ArrayList<>();
+        LocalDate to = null;
+        for (MutualFund fund : fundRepository.findAll()) {
+            NavSeries fundSeries = navSeriesStore.get(fund.getId());
+            if (fundSeries.size() < 2) {
+                continue;
+            }
+            candidates.add(fund);
+            series.add(fundSeries);
+            if (to == null || fundSeries.lastDate().isAfter(to)) {
+                to = fundSeries.lastDate();
+            }
+        }
+        if (to == null) {
+            throw new RuntimeException("No NAV history to optimise over");
+        }
+
+        // Start the window where most funds already have history, so one young fund cannot shorten it
+        LocalDate lookbackStart = to.minusYears(lookbackYears);
+        LocalDate[] starts = new LocalDate[series.size()];
+        for (int i = 0; i < series.size(); i++) {
+            LocalDate first = series.get(i).firstDate();
+            starts[i] = first.isBefore(lookbackStart) ? lookbackStart : first;
+        }
+        Arrays.sort(starts);
+        LocalDate from = starts[Math.min(starts.length - 1, (int) Math.floor(COVERAGE * (starts.length - 1)))];
+        if (from.plusDays(MIN_HISTORY_DAYS).isAfter(to)) {
+            throw new RuntimeException("Not enough shared NAV history to optimise (need "
+                    + MIN_HISTORY_DAYS + " days)");
+        }
+
+        LocalDate staleBefore = to.minusDays(STALE_DAYS);
+        List<Integer> universe = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            NavSeries fundSeries = series.get(i);
+            if (!fundSeries.firstDate().isAfter(from) && !fundSeries.lastDate().isBefore(staleBefore)) {
+                universe.add(i);
+            }
+        }
+        if (universe.size() > maxFunds) {
+            universe.sort(Comparator.comparing((Integer i) -> sharpe(analytics.get(candidates.get(i).getId())))
+                    .reversed());
+            universe = universe.subList(0, maxFunds);
+        }
+
+        List<MutualFund> funds = new ArrayList<>(universe.size());
+        int[][] epochDays = new int[universe.size()][];
+        double[][] navs = new double[universe.size()][];
+        for (int k = 0; k < universe.size(); k++) {
+            int i = universe.get(k);
+            funds.add(candidates.get(i));
+            // A little before the window so every fund has a NAV in force on its first day
+            int[] range = series.get(i).indexRange(from.minusDays(STALE_DAYS), to);
+            epochDays[k] = series.get(i).copyEpochDays(range[0], range[1]);
+            navs[k] = series.get(i).copyNavs(range[0], range[1]);
+        }
+        AlignedReturns history = AlignedReturns.of(epochDays, navs, (int) from.toEpochDay(), (int) to.toEpochDay());
+        return FundCovarianceMatrix.build(funds, history);
+    }
+
+    private FrontierPoint toPoint(FundCovarianceMatrix matrix, double riskAversion, double[] weights, double amount) {
+        double expected = MeanVarianceOptimizer.expectedReturn(matrix.expectedReturns(), weights);
+        double volatility = Math.sqrt(MeanVarianceOptimizer.variance(matrix.covariance(), weights));
+
+        double kept = 0.0;
+        for (double weight : weights) {
+            kept += weight >= MIN_WEIGHT ? weight : 0.0;
+        }
+        List<AllocationWeight> allocations = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < MIN_WEIGHT) {
+                continue;
+            }
+            MutualFund fund = matrix.funds().get(i);
+            double weight = weights[i] / kept;
+            allocations.add(AllocationWeight.builder()
+                    .fundId(fund.getId())
+                    .fundName(fund.getFundName())
+                    .tickerSymbol(fund.getTickerSymbol())
+                    .category(fund.getCategory().name())
+                    .riskRating(fund.getRiskRating())
+                    .weight(BigDecimal.valueOf(weight).setScale(4, RoundingMode.HALF_UP))
+                    .amount(amount > 0 ? BigDecimal.valueOf(weight * amount).setScale(2, RoundingMode.HALF_UP) : null)
+                    .build());
+        }
+        allocations.sort(Comparator.comparing(AllocationWeight::getWeight).reversed());
+
+        return FrontierPoint.builder()
+                .riskAversion(riskAversion)
+                .expectedReturn(round(expected))
+                .volatility(round(volatility))
+                .sharpeRatio(volatility > 0 ? round((expected - RISK_FREE_RATE) / volatility) : BigDecimal.ZERO)
+                .allocations(allocations)
+                .build();
+    }
+
+    private static boolean[] eligibleFunds(List<MutualFund> funds, InvestorProfile.RiskCategory category) {
+        boolean[] eligible = new boolean[funds.size()];
+        for (int i = 0; i < funds.size(); i++) {
+            eligible[i] = funds.get(i).getRiskRating() <= maxFundRiskRating(category);
+        }
+        return eligible;
+    }
+
+    private static boolean anyEligible(boolean[] eligible) {
+        for (boolean e : eligible) {
+            if (e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double riskAversion(InvestorProfile.RiskCategory category) {
+        return switch (category) {
+            case CONSERVATIVE -> 12.0;
+            case MODERATE -> 5.0;
+            case AGGRESSIVE -> 2.0;
+        };
+    }
+
+    private static int maxFundRiskRating(InvestorProfile.RiskCategory category) {
+        return switch (category) {
+            case CONSERVATIVE -> 3;
+            case MODERATE -> 4;
+            case AGGRESSIVE -> 5;
+        };
+    }
+
+    private static double minInvestment(MutualFund fund) {
+        return fund.getMinInvestment() == null ? 0.0 : fund.getMinInvestment().doubleValue();
+    }
+
+    private static double sharpe(FundAnalytics analytics) {
+        return analytics == null || analytics.getSharpeRatio() == null ? 0.0 : analytics.getSharpeRatio().doubleValue();
+    }
+
+    private static BigDecimal round(double value) {
+        return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    private record Snapshot(FundCovarianceMatrix matrix,
+                            Map<InvestorProfile.RiskCategory, double[]> targets,
+                            EfficientFrontierResponse response) {
+    }
+}
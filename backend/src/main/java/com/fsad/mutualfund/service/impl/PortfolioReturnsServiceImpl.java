@@ -0,0 +1,379 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.dto.HoldingReturn;
+import com.fsad.mutualfund.dto.PortfolioReturnsResponse;
+import com.fsad.mutualfund.dto.ReturnsBatchReport;
+import com.fsad.mutualfund.entity.PortfolioHolding;
+import com.fsad.mutualfund.entity.Transaction;
+import com.fsad.mutualfund.repository.CashFlowView;
+import com.fsad.mutualfund.repository.PortfolioHoldingRepository;
+import com.fsad.mutualfund.repository.TransactionRepository;
+import com.fsad.mutualfund.service.PortfolioReturnsService;
+import com.fsad.mutualfund.utils.Xirr;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Money-weighted returns (XIRR) from settled BUY/SELL transactions: a BUY is money in, a SELL
+ * money out, and today's value of what is still held closes the series.
+ *
+ * The nightly batch streams every investor's flows in one ordered pass into shared primitive
+ * buffers, solves each investor's slice in parallel and replaces that date's snapshot rows.
+ */
+@Service
+public class PortfolioReturnsServiceImpl implements PortfolioReturnsService {
+
+    private static final String FUND_REFERENCE_PREFIX = "FUND-";
+    private static final List<Transaction.TransactionType> FLOW_TYPES =
+            List.of(Transaction.TransactionType.BUY, Transaction.TransactionType.SELL);
+
+    private static final String SELECT_FLOWS = "SELECT user_id, type, amount, created_at FROM transactions "
+            + "WHERE status = 'SUCCESS' AND type IN ('BUY', 'SELL') ORDER BY user_id, created_at";
+    private static final String SELECT_VALUES = "SELECT h.investor_id, SUM(h.units_owned * f.current_nav) "
+            + "FROM portfolio_holdings h JOIN mutual_funds f ON f.id = h.fund_id "
+            + "WHERE h.units_owned > 0 AND f.current_nav IS NOT NULL "
+            + "GROUP BY h.investor_id ORDER BY h.investor_id";
+    private static final String DELETE_SNAPSHOTS = "DELETE FROM investor_return_snapshots WHERE as_of_date = ?";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO investor_return_snapshots "
+            + "(investor_id, as_of_date, invested, redeemed, current_value, xirr, cash_flows, computed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TransactionRepository transactionRepository;
+    private final PortfolioHoldingRepository holdingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final int batchSize;
+    private final ZoneId zone;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PortfolioReturnsServiceImpl(TransactionRepository transactionRepository,
+                                       PortfolioHoldingRepository holdingRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${app.returns.fetch-size:10000}") int fetchSize,
+                                       @Value("${app.returns.batch-size:1000}") int batchSize,
+                                       @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
+        this.transactionRepository = transactionRepository;
+        this.holdingRepository = holdingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+        this.zone = ZoneId.of(zone);
+    }
+
+    @Override
+    public PortfolioReturnsResponse getReturns(Long userId) {
+        LocalDate asOf = LocalDate.now(zone);
+        int asOfDay = (int) asOf.toEpochDay();
+        List<CashFlowView> flows = transactionRepository.findCashFlows(
+                userId, Transaction.TransactionStatus.SUCCESS, FLOW_TYPES);
+        List<PortfolioHolding> holdings = holdingRepository.findByInvestorId(userId);
+
+        // Portfolio series: every flow in date order, then one closing flow per holding
+        int total = flows.size() + holdings.size();
+        double[] amounts = new double[total];
+        int[] days = new int[total];
+        long[] fundIds = new long[flows.size()];
+        double invested = 0.0;
+        double redeemed = 0.0;
+        for (int i = 0; i < flows.size(); i++) {
+            CashFlowView flow = flows.get(i);
+            double amount = flow.getAmount().doubleValue();
+            boolean buy = flow.getType() == Transaction.TransactionType.BUY;
+            amounts[i] = buy ? -amount : amount;
+            days[i] = (int) flow.getCreatedAt().toLocalDate().toEpochDay();
+            fundIds[i] = parseFundId(flow.getReferenceId());
+            if (buy) {
+                invested += amount;
+            } else {
+                redeemed += amount;
+            }
+        }
+
+        List<HoldingReturn> rows = new ArrayList<>(holdings.size());
+        double currentValue = 0.0;
+        int closing = flows.size();
+        for (PortfolioHolding holding : holdings) {
+            BigDecimal nav = holding.getMutualFund().getCurrentNav();
+            double value = nav == null ? 0.0 : holding.getUnitsOwned().multiply(nav).doubleValue();
+            currentValue += value;
+            amounts[closing] = value;
+            days[closing++] = asOfDay;
+            rows.add(holdingReturn(holding, fundIds, amounts, days, flows.size(), value, asOfDay));
+        }
+
+        double xirr = Xirr.compute(amounts, days, total);
+        return PortfolioReturnsResponse.builder()
+                .asOf(asOf)
+                .invested(money(invested))
+                .redeemed(money(redeemed))
+                .currentValue(money(currentValue))
+                .gain(money(redeemed + currentValue - invested))
+                .xirr(rate(xirr))
+                .holdings(rows)
+                .build();
+    }
+
+    private static HoldingReturn holdingReturn(PortfolioHolding holding, long[] fundIds, double[] amounts,
+                                               int[] days, int flowCount, double value, int asOfDay) {
+        long fundId = holding.getMutualFund().getId();
+        int count = 0;
+        for (int i = 0; i < flowCount; i++) {
+            if (fundIds[i] == fundId) {
+                count++;
+            }
+        }
+        double[] fundAmounts = new double[count + 1];
+        int[] fundDays = new int[count + 1];
+        double invested = 0.0;
+        double redeemed = 0.0;
+        int k = 0;
+        for (int i = 0; i < flowCount; i++) {
+            if (fundIds[i] == fundId) {
+                fundAmounts[k] = amounts[i];
+                fundDays[k++] = days[i];
+                if (amounts[i] < 0) {
+                    invested -= amounts[i];
+                } else {
+                    redeemed += amounts[i];
+                }
+            }
+        }
+        fundAmounts[k] = value;
+        fundDays[k] = asOfDay;
+
+        return HoldingReturn.builder()
+                .fundId(fundId)
+                .fundName(holding.getMutualFund().getFundName())
+                .invested(money(invested))
+                .redeemed(money(redeemed))
+                .currentValue(money(value))
+                .gain(money(redeemed + value - invested))
+                .xirr(rate(Xirr.compute(fundAmounts, fundDays, count + 1)))
+                .cashFlows(count)
+                .build();
+    }
+
+    @Scheduled(cron = "${app.returns.cron:0 0 23 * * *}", zone = "${app.eod.zone:Asia/Kolkata}")
+    public void scheduledRun() {
+        ReturnsBatchReport report = runBatch(LocalDate.now(zone));
+        System.out.println("📊 Portfolio returns " + report.getAsOf() + ": " + report.getInvestors()
+                + " investors (" + report.getWithXirr() + " with XIRR) from " + report.getCashFlows()
+                + " cash flows in " + report.getElapsedMs() + " ms");
+    }
+
+    @Override
+    public ReturnsBatchReport runBatch(LocalDate asOf) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A returns batch is already in progress");
+        }
+        try {
+            return execute(asOf);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReturnsBatchReport execute(LocalDate asOf) {
+        long started = System.nanoTime();
+        FlowBuffer buffer = load((int) asOf.toEpochDay());
+        int investors = buffer.investors;
+
+        double[] xirr = new double[investors];
+        IntStream.range(0, investors).parallel().forEach(i -> xirr[i] = Xirr.compute(
+                buffer.amounts, buffer.days, buffer.offsets[i], buffer.offsets[i + 1]));
+
+        Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now(zone));
+        Date asOfDate = Date.valueOf(asOf);
+        int withXirr = 0;
+        List<Object[]> rows = new ArrayList<>(investors);
+        for (int i = 0; i < investors; i++) {
+            BigDecimal rate = rate(xirr[i]);
+            withXirr += rate != null ? 1 : 0;
+            rows.add(new Object[] {
+                    buffer.investorIds[i], asOfDate, money(buffer.invested[i]), money(buffer.redeemed[i]),
+                    money(buffer.values[i]), rate, buffer.flowCount(i), computedAt });
+        }
+
+        // Rerunning a date replaces its snapshot atomically
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_SNAPSHOTS, asOfDate);
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, rows.subList(start, Math.min(rows.size(), start + batchSize)));
+            }
+        });
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return ReturnsBatchReport.builder()
+                .asOf(asOf)
+                .investors(investors)
+                .withXirr(withXirr)
+                .cashFlows(buffer.size - buffer.closingRows)
+                .elapsedMs(elapsedMs)
+                .investorsPerSecond(investors * 1000L / elapsedMs)
+                .build();
+    }
+
+    /**
+     * Reads holding values and then streams flows, both ordered by investor, into one buffer
+     * where each investor's flows followed by its closing value form the slice
+     * [offsets[i], offsets[i + 1]).
+     */
+    private FlowBuffer load(int asOfDay) {
+        List<Long> valueInvestors = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        jdbcTemplate.query(SELECT_VALUES, rs -> {
+            valueInvestors.add(rs.getLong(1));
+            values.add(rs.getDouble(2));
+        });
+
+        FlowBuffer buffer = new FlowBuffer(valueInvestors, values, asOfDay);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_FLOWS);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            double amount = rs.getDouble(3);
+            buffer.add(rs.getLong(1), "BUY".equals(rs.getString(2)) ? -amount : amount,
+                    (int) rs.getTimestamp(4).toLocalDateTime().toLocalDate().toEpochDay());
+        });
+        buffer.finish();
+        return buffer;
+    }
+
+    private static final class FlowBuffer {
+        private final List<Long> valueInvestors;
+        private final List<Double> closingValues;
+        private final int asOfDay;
+        private int nextValue;
+
+        double[] amounts = new double[1024];
+        int[] days = new int[1024];
+        long[] investorIds = new long[256];
+        int[] offsets = new int[257];
+        double[] invested = new double[256];
+        double[] redeemed = new double[256];
+        double[] values = new double[256];
+        boolean[] valued = new boolean[256]; // slice ends with a closing-value row
+        int investors;
+        int size;
+        int closingRows;
+        private boolean open;
+
+        FlowBuffer(List<Long> valueInvestors, List<Double> closingValues, int asOfDay) {
+            this.valueInvestors = valueInvestors;
+            this.closingValues = closingValues;
+            this.asOfDay = asOfDay;
+        }
+
+        void add(long investorId, double amount, int day) {
+            if (!open || investorIds[investors] != investorId) {
+                closeCurrent();
+                // Investors holding units without any recorded flow still get a row
+                while (nextValue < valueInvestors.size() && valueInvestors.get(nextValue) < investorId) {
+                    start(valueInvestors.get(nextValue));
+                    closeCurrent();
+                }
+                start(investorId);
+            }
+            append(amount, day);
+            if (amount < 0) {
+                invested[investors] -= amount;
+            } else {
+                redeemed[investors] += amount;
+            }
+        }
+
+        void finish() {
+            closeCurrent();
+            while (nextValue < valueInvestors.size()) {
+                start(valueInvestors.get(nextValue));
+                closeCurrent();
+            }
+            offsets[investors] = size;
+        }
+
+        private void start(long investorId) {
+            if (investors + 1 == investorIds.length) {
+                int capacity = investorIds.length * 2;
+                investorIds = Arrays.copyOf(investorIds, capacity);
+                offsets = Arrays.copyOf(offsets, capacity + 1);
+                invested = Arrays.copyOf(invested, capacity);
+                redeemed = Arrays.copyOf(redeemed, capacity);
+                values = Arrays.copyOf(values, capacity);
+                valued = Arrays.copyOf(valued, capacity);
+            }
+            investorIds[investors] = investorId;
+            offsets[investors] = size;
+            open = true;
+        }
+
+        // Appends the investor's closing value, if it holds anything, and ends its slice
+        private void closeCurrent() {
+            if (!open) {
+                return;
+            }
+            if (nextValue < valueInvestors.size() && valueInvestors.get(nextValue) == investorIds[investors]) {
+                values[investors] = closingValues.get(nextValue++);
+                append(values[investors], asOfDay);
+                valued[investors] = true;
+                closingRows++;
+            }
+            investors++;
+            open = false;
+        }
+
+        // Recorded flows only, without the closing value
+        int flowCount(int investor) {
+            return offsets[investor + 1] - offsets[investor] - (valued[investor] ? 1 : 0);
+        }
+
+        private void append(double amount, int day) {
+            if (size == amounts.length) {
+                amounts = Arrays.copyOf(amounts, size * 2);
+                days = Arrays.copyOf(days, size * 2);
+            }
+            amounts[size] = amount;
+            days[size++] = day;
+        }
+    }
+
+    private static long parseFundId(String referenceId) {
+        if (referenceId == null || !referenceId.startsWith(FUND_REFERENCE_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(referenceId.substring(FUND_REFERENCE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal rate(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP) : null;
+    }
+}
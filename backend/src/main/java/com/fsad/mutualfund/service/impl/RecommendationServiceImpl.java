@@ -0,0 +1,163 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.FundRecommendationIndex;
+import com.fsad.mutualfund.dto.RecommendationResponse;
+import com.fsad.mutualfund.dto.RecommendedFund;
+import com.fsad.mutualfund.entity.FundAnalytics;
+import com.fsad.mutualfund.entity.InvestorProfile;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.event.FundChangedEvent;
+import com.fsad.mutualfund.repository.InvestorProfileRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.repository.PortfolioHoldingRepository;
+import com.fsad.mutualfund.service.FundAnalyticsService;
+import com.fsad.mutualfund.service.RecommendationService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+
+    private final MutualFundRepository fundRepository;
+    private final FundAnalyticsService fundAnalyticsService;
+    private final InvestorProfileRepository profileRepository;
+    private final PortfolioHoldingRepository holdingRepository;
+
+    private volatile FundRecommendationIndex index;
+    private volatile Inputs inputs;
+    private volatile boolean stale = true;
+    private final Set<Long> navChanged = ConcurrentHashMap.newKeySet();
+
+    public RecommendationServiceImpl(MutualFundRepository fundRepository,
+                                     FundAnalyticsService fundAnalyticsService,
+                                     InvestorProfileRepository profileRepository,
+                                     PortfolioHoldingRepository holdingRepository) {
+        this.fundRepository = fundRepository;
+        this.fundAnalyticsService = fundAnalyticsService;
+        this.profileRepository = profileRepository;
+        this.holdingRepository = holdingRepository;
+    }
+
+    @Override
+    public RecommendationResponse recommend(Long userId, Integer limit) {
+        int k = limit == null ? DEFAULT_LIMIT : limit;
+        if (k < 1 || k > MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        InvestorProfile profile = profileRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Investor profile not found for user: " + userId));
+        Set<Long> held = new HashSet<>(holdingRepository.findHeldFundIds(userId));
+
+        FundRecommendationIndex current = currentIndex();
+        long started = System.nanoTime();
+        int bucket = FundRecommendationIndex.bucketOf(profile.getRiskToleranceScore());
+        List<RecommendedFund> funds = current.top(bucket, held, k);
+
+        return RecommendationResponse.builder()
+                .riskToleranceScore(profile.getRiskToleranceScore())
+                .riskCategory(profile.getRiskCategory().name())
+                .riskBucket(bucket)
+                .targetRiskRating(bucket + 1)
+                .holdingsExcluded(held.size())
+                .elapsedMicros((System.nanoTime() - started) / 1_000)
+                .funds(funds)
+                .build();
+    }
+
+    // Catalogue and analytics rebuilds need a full rebuild; a NAV only matters if it moved what
+    // the index shows or ranks by, which the next request checks for just those funds
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFundChanged(FundChangedEvent event) {
+        if (event.type() == FundChangedEvent.Type.NAV_RECORDED) {
+            navChanged.add(event.fundId());
+        } else {
+            stale = true;
+        }
+    }
+
+    // Funds and analytics the current index was built from
+    private record Inputs(List<MutualFund> funds, Map<Long, FundAnalytics> analytics) {
+    }
+
+    private FundRecommendationIndex currentIndex() {
+        FundRecommendationIndex current = index;
+        if (current != null && !stale && navChanged.isEmpty()) {
+            return current;
+        }
+        synchronized (this) {
+            if (index == null || stale) {
+                // Cleared before reading so a change committed mid-build marks the new index stale
+                stale = false;
+                navChanged.clear();
+                try {
+                    List<MutualFund> funds = fundRepository.findAll();
+                    inputs = new Inputs(funds, fundAnalyticsService.getStoredSnapshots(funds));
+                    index = FundRecommendationIndex.build(inputs.funds(), inputs.analytics());
+                } catch (RuntimeException e) {
+                    stale = true;
+                    throw e;
+                }
+            } else if (!navChanged.isEmpty()) {
+                refreshNavs();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Reloads only the funds with new NAVs. The index is re-ranked in memory when one of them
+     * shows a different NAV or analytics value, and left alone otherwise.
+     */
+    private void refreshNavs() {
+        Set<Long> fundIds = new HashSet<>(navChanged);
+        navChanged.removeAll(fundIds);
+        Map<Long, MutualFund> funds = new HashMap<>();
+        for (MutualFund fund : fundRepository.findAllById(fundIds)) {
+            funds.put(fund.getId(), fund);
+        }
+        Map<Long, FundAnalytics> analytics = fundAnalyticsService.getStoredSnapshots(funds.values());
+
+        boolean changed = false;
+        List<MutualFund> nextFunds = new ArrayList<>(inputs.funds().size());
+        for (MutualFund fund : inputs.funds()) {
+            MutualFund reloaded = funds.get(fund.getId());
+            if (reloaded != null && !same(fund.getCurrentNav(), reloaded.getCurrentNav())) {
+                changed = true;
+                nextFunds.add(reloaded);
+            } else {
+                nextFunds.add(fund);
+            }
+        }
+        Map<Long, FundAnalytics> nextAnalytics = new HashMap<>(inputs.analytics());
+        for (Map.Entry<Long, FundAnalytics> entry : analytics.entrySet()) {
+            FundAnalytics previous = nextAnalytics.put(entry.getKey(), entry.getValue());
+            changed |= previous == null || !sameScores(previous, entry.getValue());
+        }
+        if (changed) {
+            inputs = new Inputs(nextFunds, nextAnalytics);
+            index = FundRecommendationIndex.build(inputs.funds(), inputs.analytics());
+        }
+    }
+
+    private static boolean sameScores(FundAnalytics a, FundAnalytics b) {
+        return same(a.getSharpeRatio(), b.getSharpeRatio()) && same(a.getCagr(), b.getCagr())
+                && same(a.getOneYearReturn(), b.getOneYearReturn());
+    }
+
+    private static boolean same(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
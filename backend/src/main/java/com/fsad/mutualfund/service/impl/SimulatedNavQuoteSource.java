@@ -0,0 +1,32 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.service.NavQuoteSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Random-walk quotes for the load-test profile only; invented NAVs must never reach a real
+ * deployment. Drift and volatility scale with the risk rating, and each (fund, date) has its own
+ * seed so a restarted run prices identically.
+ */
+@Component
+@Profile("loadtest")
+public class SimulatedNavQuoteSource implements NavQuoteSource {
+
+    @Override
+    public BigDecimal quote(MutualFund fund, LocalDate navDate, BigDecimal previousNav) {
+        SplittableRandom random = new SplittableRandom(fund.getId() * 0x9E3779B97F4A7C15L + navDate.toEpochDay());
+        int risk = fund.getRiskRating();
+        double drift = 0.0001 + 0.0001 * risk;
+        double volatility = 0.002 + 0.004 * risk;
+        double change = drift + volatility * random.nextGaussian();
+        double nav = Math.max(previousNav.doubleValue() * 0.5, previousNav.doubleValue() * (1.0 + change));
+        return BigDecimal.valueOf(nav).setScale(4, RoundingMode.HALF_UP);
+    }
+}
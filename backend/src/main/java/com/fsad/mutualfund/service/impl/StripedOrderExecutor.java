@@ -0,0 +1,296 @@
+package com.fsad.mutualfund.service.impl;
+
+import com.fsad.mutualfund.cache.IdempotencyCache;
+import com.fsad.mutualfund.cache.InvestorBook;
+import com.fsad.mutualfund.service.OrderExecutor;
+import com.fsad.mutualfund.service.OrderStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Orders are routed by user id to one of N stripes. Each stripe is a single writer thread that
+ * owns the books of its investors: it drains up to a group of queued orders, applies them in
+ * memory one by one (rejections fail only their own order), then writes the whole group in
+ * one transaction and completes the futures. Investors on different stripes never contend,
+ * and per-order database round trips become a few batched statements per group.
+ *
+ * If a group fails to persist, each investor's share of it is retried on its own, so only the
+ * investor whose write fails sees its orders fail, with an IllegalStateException (a rejected
+ * order fails with a plain RuntimeException); that investor's book is dropped, to be reloaded
+ * from the database on its next order. Anything unexpected thrown while processing a group fails
+ * that group's orders and the stripe carries on.
+ *
+ * An order carrying an idempotency key that this executor already filled is answered with the
+ * original fill; a repeat within the same group follows the first one's outcome. Either way a
+ * repeat that differs in side, amount or fund is rejected.
+ */
+@Service
+public class StripedOrderExecutor implements OrderExecutor {
+
+    private final OrderStore store;
+    private final IdempotencyCache idempotencyCache;
+    private final Stripe[] stripes;
+    private final int groupSize;
+    private final long timeoutMs;
+    private final ZoneId zone;
+
+    public StripedOrderExecutor(OrderStore store,
+                                IdempotencyCache idempotencyCache,
+                                @Value("${app.orders.stripes:0}") int stripes,
+                                @Value("${app.orders.group-size:256}") int groupSize,
+                                @Value("${app.orders.books-per-stripe:10000}") int booksPerStripe,
+                                @Value("${app.orders.timeout-ms:10000}") long timeoutMs,
+                                @Value("${app.eod.zone:Asia/Kolkata}") String zone) {
+        this.store = store;
+        this.idempotencyCache = idempotencyCache;
+        this.groupSize = groupSize;
+        this.timeoutMs = timeoutMs;
+        this.zone = ZoneId.of(zone);
+        int count = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.stripes = new Stripe[count];
+        for (int s = 0; s < count; s++) {
+            this.stripes[s] = new Stripe(s, Math.max(booksPerStripe, groupSize));
+            this.stripes[s].start();
+        }
+    }
+
+    private record Task(Order order, CompletableFuture<Fill> future) {
+    }
+
+    @Override
+    public CompletableFuture<Fill> submit(Order order) {
+        CompletableFuture<Fill> future = new CompletableFuture<>();
+        stripes[(int) Math.floorMod(order.userId(), (long) stripes.length)].queue.add(new Task(order, future));
+        return future;
+    }
+
+    @Override
+    public Fill execute(Order order) {
+        return await(submit(order));
+    }
+
+    @Override
+    public Fill await(CompletableFuture<Fill> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Order is taking longer than expected; check your transactions before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.interrupt();
+        }
+    }
+
+    private final class Stripe extends Thread {
+        private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+        private final Map<Long, InvestorBook> books;
+
+        Stripe(int index, int maxBooks) {
+            super("order-stripe-" + index);
+            setDaemon(true);
+            // Least recently used books are dropped between groups; they are always clean by then
+            books = new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, InvestorBook> eldest) {
+                    return size() > maxBooks && !eldest.getValue().isDirty();
+                }
+            };
+        }
+
+        @Override
+        public void run() {
+            List<Task> group = new ArrayList<>(groupSize);
+            while (!isInterrupted()) {
+                try {
+                    group.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(group, groupSize - 1);
+                try {
+                    process(group);
+                } catch (Throwable e) {
+                    abandon(group, e);
+                }
+                group.clear();
+            }
+            for (Task task : queue) {
+                task.future().completeExceptionally(new IllegalStateException("Order service is shutting down"));
+            }
+        }
+
+        private void process(List<Task> group) {
+            List<Task> accepted = new ArrayList<>(group.size());
+            List<Fill> fills = new ArrayList<>(group.size());
+            List<Task> reloads = new ArrayList<>();
+            Map<InvestorBook, Boolean> touched = new IdentityHashMap<>();
+            Map<IdempotencyCache.Key, Task> keyed = new HashMap<>();
+            // Market time, the clock order cut-offs and settlement are judged by
+            LocalDateTime now = LocalDateTime.now(zone);
+            for (Task task : group) {
+                if (task.order().kind() == Kind.RELOAD) {
+                    reloads.add(task);
+                    continue;
+                }
+                if (task.order().idempotencyKey() != null && replayed(task, keyed)) {
+                    continue;
+                }
+                try {
+                    InvestorBook book = books.get(task.order().userId());
+                    if (book == null) {
+                        book = store.load(task.order().userId());
+                        books.put(task.order().userId(), book);
+                    }
+                    book.apply(task.order());
+                    touched.put(book, Boolean.TRUE);
+                    accepted.add(task);
+                    fills.add(new Fill(task.order(), book.walletBalance(), now));
+                } catch (RuntimeException e) {
+                    task.future().completeExceptionally(e);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                persist(accepted, fills, touched.keySet());
+            }
+
+            // Dropped once the group is written; the next order reloads the book from the database
+            for (Task task : reloads) {
+                books.remove(task.order().userId());
+                task.future().complete(new Fill(task.order(), null, now));
+            }
+        }
+
+        private void persist(List<Task> accepted, List<Fill> fills, Collection<InvestorBook> touched) {
+            try {
+                store.persist(fills, touched);
+            } catch (RuntimeException e) {
+                // One investor's bad write must not fail everyone else's orders in the group
+                if (touched.size() > 1) {
+                    persistEach(accepted, fills, touched);
+                } else {
+                    fail(accepted, touched);
+                }
+                return;
+            }
+            persisted(accepted, fills, touched);
+        }
+
+        private void persistEach(List<Task> accepted, List<Fill> fills, Collection<InvestorBook> touched) {
+            Map<Long, List<Integer>> byInvestor = new HashMap<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                byInvestor.computeIfAbsent(accepted.get(i).order().userId(), id -> new ArrayList<>()).add(i);
+            }
+            for (InvestorBook book : touched) {
+                List<Task> tasks = new ArrayList<>();
+                List<Fill> bookFills = new ArrayList<>();
+                for (int i : byInvestor.getOrDefault(book.userId(), List.of())) {
+                    tasks.add(accepted.get(i));
+                    bookFills.add(fills.get(i));
+                }
+                List<InvestorBook> single = List.of(book);
+                try {
+                    store.persist(bookFills, single);
+                } catch (RuntimeException e) {
+                    fail(tasks, single);
+                    continue;
+                }
+                persisted(tasks, bookFills, single);
+            }
+        }
+
+        private void persisted(List<Task> accepted, List<Fill> fills, Collection<InvestorBook> touched) {
+            for (InvestorBook book : touched) {
+                book.markPersisted();
+            }
+            for (Fill fill : fills) {
+                if (fill.order().idempotencyKey() != null) {
+                    idempotencyCache.put(fill);
+                }
+            }
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).future().complete(fills.get(i));
+            }
+        }
+
+        private void fail(List<Task> accepted, Collection<InvestorBook> touched) {
+            for (InvestorBook book : touched) {
+                books.remove(book.userId());
+            }
+            RuntimeException failure = new IllegalStateException("Order could not be saved, please retry");
+            for (Task task : accepted) {
+                task.future().completeExceptionally(failure);
+            }
+        }
+
+        // The books of the group may hold half-applied state; they are reloaded on next use
+        private void abandon(List<Task> group, Throwable cause) {
+            System.out.println("❌ " + getName() + " failed a group of " + group.size() + " orders: " + cause);
+            RuntimeException failure = new IllegalStateException("Order could not be processed, please retry");
+            for (Task task : group) {
+                books.remove(task.order().userId());
+                task.future().completeExceptionally(failure);
+            }
+        }
+
+        private boolean replayed(Task task, Map<IdempotencyCache.Key, Task> keyed) {
+            Order order = task.order();
+            Fill filled = idempotencyCache.peek(order.userId(), order.idempotencyKey());
+            Task first = null;
+            if (filled == null) {
+                first = keyed.putIfAbsent(new IdempotencyCache.Key(order.userId(), order.idempotencyKey()), task);
+                if (first == null) {
+                    return false;
+                }
+            }
+            // A key reused for a different order is rejected, as IdempotencyCache.replay does
+            Order original = filled != null ? filled.order() : first.order();
+            try {
+                IdempotencyCache.requireSame(original, order.kind(), order.amount(), order.fundId());
+            } catch (RuntimeException e) {
+                task.future().completeExceptionally(e);
+                return true;
+            }
+            if (filled != null) {
+                task.future().complete(filled);
+                return true;
+            }
+            first.future().whenComplete((fill, failure) -> {
+                if (failure != null) {
+                    task.future().completeExceptionally(failure);
+                } else {
+                    task.future().complete(fill);
+                }
+            });
+            return true;
+        }
+    }
+}
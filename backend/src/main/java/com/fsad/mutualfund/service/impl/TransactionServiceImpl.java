@@ -1,152 +1,207 @@
 package com.fsad.mutualfund.service.impl;
 
+import com.fsad.mutualfund.cache.IdempotencyCache;
+import com.fsad.mutualfund.dto.TransactionHistoryItem;
+import com.fsad.mutualfund.dto.TransactionHistoryPage;
 import com.fsad.mutualfund.dto.TransactionRequest;
 import com.fsad.mutualfund.entity.*;
 import com.fsad.mutualfund.repository.*;
+import com.fsad.mutualfund.service.OrderExecutor;
 import com.fsad.mutualfund.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+    private static final LocalDateTime EARLIEST_CREATED_AT = LocalDate.of(1900, 1, 1).atStartOfDay();
+    private static final LocalDateTime LATEST_CREATED_AT = LocalDate.of(9999, 12, 31).atStartOfDay();
+
     private final TransactionRepository transactionRepository;
-    private final InvestorProfileRepository investorProfileRepository;
     private final MutualFundRepository fundRepository;
     private final PortfolioHoldingRepository holdingRepository;
     private final UserRepository userRepository;
+    private final OrderExecutor orderExecutor;
+    private final IdempotencyCache idempotencyCache;
+    private final boolean cutoffSettlement;
 
     public TransactionServiceImpl(TransactionRepository transactionRepository,
-                                  InvestorProfileRepository investorProfileRepository,
                                   MutualFundRepository fundRepository,
                                   PortfolioHoldingRepository holdingRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  OrderExecutor orderExecutor,
+                                  IdempotencyCache idempotencyCache,
+                                  @Value("${app.orders.settlement:instant}") String settlement) {
         this.transactionRepository = transactionRepository;
-        this.investorProfileRepository = investorProfileRepository;
         this.fundRepository = fundRepository;
         this.holdingRepository = holdingRepository;
         this.userRepository = userRepository;
+        this.orderExecutor = orderExecutor;
+        this.idempotencyCache = idempotencyCache;
+        this.cutoffSettlement = "cutoff".equalsIgnoreCase(settlement);
     }
 
     @Override
-    @Transactional
-    public Transaction buyFund(Long userId, TransactionRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        InvestorProfile profile = investorProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Investor profile not found"));
+    public Transaction buyFund(Long userId, TransactionRequest request, String idempotencyKey) {
+        // A retry is answered from the first attempt before anything is looked up
+        String key = IdempotencyCache.normalize(idempotencyKey);
+        OrderExecutor.Fill replayed = idempotencyCache.replay(
+                userId, key, OrderExecutor.Kind.BUY, request.getAmount(), request.getFundId());
+        if (replayed != null) {
+            return toTransaction(userId, replayed);
+        }
 
         MutualFund fund = fundRepository.findById(request.getFundId())
                 .orElseThrow(() -> new RuntimeException("Fund not found"));
 
         BigDecimal amount = request.getAmount();
 
-        // Check wallet balance
-        if (profile.getWalletBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient wallet balance. Available: " + profile.getWalletBalance());
+        // Order book: the cash is reserved now, units are allotted at the cut-off NAV
+        if (cutoffSettlement) {
+            String description = "Buy order for ₹" + amount + " of " + fund.getFundName() + " (pending cut-off NAV)";
+            OrderExecutor.Fill fill = orderExecutor.execute(OrderExecutor.Order.fund(
+                    userId, OrderExecutor.Kind.BUY_ORDER, amount, fund.getId(), null, null, description)
+                    .withIdempotencyKey(key));
+            return toTransaction(userId, fill);
         }
 
         // Calculate units
         BigDecimal nav = fund.getCurrentNav();
         BigDecimal units = amount.divide(nav, 4, RoundingMode.HALF_UP);
 
-        // Deduct from wallet
-        profile.setWalletBalance(profile.getWalletBalance().subtract(amount));
-        investorProfileRepository.save(profile);
-
-        // Update or create portfolio holding
-        PortfolioHolding holding = holdingRepository
-                .findByInvestorIdAndMutualFundId(userId, fund.getId())
-                .orElse(PortfolioHolding.builder()
-                        .investor(user)
-                        .mutualFund(fund)
-                        .unitsOwned(BigDecimal.ZERO)
-                        .averageBuyPrice(BigDecimal.ZERO)
-                        .build());
-
-        // Weighted average price
-        BigDecimal totalOldValue = holding.getUnitsOwned().multiply(holding.getAverageBuyPrice());
-        BigDecimal totalNewValue = units.multiply(nav);
-        BigDecimal totalUnits = holding.getUnitsOwned().add(units);
-
-        if (totalUnits.compareTo(BigDecimal.ZERO) > 0) {
-            holding.setAverageBuyPrice(
-                    totalOldValue.add(totalNewValue).divide(totalUnits, 4, RoundingMode.HALF_UP));
-        }
-        holding.setUnitsOwned(totalUnits);
-        holdingRepository.save(holding);
-
-        // Record transaction
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .type(Transaction.TransactionType.BUY)
-                .amount(amount)
-                .status(Transaction.TransactionStatus.SUCCESS)
-                .referenceId("FUND-" + fund.getId())
-                .description("Bought " + units.setScale(4, RoundingMode.HALF_UP) + " units of " + fund.getFundName())
-                .build();
-
-        return transactionRepository.save(transaction);
+        // Wallet debit, holding update and transaction row are applied by the investor's order stripe
+        String description = "Bought " + units.setScale(4, RoundingMode.HALF_UP) + " units of " + fund.getFundName();
+        OrderExecutor.Fill fill = orderExecutor.execute(OrderExecutor.Order.fund(
+                userId, OrderExecutor.Kind.BUY, amount, fund.getId(), nav, units, description)
+                .withIdempotencyKey(key));
+        return toTransaction(userId, fill);
     }
 
     @Override
-    @Transactional
-    public Transaction sellFund(Long userId, TransactionRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        InvestorProfile profile = investorProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Investor profile not found"));
+    public Transaction sellFund(Long userId, TransactionRequest request, String idempotencyKey) {
+        String key = IdempotencyCache.normalize(idempotencyKey);
+        OrderExecutor.Fill replayed = idempotencyCache.replay(
+                userId, key, OrderExecutor.Kind.SELL, request.getAmount(), request.getFundId());
+        if (replayed != null) {
+            return toTransaction(userId, replayed);
+        }
 
         MutualFund fund = fundRepository.findById(request.getFundId())
                 .orElseThrow(() -> new RuntimeException("Fund not found"));
 
-        PortfolioHolding holding = holdingRepository
-                .findByInvestorIdAndMutualFundId(userId, fund.getId())
-                .orElseThrow(() -> new RuntimeException("No holdings found for this fund"));
-
         BigDecimal amount = request.getAmount();
         BigDecimal nav = fund.getCurrentNav();
         BigDecimal unitsToSell = amount.divide(nav, 4, RoundingMode.HALF_UP);
 
-        // Check if user has enough units
-        if (holding.getUnitsOwned().compareTo(unitsToSell) < 0) {
-            throw new RuntimeException("Insufficient units. You own: " + holding.getUnitsOwned());
+        // Order book: units are checked against today's NAV now and redeemed at the cut-off NAV
+        if (cutoffSettlement) {
+            String description = "Sell order for ₹" + amount + " of " + fund.getFundName() + " (pending cut-off NAV)";
+            OrderExecutor.Fill fill = orderExecutor.execute(OrderExecutor.Order.fund(
+                    userId, OrderExecutor.Kind.SELL_ORDER, amount, fund.getId(), nav, unitsToSell, description)
+                    .withIdempotencyKey(key));
+            return toTransaction(userId, fill);
         }
 
-        // Credit wallet
-        profile.setWalletBalance(profile.getWalletBalance().add(amount));
-        investorProfileRepository.save(profile);
-
-        // Update holding
-        holding.setUnitsOwned(holding.getUnitsOwned().subtract(unitsToSell));
-        if (holding.getUnitsOwned().compareTo(BigDecimal.ZERO) == 0) {
-            holdingRepository.delete(holding);
-        } else {
-            holdingRepository.save(holding);
-        }
+        String description = "Sold " + unitsToSell.setScale(4, RoundingMode.HALF_UP) + " units of " + fund.getFundName();
+        OrderExecutor.Fill fill = orderExecutor.execute(OrderExecutor.Order.fund(
+                userId, OrderExecutor.Kind.SELL, amount, fund.getId(), nav, unitsToSell, description)
+                .withIdempotencyKey(key));
+        return toTransaction(userId, fill);
+    }
 
-        // Record transaction
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .type(Transaction.TransactionType.SELL)
-                .amount(amount)
-                .status(Transaction.TransactionStatus.SUCCESS)
-                .referenceId("FUND-" + fund.getId())
-                .description("Sold " + unitsToSell.setScale(4, RoundingMode.HALF_UP) + " units of " + fund.getFundName())
+    private Transaction toTransaction(Long userId, OrderExecutor.Fill fill) {
+        OrderExecutor.Kind kind = fill.order().kind();
+        boolean pending = kind == OrderExecutor.Kind.BUY_ORDER || kind == OrderExecutor.Kind.SELL_ORDER;
+        return Transaction.builder()
+                .user(userRepository.getReferenceById(userId))
+                .type(kind == OrderExecutor.Kind.BUY || kind == OrderExecutor.Kind.BUY_ORDER
+                        ? Transaction.TransactionType.BUY : Transaction.TransactionType.SELL)
+                .amount(fill.order().amount())
+                .status(pending ? Transaction.TransactionStatus.PENDING : Transaction.TransactionStatus.SUCCESS)
+                .referenceId("FUND-" + fill.order().fundId())
+                .description(fill.order().description())
+                .createdAt(fill.executedAt())
                 .build();
-
-        return transactionRepository.save(transaction);
     }
 
     @Override
-    public List<Transaction> getTransactionHistory(Long userId) {
-        return transactionRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public TransactionHistoryPage getTransactionHistory(Long userId, String type, String status,
+                                                        LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_HISTORY_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_HISTORY_PAGE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        Set<Transaction.TransactionType> types = type != null
+                ? EnumSet.of(Transaction.TransactionType.valueOf(type.toUpperCase()))
+                : EnumSet.allOf(Transaction.TransactionType.class);
+        Set<Transaction.TransactionStatus> statuses = status != null
+                ? EnumSet.of(Transaction.TransactionStatus.valueOf(status.toUpperCase()))
+                : EnumSet.allOf(Transaction.TransactionStatus.class);
+
+        // 'from' and 'to' are whole days; the cursor is the last row of the previous page
+        LocalDateTime lower = from != null ? from.atStartOfDay() : EARLIEST_CREATED_AT;
+        LocalDateTime upper = to != null ? to.plusDays(1).atStartOfDay() : LATEST_CREATED_AT;
+        Cursor before = cursor != null && !cursor.isBlank()
+                ? Cursor.decode(cursor) : new Cursor(LATEST_CREATED_AT, Long.MAX_VALUE);
+
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionHistoryView> rows = transactionRepository.findHistoryBefore(
+                userId, lower, upper, before.createdAt(), before.id(), types, statuses, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionHistoryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<TransactionHistoryItem> items = page.stream()
+                .map(tx -> TransactionHistoryItem.builder()
+                        .id(tx.getId())
+                        .type(tx.getType().name())
+                        .amount(tx.getAmount())
+                        .status(tx.getStatus().name())
+                        .description(tx.getDescription() != null ? tx.getDescription() : "")
+                        .createdAt(tx.getCreatedAt().toString())
+                        .build())
+                .collect(Collectors.toList());
+
+        TransactionHistoryView last = hasMore ? page.get(page.size() - 1) : null;
+        return TransactionHistoryPage.builder()
+                .transactions(items)
+                .nextCursor(last != null ? new Cursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Opaque to clients: base64url of "createdAt|id" of the last row served
+    private record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String position = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('|');
+                return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                        Long.parseLong(position.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,116 @@
+package com.fsad.mutualfund.utils;
+
+/**
+ * Daily simple returns of several funds on a shared date grid, stored day-major
+ * ({@code returns[day * funds + fund]}) so one row is one joint market day.
+ *
+ * The grid is the union of the funds' NAV dates inside the window, starting where every fund
+ * has a NAV. A fund without a NAV on a grid day carries its previous NAV forward (return 0).
+ */
+public final class AlignedReturns {
+
+    private final int funds;
+    private final int days;
+    private final int firstEpochDay;
+    private final int lastEpochDay;
+    private final double[] returns;
+
+    private AlignedReturns(int funds, int days, int firstEpochDay, int lastEpochDay, double[] returns) {
+        this.funds = funds;
+        this.days = days;
+        this.firstEpochDay = firstEpochDay;
+        this.lastEpochDay = lastEpochDay;
+        this.returns = returns;
+    }
+
+    /**
+     * @param epochDays ascending epoch days per fund
+     * @param navs      NAVs per fund, parallel to epochDays
+     * @param fromDay   first epoch day of the window (inclusive)
+     * @param toDay     last epoch day of the window (inclusive)
+     */
+    public static AlignedReturns of(int[][] epochDays, double[][] navs, int fromDay, int toDay) {
+        int funds = epochDays.length;
+        int[] grid = NavGrid.union(epochDays, fromDay, toDay);
+        if (grid.length < 2) {
+            int first = grid.length == 0 ? fromDay : grid[0];
+            return new AlignedReturns(funds, 0, first, first, new double[0]);
+        }
+
+        double[][] filled = NavGrid.carryForward(epochDays, navs, grid);
+        int days = grid.length - 1;
+        double[] returns = new double[days * funds];
+        for (int f = 0; f < funds; f++) {
+            for (int d = 1; d <= days; d++) {
+                double previous = filled[f][d - 1];
+                returns[(d - 1) * funds + f] = previous > 0 ? filled[f][d] / previous - 1.0 : 0.0;
+            }
+        }
+        return new AlignedReturns(funds, days, grid[0], grid[days], returns);
+    }
+
+    public int funds() {
+        return funds;
+    }
+
+    /** Number of return rows (grid days minus one). */
+    public int days() {
+        return days;
+    }
+
+    public int firstEpochDay() {
+        return firstEpochDay;
+    }
+
+    public int lastEpochDay() {
+        return lastEpochDay;
+    }
+
+    /** Day-major returns; shared, do not modify. */
+    public double[] returns() {
+        return returns;
+    }
+
+    public double returnAt(int day, int fund) {
+        return returns[day * funds + fund];
+    }
+
+    /** Mean daily log return per fund. */
+    public double[] meanLogReturns() {
+        double[] mean = new double[funds];
+        for (int d = 0; d < days; d++) {
+            for (int f = 0; f < funds; f++) {
+                mean[f] += Math.log1p(returns[d * funds + f]);
+            }
+        }
+        for (int f = 0; f < funds; f++) {
+            mean[f] = days == 0 ? 0.0 : mean[f] / days;
+        }
+        return mean;
+    }
+
+    /** Sample covariance of daily log returns, row-major funds × funds. */
+    public double[] logCovariance(double[] meanLogReturns) {
+        double[] covariance = new double[funds * funds];
+        double[] centred = new double[funds];
+        for (int d = 0; d < days; d++) {
+            for (int f = 0; f < funds; f++) {
+                centred[f] = Math.log1p(returns[d * funds + f]) - meanLogReturns[f];
+            }
+            for (int i = 0; i < funds; i++) {
+                for (int j = 0; j <= i; j++) {
+                    covariance[i * funds + j] += centred[i] * centred[j];
+                }
+            }
+        }
+        double scale = days > 1 ? 1.0 / (days - 1) : 0.0;
+        for (int i = 0; i < funds; i++) {
+            for (int j = 0; j <= i; j++) {
+                double value = covariance[i * funds + j] * scale;
+                covariance[i * funds + j] = value;
+                covariance[j * funds + i] = value;
+            }
+        }
+        return covariance;
+    }
+}
@@ -0,0 +1,79 @@
+package com.fsad.mutualfund.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for chart series.
+ * Keeps the first and last points and, per bucket, the point forming the largest triangle
+ * with the previously kept point and the next bucket's average, which preserves peaks and troughs.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * @param x         ascending x values (e.g. epoch days)
+     * @param y         y values
+     * @param from      first index of the range
+     * @param to        index after the last index of the range
+     * @param threshold number of points to keep (at least 3 to downsample)
+     * @return indices into x/y of the kept points, ascending
+     */
+    public static int[] lttb(int[] x, double[] y, int from, int to, int threshold) {
+        int length = to - from;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[Math.max(0, length)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = from;
+
+        // Buckets cover the interior points; first and last are always kept
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = from + 1 + (int) Math.floor(bucket * bucketSize);
+            int end = from + 1 + (int) Math.floor((bucket + 1) * bucketSize);
+
+            int nextStart = end;
+            int nextEnd = Math.min(to, from + 1 + (int) Math.floor((bucket + 2) * bucketSize));
+            double avgX = 0;
+            double avgY = 0;
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            if (nextEnd <= nextStart) {
+                avgX = x[to - 1];
+                avgY = y[to - 1];
+            } else {
+                for (int i = nextStart; i < nextEnd; i++) {
+                    avgX += x[i];
+                    avgY += y[i];
+                }
+                avgX /= nextCount;
+                avgY /= nextCount;
+            }
+
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the argmax
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[count++] = chosen;
+            a = chosen;
+        }
+
+        kept[count++] = to - 1;
+        return kept;
+    }
+}
@@ -1,18 +1,18 @@
 package com.fsad.mutualfund.utils;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.List;
 
 /**
  * Financial mathematics engine for mutual fund analytics.
- * All calculations use BigDecimal to prevent floating-point errors.
+ * Statistics run in a single pass over primitive doubles; the BigDecimal API is a
+ * facade that converts once on the way in and rounds to SCALE on the way out.
  */
 public final class FinancialCalculator {
 
-    private static final MathContext MC = MathContext.DECIMAL64;
     private static final int SCALE = 6;
+    private static final int MONTHS_PER_YEAR = 12;
 
     private FinancialCalculator() {
     }
@@ -24,14 +24,19 @@ public final class FinancialCalculator {
         if (beginValue.compareTo(BigDecimal.ZERO) <= 0 || years <= 0) {
             return BigDecimal.ZERO;
         }
-        double ratio = endValue.doubleValue() / beginValue.doubleValue();
-        double cagr = Math.pow(ratio, 1.0 / years) - 1.0;
-        return BigDecimal.valueOf(cagr).setScale(SCALE, RoundingMode.HALF_UP);
+        return round(cagr(beginValue.doubleValue(), endValue.doubleValue(), years));
+    }
+
+    public static double cagr(double beginValue, double endValue, double years) {
+        if (beginValue <= 0 || years <= 0) {
+            return 0.0;
+        }
+        return Math.pow(endValue / beginValue, 1.0 / years) - 1.0;
     }
 
     /**
      * Sharpe Ratio = (Rp - Rf) / σp
-     * 
+     *
      * @param returns      list of periodic returns
      * @param riskFreeRate annualized risk-free rate (e.g., 0.06 for 6%)
      */
@@ -39,17 +44,60 @@ public final class FinancialCalculator {
         if (returns == null || returns.size() < 2) {
             return BigDecimal.ZERO;
         }
+        return sharpeRatio(RunningStats.of(toDoubles(returns)), riskFreeRate.doubleValue(), MONTHS_PER_YEAR);
+    }
 
-        BigDecimal periodicRf = riskFreeRate.divide(BigDecimal.valueOf(12), MC); // Monthly risk-free
-        BigDecimal meanReturn = calculateMean(returns);
-        BigDecimal stdDev = calculateStandardDeviation(returns);
+    /**
+     * Sharpe ratio of periodic returns already folded into an accumulator.
+     *
+     * @param periodsPerYear converts the annual risk-free rate to the return frequency
+     */
+    public static BigDecimal sharpeRatio(RunningStats stats, double riskFreeRate, int periodsPerYear) {
+        if (stats.count() < 2) {
+            return BigDecimal.ZERO;
+        }
+        // σ is taken at SCALE so the ratio stays consistent with the reported std-dev
+        BigDecimal stdDev = standardDeviation(stats);
+        if (stdDev.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        double excessReturn = stats.mean() - riskFreeRate / periodsPerYear;
+        return round(excessReturn / stdDev.doubleValue());
+    }
 
-        if (stdDev.compareTo(BigDecimal.ZERO) == 0) {
+    /**
+     * Sharpe ratio scaled to annual terms: periodic Sharpe × √periodsPerYear.
+     */
+    public static BigDecimal annualisedSharpeRatio(RunningStats stats, double riskFreeRate, int periodsPerYear) {
+        return round(sharpeRatio(stats, riskFreeRate, periodsPerYear).doubleValue() * Math.sqrt(periodsPerYear));
+    }
+
+    /**
+     * Sortino ratio = (Rp - Rf) / downside deviation, with the stats' threshold set to the periodic Rf.
+     */
+    public static BigDecimal sortinoRatio(RunningStats stats, double riskFreeRate, int periodsPerYear) {
+        double downside = stats.downsideDeviation();
+        if (stats.count() < 2 || downside == 0) {
             return BigDecimal.ZERO;
         }
+        return round((stats.mean() - riskFreeRate / periodsPerYear) / downside);
+    }
 
-        BigDecimal excessReturn = meanReturn.subtract(periodicRf);
-        return excessReturn.divide(stdDev, SCALE, RoundingMode.HALF_UP);
+    /**
+     * Annualised volatility = periodic σ × √periodsPerYear.
+     */
+    public static BigDecimal annualisedVolatility(RunningStats stats, int periodsPerYear) {
+        if (stats.count() < 2) {
+            return BigDecimal.ZERO;
+        }
+        return round(stats.standardDeviation() * Math.sqrt(periodsPerYear));
+    }
+
+    /**
+     * Geometric annualisation of a mean periodic return: (1 + r)^periodsPerYear - 1.
+     */
+    public static BigDecimal annualisedReturn(double meanPeriodicReturn, int periodsPerYear) {
+        return round(Math.pow(1.0 + meanPeriodicReturn, periodsPerYear) - 1.0);
     }
 
     /**
@@ -59,18 +107,14 @@ public final class FinancialCalculator {
         if (values == null || values.size() < 2) {
             return BigDecimal.ZERO;
         }
+        return standardDeviation(RunningStats.of(toDoubles(values)));
+    }
 
-        BigDecimal mean = calculateMean(values);
-        BigDecimal sumSquares = BigDecimal.ZERO;
-
-        for (BigDecimal v : values) {
-            BigDecimal diff = v.subtract(mean);
-            sumSquares = sumSquares.add(diff.multiply(diff, MC), MC);
+    public static BigDecimal standardDeviation(RunningStats stats) {
+        if (stats.count() < 2) {
+            return BigDecimal.ZERO;
         }
-
-        BigDecimal variance = sumSquares.divide(BigDecimal.valueOf(values.size() - 1), MC);
-        double stdDev = Math.sqrt(variance.doubleValue());
-        return BigDecimal.valueOf(stdDev).setScale(SCALE, RoundingMode.HALF_UP);
+        return round(stats.standardDeviation());
     }
 
     /**
@@ -80,8 +124,7 @@ public final class FinancialCalculator {
         if (values == null || values.isEmpty()) {
             return BigDecimal.ZERO;
         }
-        BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        return sum.divide(BigDecimal.valueOf(values.size()), MC);
+        return round(RunningStats.of(toDoubles(values)).mean());
     }
 
     /**
@@ -94,4 +137,44 @@ public final class FinancialCalculator {
         return newValue.subtract(oldValue)
                 .divide(oldValue, SCALE, RoundingMode.HALF_UP);
     }
+
+    /**
+     * Streams the simple returns of a price series into an accumulator without materialising them.
+     * Non-positive prices break the chain and are skipped.
+     */
+    public static RunningStats returnStats(double[] prices, int from, int to, double downsideThreshold) {
+        RunningStats stats = new RunningStats(downsideThreshold);
+        for (int i = from + 1; i < to; i++) {
+            if (prices[i - 1] > 0) {
+                stats.add(prices[i] / prices[i - 1] - 1.0);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Same as {@link #returnStats(double[], int, int, double)} over a fixed-point series.
+     * The scale cancels out of each ratio so no conversion is needed.
+     */
+    public static RunningStats returnStats(long[] prices, int from, int to, double downsideThreshold) {
+        RunningStats stats = new RunningStats(downsideThreshold);
+        for (int i = from + 1; i < to; i++) {
+            if (prices[i - 1] > 0) {
+                stats.add((double) prices[i] / prices[i - 1] - 1.0);
+            }
+        }
+        return stats;
+    }
+
+    private static double[] toDoubles(List<BigDecimal> values) {
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i).doubleValue();
+        }
+        return result;
+    }
+
+    private static BigDecimal round(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
 }
@@ -0,0 +1,57 @@
+package com.fsad.mutualfund.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Sampling frequencies for return series, with the periods-per-year used to annualise.
+ */
+public enum Frequency {
+    DAILY(252),
+    WEEKLY(52),
+    MONTHLY(12),
+    QUARTERLY(4);
+
+    private final int periodsPerYear;
+
+    Frequency(int periodsPerYear) {
+        this.periodsPerYear = periodsPerYear;
+    }
+
+    public int getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+
+    /**
+     * Last calendar day of the period containing the date (weeks end on Sunday).
+     * DAILY periods are the day itself.
+     */
+    public LocalDate periodEnd(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTHLY -> date.with(TemporalAdjusters.lastDayOfMonth());
+            case QUARTERLY -> {
+                LocalDate quarterStart = date.with(IsoFields.DAY_OF_QUARTER, 1);
+                yield quarterStart.plusMonths(3).minusDays(1);
+            }
+        };
+    }
+
+    /**
+     * Period end following the given period end.
+     */
+    public LocalDate nextPeriodEnd(LocalDate periodEnd) {
+        return periodEnd(periodEnd.plusDays(1));
+    }
+
+    public static Frequency parse(String value) {
+        try {
+            return Frequency.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported frequency: " + value + " (use DAILY, WEEKLY, MONTHLY or QUARTERLY)");
+        }
+    }
+}
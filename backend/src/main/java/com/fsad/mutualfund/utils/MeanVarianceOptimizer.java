@@ -0,0 +1,177 @@
+package com.fsad.mutualfund.utils;
+
+import java.util.Arrays;
+
+/**
+ * Long-only, fully invested mean-variance portfolios: maximises
+ * {@code mu'w - (riskAversion / 2) w'Σw} subject to {@code sum(w) = 1, w >= 0}.
+ *
+ * Solved by accelerated projected gradient (FISTA) with projection onto the simplex of the
+ * eligible funds, with adaptive momentum restarts. It needs only matrix-vector products and
+ * converges in a few hundred iterations for a few hundred funds. A previous solution can be
+ * passed as a warm start.
+ */
+public final class MeanVarianceOptimizer {
+
+    private static final int MAX_ITERATIONS = 5_000;
+    private static final double TOLERANCE = 1e-10;
+
+    private MeanVarianceOptimizer() {
+    }
+
+    /**
+     * @param mu           expected return per fund
+     * @param covariance   row-major n × n covariance
+     * @param riskAversion larger values favour lower variance
+     * @param eligible     funds that may hold weight; others stay at zero
+     * @param warmStart    starting weights, or null for equal weights
+     * @return weights summing to one over the eligible funds
+     */
+    public static double[] solve(double[] mu, double[] covariance, double riskAversion,
+                                 boolean[] eligible, double[] warmStart) {
+        int n = mu.length;
+        int count = 0;
+        for (boolean e : eligible) {
+            count += e ? 1 : 0;
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("No eligible funds");
+        }
+
+        double[] w = new double[n];
+        if (warmStart != null) {
+            System.arraycopy(warmStart, 0, w, 0, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                w[i] = eligible[i] ? 1.0 / count : 0.0;
+            }
+        }
+        projectToSimplex(w, eligible);
+
+        // Gershgorin bound on the largest eigenvalue gives a safe step size
+        double lipschitz = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (!eligible[i]) {
+                continue;
+            }
+            double row = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (eligible[j]) {
+                    row += Math.abs(covariance[i * n + j]);
+                }
+            }
+            lipschitz = Math.max(lipschitz, row);
+        }
+        double step = lipschitz > 0 ? 1.0 / (riskAversion * lipschitz) : 1.0;
+
+        double[] previous = w.clone();
+        double[] y = w.clone();
+        double[] sigmaY = new double[n];
+        double t = 1.0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            multiply(covariance, y, eligible, sigmaY);
+            System.arraycopy(w, 0, previous, 0, n);
+            for (int i = 0; i < n; i++) {
+                w[i] = eligible[i] ? y[i] - step * (riskAversion * sigmaY[i] - mu[i]) : 0.0;
+            }
+            projectToSimplex(w, eligible);
+
+            double change = 0.0;
+            for (int i = 0; i < n; i++) {
+                change = Math.max(change, Math.abs(w[i] - previous[i]));
+            }
+            if (change < TOLERANCE) {
+                break;
+            }
+            // Adaptive restart: drop the momentum once it points uphill
+            double direction = 0.0;
+            for (int i = 0; i < n; i++) {
+                direction += (y[i] - w[i]) * (w[i] - previous[i]);
+            }
+            if (direction > 0) {
+                t = 1.0;
+            }
+            double next = (1.0 + Math.sqrt(1.0 + 4.0 * t * t)) / 2.0;
+            double momentum = (t - 1.0) / next;
+            for (int i = 0; i < n; i++) {
+                y[i] = w[i] + momentum * (w[i] - previous[i]);
+            }
+            t = next;
+        }
+        return w;
+    }
+
+    public static double expectedReturn(double[] mu, double[] weights) {
+        double result = 0.0;
+        for (int i = 0; i < mu.length; i++) {
+            result += mu[i] * weights[i];
+        }
+        return result;
+    }
+
+    public static double variance(double[] covariance, double[] weights) {
+        int n = weights.length;
+        double result = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (weights[i] == 0.0) {
+                continue;
+            }
+            double row = 0.0;
+            for (int j = 0; j < n; j++) {
+                row += covariance[i * n + j] * weights[j];
+            }
+            result += weights[i] * row;
+        }
+        return Math.max(0.0, result);
+    }
+
+    /**
+     * Euclidean projection onto {w >= 0, sum(w) = 1} restricted to the eligible entries, in place.
+     */
+    static void projectToSimplex(double[] w, boolean[] eligible) {
+        int n = w.length;
+        double[] sorted = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (eligible[i]) {
+                sorted[count++] = w[i];
+            } else {
+                w[i] = 0.0;
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+
+        // Largest k with sorted_k - (sum of the top k - 1) / k > 0, walking down from the top
+        double cumulative = 0.0;
+        double theta = 0.0;
+        for (int k = 1; k <= count; k++) {
+            double value = sorted[count - k];
+            cumulative += value;
+            double candidate = (cumulative - 1.0) / k;
+            if (value - candidate > 0) {
+                theta = candidate;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (eligible[i]) {
+                w[i] = Math.max(0.0, w[i] - theta);
+            }
+        }
+    }
+
+    private static void multiply(double[] matrix, double[] x, boolean[] eligible, double[] out) {
+        int n = x.length;
+        for (int i = 0; i < n; i++) {
+            if (!eligible[i]) {
+                out[i] = 0.0;
+                continue;
+            }
+            double sum = 0.0;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                sum += matrix[row + j] * x[j];
+            }
+            out[i] = sum;
+        }
+    }
+}
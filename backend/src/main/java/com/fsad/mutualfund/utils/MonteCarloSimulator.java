@@ -0,0 +1,286 @@
+package com.fsad.mutualfund.utils;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo projection of a buy-and-hold portfolio with optional monthly contributions.
+ *
+ * Paths are split across the caller's fork/join pool (never the common pool, which the batch
+ * jobs' parallel streams share); every task carries its own SplittableRandom, split
+ * from its parent before forking, so a seed reproduces the same paths regardless of scheduling.
+ * Path state is one double per fund per worker, and only the portfolio value at the observation
+ * months is kept: memory is observations × paths, independent of the number of daily steps.
+ */
+public final class MonteCarloSimulator {
+
+    public static final int TRADING_DAYS_PER_MONTH = 21;
+
+    private static final int LEAF_PATHS = 256;
+
+    private MonteCarloSimulator() {
+    }
+
+    public enum Method {
+        /** Resamples whole historical days, keeping cross-fund correlation and fat tails. */
+        BOOTSTRAP,
+        /** Correlated log-normal draws from the historical mean and covariance. */
+        PARAMETRIC;
+
+        public static Method parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid simulation method: " + value);
+            }
+        }
+    }
+
+    /**
+     * @param history             aligned daily returns of the funds held
+     * @param method              how returns are drawn from the history
+     * @param initial             starting value per fund
+     * @param monthlyContribution amount added to each fund at the end of every month
+     * @param observeAt           ascending month numbers (1-based) at which to record portfolio values
+     * @param paths               number of paths
+     * @param seed                root seed
+     * @param pool                pool the paths run on
+     * @return portfolio value per observation per path, {@code [observation][path]}
+     */
+    public static double[][] simulate(AlignedReturns history, Method method, double[] initial,
+                                      double[] monthlyContribution, int[] observeAt, int paths, long seed,
+                                      ForkJoinPool pool) {
+        if (history.days() == 0) {
+            throw new IllegalArgumentException("No return history to sample from");
+        }
+        double[][] observed = new double[observeAt.length][paths];
+        Sampler sampler = method == Method.BOOTSTRAP ? new Bootstrap(history) : Parametric.of(history);
+        Simulation simulation = new Simulation(sampler, initial, monthlyContribution, observeAt, observed);
+        pool.invoke(new PathTask(simulation, 0, paths, new SplittableRandom(seed)));
+        return observed;
+    }
+
+    /**
+     * Sorts each observation in place and reads off the percentiles (0-100). The sorts run as a
+     * task of {@code pool}, so their forked subtasks stay in it too.
+     *
+     * @return {@code [observation][percentile]}
+     */
+    public static double[][] percentiles(double[][] observed, double[] percentiles, ForkJoinPool pool) {
+        double[][] result = new double[observed.length][percentiles.length];
+        pool.submit(() -> {
+            for (int o = 0; o < observed.length; o++) {
+                Arrays.parallelSort(observed[o]);
+                for (int p = 0; p < percentiles.length; p++) {
+                    result[o][p] = RollingReturns.percentile(observed[o], percentiles[p]);
+                }
+            }
+        }).join();
+        return result;
+    }
+
+    /**
+     * Fraction of an ascending array that is at least the target.
+     */
+    public static double fractionAtLeast(double[] sorted, double target) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return sorted.length == 0 ? 0.0 : (double) (sorted.length - lo) / sorted.length;
+    }
+
+    /**
+     * Moves every fund's value forward by one month of trading days.
+     */
+    private interface Sampler {
+        int funds();
+
+        /**
+         * @param scratch per-worker buffer of at least {@link #scratchSize()} doubles
+         */
+        void advanceMonth(SplittableRandom random, double[] value, double[] scratch);
+
+        default int scratchSize() {
+            return 0;
+        }
+    }
+
+    private static final class Bootstrap implements Sampler {
+        private final int funds;
+        private final int days;
+        private final double[] growth;
+
+        private Bootstrap(AlignedReturns history) {
+            funds = history.funds();
+            days = history.days();
+            double[] returns = history.returns();
+            growth = new double[returns.length];
+            for (int i = 0; i < returns.length; i++) {
+                growth[i] = 1.0 + returns[i];
+            }
+        }
+
+        @Override
+        public int funds() {
+            return funds;
+        }
+
+        @Override
+        public void advanceMonth(SplittableRandom random, double[] value, double[] scratch) {
+            for (int step = 0; step < TRADING_DAYS_PER_MONTH; step++) {
+                // Multiply-shift instead of nextInt(days): no division, bias below days / 2^32
+                int row = (int) (((random.nextLong() >>> 32) * days) >>> 32) * funds;
+                for (int f = 0; f < funds; f++) {
+                    value[f] *= growth[row + f];
+                }
+            }
+        }
+    }
+
+    /**
+     * A month of i.i.d. normal daily log returns is itself normal with 21× the mean and covariance,
+     * so each month is one correlated draw rather than 21.
+     */
+    private static final class Parametric implements Sampler {
+        private final int funds;
+        private final double[] mean;
+        private final double[] cholesky;
+
+        private Parametric(int funds, double[] mean, double[] cholesky) {
+            this.funds = funds;
+            this.mean = mean;
+            this.cholesky = cholesky;
+        }
+
+        static Parametric of(AlignedReturns history) {
+            int funds = history.funds();
+            double[] daily = history.meanLogReturns();
+            double[] covariance = history.logCovariance(daily);
+            double[] mean = new double[funds];
+            for (int f = 0; f < funds; f++) {
+                mean[f] = daily[f] * TRADING_DAYS_PER_MONTH;
+            }
+            for (int i = 0; i < covariance.length; i++) {
+                covariance[i] *= TRADING_DAYS_PER_MONTH;
+            }
+            return new Parametric(funds, mean, cholesky(covariance, funds));
+        }
+
+        @Override
+        public int funds() {
+            return funds;
+        }
+
+        @Override
+        public int scratchSize() {
+            return funds;
+        }
+
+        @Override
+        public void advanceMonth(SplittableRandom random, double[] value, double[] z) {
+            for (int i = 0; i < funds; i++) {
+                z[i] = gaussian(random);
+            }
+            for (int i = 0; i < funds; i++) {
+                double x = mean[i];
+                int row = i * funds;
+                for (int j = 0; j <= i; j++) {
+                    x += cholesky[row + j] * z[j];
+                }
+                value[i] *= Math.exp(x);
+            }
+        }
+    }
+
+    /**
+     * Lower-triangular factor of a covariance matrix. Funds that move in lockstep make the
+     * matrix singular; their residual variance is clamped to zero instead of failing.
+     */
+    static double[] cholesky(double[] covariance, int n) {
+        double[] l = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = covariance[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[i * n + k] * l[j * n + k];
+                }
+                if (i == j) {
+                    l[i * n + i] = Math.sqrt(Math.max(0.0, sum));
+                } else {
+                    double diagonal = l[j * n + j];
+                    l[i * n + j] = diagonal > 0 ? sum / diagonal : 0.0;
+                }
+            }
+        }
+        return l;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private record Simulation(Sampler sampler, double[] initial, double[] contribution,
+                              int[] observeAt, double[][] observed) {
+
+        void run(int from, int to, SplittableRandom random) {
+            int funds = sampler.funds();
+            int months = observeAt[observeAt.length - 1];
+            double[] value = new double[funds];
+            double[] scratch = new double[sampler.scratchSize()];
+            for (int path = from; path < to; path++) {
+                System.arraycopy(initial, 0, value, 0, funds);
+                int next = 0;
+                for (int month = 1; month <= months; month++) {
+                    sampler.advanceMonth(random, value, scratch);
+                    double total = 0.0;
+                    for (int f = 0; f < funds; f++) {
+                        value[f] += contribution[f];
+                        total += value[f];
+                    }
+                    if (month == observeAt[next]) {
+                        observed[next++][path] = total;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class PathTask extends RecursiveAction {
+        private final Simulation simulation;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private PathTask(Simulation simulation, int from, int to, SplittableRandom random) {
+            this.simulation = simulation;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_PATHS) {
+                simulation.run(from, to, random);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            PathTask left = new PathTask(simulation, from, mid, random.split());
+            PathTask right = new PathTask(simulation, mid, to, random);
+            invokeAll(left, right);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fsad.mutualfund.utils;
+
+import java.util.Arrays;
+
+/**
+ * Puts several funds' NAV series on one date grid: the union of their NAV dates inside the
+ * window, starting where every fund has a NAV, with each fund carrying its NAV forward.
+ */
+final class NavGrid {
+
+    private NavGrid() {
+    }
+
+    /**
+     * @param epochDays ascending epoch days per fund
+     * @param fromDay   first epoch day (inclusive)
+     * @param toDay     last epoch day (inclusive)
+     * @return ascending, distinct grid days; empty when a fund has no NAV
+     */
+    static int[] union(int[][] epochDays, int fromDay, int toDay) {
+        int start = fromDay;
+        int total = 0;
+        for (int[] days : epochDays) {
+            if (days.length == 0) {
+                return new int[0];
+            }
+            start = Math.max(start, days[0]);
+            total += days.length;
+        }
+        int[] grid = new int[total];
+        int size = 0;
+        for (int[] days : epochDays) {
+            for (int day : days) {
+                if (day >= start && day <= toDay) {
+                    grid[size++] = day;
+                }
+            }
+        }
+        Arrays.sort(grid, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || grid[i] != grid[unique - 1]) {
+                grid[unique++] = grid[i];
+            }
+        }
+        return Arrays.copyOf(grid, unique);
+    }
+
+    /**
+     * NAV in force on every grid day, {@code [fund][day]}: each fund's own series is walked
+     * alongside the grid.
+     */
+    static double[][] carryForward(int[][] epochDays, double[][] navs, int[] grid) {
+        double[][] filled = new double[epochDays.length][grid.length];
+        for (int f = 0; f < epochDays.length; f++) {
+            int cursor = 0;
+            for (int d = 0; d < grid.length; d++) {
+                while (cursor + 1 < epochDays[f].length && epochDays[f][cursor + 1] <= grid[d]) {
+                    cursor++;
+                }
+                filled[f][d] = navs[f][cursor];
+            }
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fsad.mutualfund.utils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Turns a daily NAV series into a calendar-aligned period-end series.
+ *
+ * The first point is the opening NAV (the first observation). Each completed period then
+ * contributes the last NAV on or before its period end, so weekends, holidays and whole
+ * periods without data carry the previous NAV forward. The period containing the last
+ * observation is still open and is not closed.
+ */
+public final class NavResampler {
+
+    private NavResampler() {
+    }
+
+    public static final class Resampled {
+        private final int[] epochDays;
+        private final int[] sourceIndex;
+        private final double[] values;
+
+        private Resampled(int[] epochDays, int[] sourceIndex, double[] values) {
+            this.epochDays = epochDays;
+            this.sourceIndex = sourceIndex;
+            this.values = values;
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        /** Epoch day of each point: the opening observation, then each period end. */
+        public int[] epochDays() {
+            return epochDays;
+        }
+
+        /** Index in the source series of the NAV used for each point. */
+        public int[] sourceIndex() {
+            return sourceIndex;
+        }
+
+        public double[] values() {
+            return values;
+        }
+
+        /** Simple returns between consecutive points. */
+        public double[] returns() {
+            double[] returns = new double[Math.max(0, values.length - 1)];
+            for (int i = 1; i < values.length; i++) {
+                returns[i - 1] = values[i - 1] > 0 ? values[i] / values[i - 1] - 1.0 : 0.0;
+            }
+            return returns;
+        }
+
+        /** Streams the returns into an accumulator without materialising them. */
+        public RunningStats returnStats(double downsideThreshold) {
+            return FinancialCalculator.returnStats(values, 0, values.length, downsideThreshold);
+        }
+    }
+
+    /**
+     * @param epochDays ascending epoch days
+     * @param navs      NAV per day
+     * @param from      first source index to use
+     * @param to        index after the last source index to use
+     */
+    public static Resampled resample(int[] epochDays, double[] navs, int from, int to, Frequency frequency) {
+        if (to <= from) {
+            return new Resampled(new int[0], new int[0], new double[0]);
+        }
+        if (frequency == Frequency.DAILY) {
+            int[] index = new int[to - from];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = from + i;
+            }
+            return new Resampled(Arrays.copyOfRange(epochDays, from, to), index, Arrays.copyOfRange(navs, from, to));
+        }
+
+        LocalDate first = LocalDate.ofEpochDay(epochDays[from]);
+        LocalDate lastOpenPeriodEnd = frequency.periodEnd(LocalDate.ofEpochDay(epochDays[to - 1]));
+
+        // Upper bound on points: the opening value plus one per elapsed period
+        int capacity = 1 + countPeriods(first, lastOpenPeriodEnd, frequency);
+        int[] days = new int[capacity];
+        int[] index = new int[capacity];
+        double[] values = new double[capacity];
+
+        days[0] = epochDays[from];
+        index[0] = from;
+        values[0] = navs[from];
+        int count = 1;
+
+        int cursor = from;
+        for (LocalDate end = frequency.periodEnd(first); end.isBefore(lastOpenPeriodEnd);
+                end = frequency.nextPeriodEnd(end)) {
+            // Last observation on or before the period end, searching only beyond the previous hit
+            cursor = floorIndex(epochDays, cursor, to, (int) end.toEpochDay());
+            days[count] = (int) end.toEpochDay();
+            index[count] = cursor;
+            values[count] = navs[cursor];
+            count++;
+        }
+
+        return new Resampled(Arrays.copyOf(days, count), Arrays.copyOf(index, count), Arrays.copyOf(values, count));
+    }
+
+    private static int countPeriods(LocalDate first, LocalDate lastPeriodEnd, Frequency frequency) {
+        long days = lastPeriodEnd.toEpochDay() - first.toEpochDay();
+        return switch (frequency) {
+            case DAILY -> (int) days + 1;
+            case WEEKLY -> (int) (days / 7) + 2;
+            case MONTHLY -> (int) (days / 28) + 2;
+            case QUARTERLY -> (int) (days / 89) + 2;
+        };
+    }
+
+    // Largest i in [lo, hi) with epochDays[i] <= day; lo itself qualifies by construction
+    private static int floorIndex(int[] epochDays, int lo, int hi, int day) {
+        int left = lo + 1;
+        int right = hi;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (epochDays[mid] <= day) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return left - 1;
+    }
+}
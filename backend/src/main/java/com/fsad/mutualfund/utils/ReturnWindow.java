@@ -0,0 +1,54 @@
+package com.fsad.mutualfund.utils;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Look-back windows used for rolling returns and chart ranges.
+ */
+public enum ReturnWindow {
+    ONE_MONTH("1M", Period.ofMonths(1)),
+    THREE_MONTHS("3M", Period.ofMonths(3)),
+    SIX_MONTHS("6M", Period.ofMonths(6)),
+    ONE_YEAR("1Y", Period.ofYears(1)),
+    THREE_YEARS("3Y", Period.ofYears(3)),
+    FIVE_YEARS("5Y", Period.ofYears(5));
+
+    private final String label;
+    private final Period period;
+
+    ReturnWindow(String label, Period period) {
+        this.label = label;
+        this.period = period;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Period getPeriod() {
+        return period;
+    }
+
+    public double years() {
+        return period.toTotalMonths() / 12.0;
+    }
+
+    // Returns over more than a year are quoted annualised (CAGR), as is industry practice
+    public boolean isAnnualised() {
+        return period.toTotalMonths() > 12;
+    }
+
+    public LocalDate startFrom(LocalDate end) {
+        return end.minus(period);
+    }
+
+    public static ReturnWindow parse(String label) {
+        for (ReturnWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new RuntimeException("Unsupported window: " + label + " (use 1M, 3M, 6M, 1Y, 3Y or 5Y)");
+    }
+}
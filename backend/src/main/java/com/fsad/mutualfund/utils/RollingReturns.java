@@ -0,0 +1,61 @@
+package com.fsad.mutualfund.utils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Rolling (point-to-point) returns over a sorted daily series, computed with a two-pointer sweep.
+ */
+public final class RollingReturns {
+
+    // A window start older than this many days past the target date is treated as a data gap
+    private static final int MAX_START_GAP_DAYS = 7;
+
+    private RollingReturns() {
+    }
+
+    /**
+     * Returns one observation per end date whose window start is covered by the series.
+     * The start NAV is the last NAV on or before (end - window), so weekends and holidays carry forward.
+     *
+     * @param epochDays ascending epoch days
+     * @param navs      NAV per day, same length
+     * @param from      first index eligible as a window end
+     * @param to        index after the last eligible window end
+     */
+    public static double[] compute(int[] epochDays, double[] navs, int from, int to, ReturnWindow window) {
+        double[] result = new double[Math.max(0, to - from)];
+        int count = 0;
+        double years = window.years();
+        boolean annualise = window.isAnnualised();
+
+        int start = 0;
+        for (int end = from; end < to; end++) {
+            long target = LocalDate.ofEpochDay(epochDays[end]).minus(window.getPeriod()).toEpochDay();
+            while (start + 1 < end && epochDays[start + 1] <= target) {
+                start++;
+            }
+            if (epochDays[start] > target || target - epochDays[start] > MAX_START_GAP_DAYS
+                    || navs[start] <= 0) {
+                continue;
+            }
+            double r = navs[end] / navs[start] - 1.0;
+            result[count++] = annualise ? Math.pow(1.0 + r, 1.0 / years) - 1.0 : r;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Linear-interpolated percentile (0-100) of an ascending array.
+     */
+    public static double percentile(double[] sorted, double pct) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        double rank = pct / 100.0 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        double weight = rank - lower;
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * weight;
+    }
+}
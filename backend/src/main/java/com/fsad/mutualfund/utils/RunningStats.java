@@ -0,0 +1,158 @@
+package com.fsad.mutualfund.utils;
+
+/**
+ * Single-pass accumulator for mean, variance, min/max and downside deviation.
+ * Uses Welford's update so each value costs O(1) with no allocation.
+ */
+public final class RunningStats {
+
+    private final double downsideThreshold;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double downsideSumSquares;
+
+    public RunningStats() {
+        this(0.0);
+    }
+
+    /**
+     * @param downsideThreshold values below this contribute to the downside deviation
+     */
+    public RunningStats(double downsideThreshold) {
+        this.downsideThreshold = downsideThreshold;
+    }
+
+    /**
+     * Restores moments persisted elsewhere. Min/max and downside deviation are not carried over.
+     */
+    public static RunningStats ofMoments(long count, double mean, double m2) {
+        RunningStats stats = new RunningStats();
+        stats.count = count;
+        stats.mean = mean;
+        stats.m2 = m2;
+        return stats;
+    }
+
+    public static RunningStats of(double[] values) {
+        return of(values, 0, values.length);
+    }
+
+    public static RunningStats of(double[] values, int from, int to) {
+        RunningStats stats = new RunningStats();
+        for (int i = from; i < to; i++) {
+            stats.add(values[i]);
+        }
+        return stats;
+    }
+
+    /**
+     * Fixed-point series, e.g. NAVs stored as value × 10^scale.
+     */
+    public static RunningStats ofFixedPoint(long[] values, int from, int to, int scale) {
+        double factor = Math.pow(10, scale);
+        RunningStats stats = new RunningStats();
+        for (int i = from; i < to; i++) {
+            stats.add(values[i] / factor);
+        }
+        return stats;
+    }
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        trackExtremes(value);
+        if (value < downsideThreshold) {
+            double shortfall = value - downsideThreshold;
+            downsideSumSquares += shortfall * shortfall;
+        }
+    }
+
+    /**
+     * Adds the same value k times in O(1).
+     */
+    public void addRepeated(double value, long k) {
+        if (k <= 0) {
+            return;
+        }
+        long total = count + k;
+        double delta = value - mean;
+        mean += delta * k / total;
+        m2 += delta * delta * count * k / total;
+        count = total;
+        trackExtremes(value);
+        if (value < downsideThreshold) {
+            double shortfall = value - downsideThreshold;
+            downsideSumSquares += shortfall * shortfall * k;
+        }
+    }
+
+    /**
+     * Combines another accumulator into this one (Chan et al. pairwise update).
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        downsideSumSquares += other.downsideSumSquares;
+    }
+
+    private void trackExtremes(double value) {
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public double m2() {
+        return m2;
+    }
+
+    /**
+     * Sample variance (n - 1 denominator).
+     */
+    public double variance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Semi-deviation below the threshold, over all observations.
+     */
+    public double downsideDeviation() {
+        return count == 0 ? 0.0 : Math.sqrt(downsideSumSquares / count);
+    }
+}
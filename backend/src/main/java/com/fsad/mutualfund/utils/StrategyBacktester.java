@@ -0,0 +1,179 @@
+package com.fsad.mutualfund.utils;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Replays an investment strategy over NAV history held in primitive arrays.
+ *
+ * Funds in a basket share one date grid (the union of their NAV dates, each fund carrying its
+ * NAV forward) and split every installment by fixed weights; units are bought at the NAV in
+ * force on the first grid day on or after the installment date and held to the end.
+ * Drawdown is measured on the time-weighted value index, so new money does not hide losses.
+ */
+public final class StrategyBacktester {
+
+    private StrategyBacktester() {
+    }
+
+    public enum Type {
+        LUMP_SUM, SIP, STEP_UP_SIP;
+
+        public static Type parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid strategy: " + value);
+            }
+        }
+    }
+
+    /**
+     * @param amount       lump sum, or the (first) monthly installment
+     * @param dayOfMonth   SIP date, clamped to the month's length
+     * @param annualStepUp STEP_UP_SIP growth of the installment each year, e.g. 0.10
+     */
+    public record Strategy(Type type, double amount, int dayOfMonth, double annualStepUp) {
+    }
+
+    /**
+     * NAVs of a basket on a shared grid: {@code navs[fund][day]}.
+     */
+    public record Grid(int[] epochDays, double[][] navs) {
+
+        public int size() {
+            return epochDays.length;
+        }
+
+        /**
+         * @param epochDays ascending epoch days per fund
+         * @param navs      NAVs per fund, parallel to epochDays
+         * @param fromDay   first epoch day (inclusive); the grid starts where every fund has a NAV
+         * @param toDay     last epoch day (inclusive)
+         */
+        public static Grid of(int[][] epochDays, double[][] navs, int fromDay, int toDay) {
+            int[] grid = NavGrid.union(epochDays, fromDay, toDay);
+            return new Grid(grid, NavGrid.carryForward(epochDays, navs, grid));
+        }
+    }
+
+    public record Result(double invested, double finalValue, double xirr, double maxDrawdown,
+                         int drawdownPeakDay, int drawdownTroughDay, int installments,
+                         double[] values, double[] investedToDate) {
+
+        public double gain() {
+            return finalValue - invested;
+        }
+
+        public double absoluteReturn() {
+            return invested > 0 ? finalValue / invested - 1.0 : 0.0;
+        }
+    }
+
+    /**
+     * @param grid    basket NAVs on a shared grid
+     * @param weights share of each installment per fund, summing to one
+     */
+    public static Result run(Grid grid, double[] weights, Strategy strategy) {
+        int days = grid.size();
+        int funds = weights.length;
+        if (days == 0) {
+            throw new IllegalArgumentException("Empty NAV grid");
+        }
+        int[] epochDays = grid.epochDays();
+        double[][] navs = grid.navs();
+
+        int[] scheduleDays = schedule(strategy, epochDays[0], epochDays[days - 1]);
+        double[] flowAmounts = new double[scheduleDays.length + 1];
+        int[] flowDays = new int[scheduleDays.length + 1];
+        int flows = 0;
+
+        double[] units = new double[funds];
+        double[] values = new double[days];
+        double[] investedToDate = new double[days];
+        double invested = 0.0;
+        double index = 1.0;
+        double peak = 1.0;
+        int peakDay = epochDays[0];
+        double maxDrawdown = 0.0;
+        int drawdownPeakDay = epochDays[0];
+        int drawdownTroughDay = epochDays[0];
+        double previousValue = 0.0;
+        int next = 0;
+        LocalDate start = LocalDate.ofEpochDay(epochDays[0]);
+
+        for (int d = 0; d < days; d++) {
+            double value = 0.0;
+            for (int f = 0; f < funds; f++) {
+                value += units[f] * navs[f][d];
+            }
+            if (previousValue > 0) {
+                index *= value / previousValue;
+            }
+
+            // Installments due on or before this grid day are bought at today's NAV
+            while (next < scheduleDays.length && scheduleDays[next] <= epochDays[d]) {
+                double amount = installment(strategy, start, scheduleDays[next]);
+                for (int f = 0; f < funds; f++) {
+                    units[f] += amount * weights[f] / navs[f][d];
+                }
+                invested += amount;
+                value += amount;
+                flowAmounts[flows] = -amount;
+                flowDays[flows++] = epochDays[d];
+                next++;
+            }
+
+            if (index > peak) {
+                peak = index;
+                peakDay = epochDays[d];
+            }
+            double drawdown = peak > 0 ? 1.0 - index / peak : 0.0;
+            if (drawdown > maxDrawdown) {
+                maxDrawdown = drawdown;
+                drawdownPeakDay = peakDay;
+                drawdownTroughDay = epochDays[d];
+            }
+            values[d] = value;
+            investedToDate[d] = invested;
+            previousValue = value;
+        }
+
+        double finalValue = values[days - 1];
+        flowAmounts[flows] = finalValue;
+        flowDays[flows++] = epochDays[days - 1];
+        double xirr = Xirr.compute(flowAmounts, flowDays, flows);
+        return new Result(invested, finalValue, xirr, maxDrawdown, drawdownPeakDay, drawdownTroughDay,
+                flows - 1, values, investedToDate);
+    }
+
+    /**
+     * Installment dates in [fromDay, toDay] as epoch days, ascending.
+     */
+    static int[] schedule(Strategy strategy, int fromDay, int toDay) {
+        if (strategy.type() == Type.LUMP_SUM) {
+            return new int[] { fromDay };
+        }
+        LocalDate from = LocalDate.ofEpochDay(fromDay);
+        LocalDate to = LocalDate.ofEpochDay(toDay);
+        int[] result = new int[(to.getYear() - from.getYear()) * 12 + to.getMonthValue() - from.getMonthValue() + 1];
+        int count = 0;
+        for (LocalDate month = from.withDayOfMonth(1); !month.isAfter(to); month = month.plusMonths(1)) {
+            LocalDate date = month.withDayOfMonth(Math.min(strategy.dayOfMonth(), month.lengthOfMonth()));
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                result[count++] = (int) date.toEpochDay();
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static double installment(Strategy strategy, LocalDate start, int epochDay) {
+        if (strategy.type() != Type.STEP_UP_SIP) {
+            return strategy.amount();
+        }
+        int years = (int) ChronoUnit.YEARS.between(start, LocalDate.ofEpochDay(epochDay));
+        return strategy.amount() * Math.pow(1.0 + strategy.annualStepUp(), years);
+    }
+}
@@ -0,0 +1,121 @@
+package com.fsad.mutualfund.utils;
+
+/**
+ * Money-weighted annual return of dated cash flows: the rate r with
+ * {@code sum(amount_i / (1 + r)^((day_i - day_0) / 365)) = 0}.
+ *
+ * Newton-Raphson from a 10% guess converges in a handful of steps for ordinary investment
+ * flows; when it leaves the domain, stalls or oscillates, bisection on a bracketing interval
+ * takes over, so any flow set with a sign change gets an answer.
+ */
+public final class Xirr {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+    private static final double TOLERANCE = 1e-9;
+    private static final int NEWTON_ITERATIONS = 50;
+    private static final int BISECTION_ITERATIONS = 200;
+    private static final double MIN_RATE = -0.999999;
+    private static final double MAX_RATE = 1e6;
+
+    private Xirr() {
+    }
+
+    /**
+     * @param amounts   cash flows: investments negative, withdrawals and final value positive
+     * @param epochDays date of each flow, any order
+     * @param count     number of flows to use from the start of the arrays
+     * @return the annual rate as a fraction, or NaN when the flows do not change sign
+     */
+    public static double compute(double[] amounts, int[] epochDays, int count) {
+        return compute(amounts, epochDays, 0, count);
+    }
+
+    /**
+     * XIRR of the flows in [from, to) of the arrays, so many investors' flows can share one buffer.
+     */
+    public static double compute(double[] amounts, int[] epochDays, int from, int to) {
+        int count = to - from;
+        boolean positive = false;
+        boolean negative = false;
+        int firstDay = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            positive |= amounts[i] > 0;
+            negative |= amounts[i] < 0;
+            firstDay = Math.min(firstDay, epochDays[i]);
+        }
+        if (!positive || !negative) {
+            return Double.NaN;
+        }
+
+        double[] flows = new double[count];
+        double[] years = new double[count];
+        for (int i = 0; i < count; i++) {
+            flows[i] = amounts[from + i];
+            years[i] = (epochDays[from + i] - firstDay) / DAYS_PER_YEAR;
+        }
+        return solve(flows, years, count);
+    }
+
+    private static double solve(double[] amounts, double[] years, int count) {
+        double rate = 0.1;
+        for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+            double value = 0.0;
+            double derivative = 0.0;
+            double base = 1.0 + rate;
+            for (int i = 0; i < count; i++) {
+                double discount = Math.pow(base, -years[i]);
+                value += amounts[i] * discount;
+                derivative -= years[i] * amounts[i] * discount / base;
+            }
+            if (derivative == 0.0 || !Double.isFinite(derivative)) {
+                break;
+            }
+            double next = rate - value / derivative;
+            if (!Double.isFinite(next) || next <= MIN_RATE || next > MAX_RATE) {
+                break;
+            }
+            if (Math.abs(next - rate) < TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect(amounts, years, count);
+    }
+
+    private static double bisect(double[] amounts, double[] years, int count) {
+        double low = MIN_RATE;
+        double high = 1.0;
+        double lowValue = npv(amounts, years, count, low);
+        double highValue = npv(amounts, years, count, high);
+        while (Math.signum(lowValue) == Math.signum(highValue) && high < MAX_RATE) {
+            high *= 10;
+            highValue = npv(amounts, years, count, high);
+        }
+        if (Math.signum(lowValue) == Math.signum(highValue)) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < BISECTION_ITERATIONS && high - low > TOLERANCE; iteration++) {
+            double mid = (low + high) / 2.0;
+            double midValue = npv(amounts, years, count, mid);
+            if (midValue == 0.0) {
+                return mid;
+            }
+            if (Math.signum(midValue) == Math.signum(lowValue)) {
+                low = mid;
+                lowValue = midValue;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2.0;
+    }
+
+    private static double npv(double[] amounts, double[] years, int count, double rate) {
+        double base = 1.0 + rate;
+        double value = 0.0;
+        for (int i = 0; i < count; i++) {
+            value += amounts[i] * Math.pow(base, -years[i]);
+        }
+        return value;
+    }
+}
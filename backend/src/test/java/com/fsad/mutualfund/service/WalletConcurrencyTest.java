@@ -0,0 +1,176 @@
+package com.fsad.mutualfund.service;
+
+import com.fsad.mutualfund.dto.TransactionRequest;
+import com.fsad.mutualfund.entity.InvestorProfile;
+import com.fsad.mutualfund.entity.MutualFund;
+import com.fsad.mutualfund.entity.User;
+import com.fsad.mutualfund.repository.InvestorProfileRepository;
+import com.fsad.mutualfund.repository.MutualFundRepository;
+import com.fsad.mutualfund.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads depositing, buying and selling against one investor through the real services,
+ * executor and database. Amounts are tracked in paise and units in ten-thousandths so the
+ * expected books are exact.
+ */
+@SpringBootTest(properties = "app.orders.stripes=4")
+class WalletConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 200;
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal NAV = new BigDecimal("10.0000");
+    private static final BigDecimal DEPOSIT = new BigDecimal("5.00");
+    private static final BigDecimal BUY = new BigDecimal("20.00"); // 2 units
+    private static final BigDecimal SELL = new BigDecimal("10.00"); // 1 unit
+
+    @Autowired
+    private InvestorService investorService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InvestorProfileRepository profileRepository;
+    @Autowired
+    private MutualFundRepository fundRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long fundId;
+
+    @BeforeEach
+    void createInvestorAndFund() {
+        long suffix = System.nanoTime();
+        User user = userRepository.save(User.builder()
+                .email("contention-" + suffix + "@test.local")
+                .fullName("Contention Test")
+                .role(User.Role.INVESTOR)
+                .authProvider(User.AuthProvider.LOCAL)
+                .verified(true)
+                .build());
+        profileRepository.save(InvestorProfile.builder()
+                .user(user)
+                .riskToleranceScore(50)
+                .riskCategory(InvestorProfile.RiskCategory.MODERATE)
+                .walletBalance(OPENING_BALANCE)
+                .build());
+        MutualFund fund = fundRepository.save(MutualFund.builder()
+                .fundName("Contention Fund " + suffix)
+                .tickerSymbol("CT" + (suffix % 100_000_000))
+                .category(MutualFund.Category.EQUITY)
+                .riskRating(3)
+                .currentNav(NAV)
+                .build());
+        userId = user.getId();
+        fundId = fund.getId();
+    }
+
+    @Test
+    void concurrentOrdersKeepWalletAndHoldingExact() throws Exception {
+        AtomicLong credits = new AtomicLong(); // paise
+        AtomicLong debits = new AtomicLong(); // paise
+        AtomicLong units = new AtomicLong(); // ten-thousandths
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong lowestSeen = new AtomicLong(Long.MAX_VALUE);
+        AtomicBoolean done = new AtomicBoolean();
+
+        // Reads the stored balance throughout the run; it must never dip below zero
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                BigDecimal balance = jdbcTemplate.queryForObject(
+                        "SELECT wallet_balance FROM investor_profiles WHERE user_id = ?", BigDecimal.class, userId);
+                lowestSeen.accumulateAndGet(paise(balance), Math::min);
+            }
+        });
+        sampler.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    try {
+                        switch (random.nextInt(3)) {
+                            case 0 -> {
+                                BigDecimal balance = investorService.depositToWallet(userId, DEPOSIT, null);
+                                lowestSeen.accumulateAndGet(paise(balance), Math::min);
+                                credits.addAndGet(paise(DEPOSIT));
+                            }
+                            case 1 -> {
+                                transactionService.buyFund(userId, request(BUY), null);
+                                debits.addAndGet(paise(BUY));
+                                units.addAndGet(20_000);
+                            }
+                            default -> {
+                                transactionService.sellFund(userId, request(SELL), null);
+                                credits.addAndGet(paise(SELL));
+                                units.addAndGet(-10_000);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        // Short wallet or holding: rejected without side effects
+                        assertThat(e.getMessage()).containsAnyOf("Insufficient", "No holdings");
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        done.set(true);
+        sampler.join();
+
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT wallet_balance FROM investor_profiles WHERE user_id = ?", BigDecimal.class, userId);
+        List<BigDecimal> held = jdbcTemplate.queryForList(
+                "SELECT units_owned FROM portfolio_holdings WHERE investor_id = ? AND fund_id = ?",
+                BigDecimal.class, userId, fundId);
+
+        assertThat(paise(balance)).isEqualTo(paise(OPENING_BALANCE) + credits.get() - debits.get());
+        assertThat(held.isEmpty() ? 0L : held.get(0).movePointRight(4).longValueExact()).isEqualTo(units.get());
+        assertThat(lowestSeen.get()).isGreaterThanOrEqualTo(0L);
+        // The opening balance runs out part-way, so both outcomes were exercised
+        assertThat(rejected.get()).isPositive();
+        assertThat(rejected.get()).isLessThan((long) THREADS * ORDERS_PER_THREAD);
+    }
+
+    private TransactionRequest request(BigDecimal amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setFundId(fundId);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static long paise(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+}
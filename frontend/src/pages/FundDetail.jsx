@@ -14,7 +14,7 @@ export default function FundDetail() {
   const [message, setMessage] = useState({ type: '', text: '' });
 
   useEffect(() => {
-    api.get(`/funds/public/${id}`)
+    api.get(`/funds/public/${id}`, { params: { points: 600 } })
       .then(r => setFund(r.data))
       .catch(() => navigate('/funds'))
       .finally(() => setLoading(false));
@@ -4,6 +4,7 @@ import api from '../services/api';
 export default function Portfolio() {
   const [holdings, setHoldings] = useState([]);
   const [transactions, setTransactions] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [profile, setProfile] = useState(null);
   const [loading, setLoading] = useState(true);
   const [tab, setTab] = useState('holdings');
@@ -18,7 +19,8 @@ export default function Portfolio() {
       api.get('/investor/profile')
     ]).then(([h, t, p]) => {
       setHoldings(h.data);
-      setTransactions(t.data);
+      setTransactions(t.data.transactions);
+      setNextCursor(t.data.nextCursor);
       setProfile(p.data);
     }).catch(console.error).finally(() => setLoading(false));
   }, []);
@@ -38,13 +40,21 @@ export default function Portfolio() {
         api.get('/investor/profile')
       ]);
       setHoldings(h.data);
-      setTransactions(t.data);
+      setTransactions(t.data.transactions);
+      setNextCursor(t.data.nextCursor);
       setProfile(p.data);
     } catch (err) {
       setMessage({ type: 'error', text: err.response?.data?.message || 'Sell failed' });
     }
   };
 
+  const loadMoreTransactions = () => {
+    api.get('/transactions/history', { params: { cursor: nextCursor } }).then(res => {
+      setTransactions(prev => [...prev, ...res.data.transactions]);
+      setNextCursor(res.data.nextCursor);
+    }).catch(console.error);
+  };
+
   const totalValue = holdings.reduce((sum, h) => sum + Number(h.currentValue), 0);
   const totalInvested = holdings.reduce((sum, h) => sum + (Number(h.unitsOwned) * Number(h.averageBuyPrice)), 0);
   const totalPnL = totalValue - totalInvested;
@@ -89,7 +99,7 @@ export default function Portfolio() {
           Holdings ({holdings.length})
         </button>
         <button className={`btn ${tab === 'transactions' ? 'btn-primary' : 'btn-ghost'}`} onClick={() => setTab('transactions')}>
-          Transactions ({transactions.length})
+          Transactions ({transactions.length}{nextCursor ? '+' : ''})
         </button>
       </div>
 
@@ -158,6 +168,11 @@ export default function Portfolio() {
               </tbody>
             </table>
           )}
+          {nextCursor && (
+            <div style={{ textAlign: 'center', padding: '1rem' }}>
+              <button className="btn btn-ghost btn-sm" onClick={loadMoreTransactions}>Load more</button>
+            </div>
+          )}
         </div>
       )}
 